@@ -1,44 +1,262 @@
 package com.sharesapp.backend.aspect;
 
+import com.sharesapp.backend.aspect.annotation.Logging;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
+/**
+ * Logs the arguments and return values of {@link Logging} methods.
+ *
+ * <p>A sampled successful call is put on a bounded queue and rendered and written out by a
+ * background thread, so neither rendering nor I/O happens on the request thread. Only the
+ * collections and arrays passed in or returned are copied first, up to as many elements as can be
+ * rendered, so a list the caller reuses after the call is logged as it was. Rendering stops at
+ * {@code logging.aspect.max-length} characters, and DTOs are rendered field by field so a large
+ * nested graph is never turned into a string only to be cut. When the queue is full calls are
+ * dropped and counted rather than blocking. Failures are never sampled and are logged right away.
+ */
 @Component
 @Aspect
 @Slf4j
 public class LoggingAspect {
-  @Pointcut("@annotation(com.sharesapp.backend.aspect.annotation.Logging)")
-  private void serviceLogging() {}
-
-  @Around("serviceLogging()")
-  public Object logging(ProceedingJoinPoint joinPoint) throws Throwable {
-    String methodName = joinPoint.getSignature().getName();
-    Object[] args = joinPoint.getArgs();
-    log.info("Called method {}() with args: {}", methodName, args);
+  private static final String DTO_PACKAGE = "com.sharesapp.backend.dto";
+  private static final ClassValue<Field[]> FIELDS = new ClassValue<>() {
+    @Override
+    protected Field[] computeValue(Class<?> type) {
+      return fields(type);
+    }
+  };
+  private final BlockingQueue<Call> calls;
+  private final int maxLength;
+  private final LongAdder dropped = new LongAdder();
+  private final Thread writer;
+
+  public LoggingAspect(@Value("${logging.aspect.queue-size:8192}") int queueSize,
+                       @Value("${logging.aspect.max-length:1000}") int maxLength) {
+    this.calls = new ArrayBlockingQueue<>(queueSize);
+    this.maxLength = maxLength;
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("logging-");
+    threadFactory.setDaemon(true);
+    this.writer = threadFactory.newThread(this::write);
+  }
+
+  @Around(value = "@annotation(logging)", argNames = "logging")
+  public Object logging(ProceedingJoinPoint joinPoint, Logging logging) throws Throwable {
     try {
       Object output = joinPoint.proceed();
-      log.info("Method {} is returned with value: {}", methodName, output);
+      if (log.isInfoEnabled() && sampled(logging.sampleRate())) {
+        enqueue(joinPoint.getSignature().getName(), joinPoint.getArgs(), output);
+      }
       return output;
     } catch (Throwable exception) {
-      log.error("In the method {}() throwed exception with message: {}", methodName,
-          exception.getMessage());
+      log.error("In the method {}() throwed exception with message: {}",
+          joinPoint.getSignature().getName(), exception.getMessage());
       throw exception;
     }
   }
 
   @PostConstruct
   public void initAspect() {
+    writer.start();
     log.info("Aspect is initialized");
   }
 
   @PreDestroy
   public void destroyAspect() {
+    writer.interrupt();
+    try {
+      writer.join(1000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    for (Call call = calls.poll(); call != null; call = calls.poll()) {
+      write(call);
+    }
     log.info("Aspect is destroyed");
   }
+
+  int pending() {
+    return calls.size();
+  }
+
+  long dropped() {
+    return dropped.sum();
+  }
+
+  private void enqueue(String methodName, Object[] args, Object output) {
+    int elements = maxLength / 2 + 1;
+    Call call = new Call(methodName, snapshot(args, elements), snapshot(output, elements));
+    if (!calls.offer(call)) {
+      dropped.increment();
+    }
+  }
+
+  private void write() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        write(calls.take());
+        long lost = dropped.sumThenReset();
+        if (lost > 0) {
+          log.warn("Dropped {} method calls while the log queue was full", lost);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void write(Call call) {
+    try {
+      String args = format(call.args, maxLength);
+      String output = format(call.output, maxLength);
+      log.info("Called method {}() with args: {}", call.methodName, args);
+      log.info("Method {} is returned with value: {}", call.methodName, output);
+    } catch (RuntimeException exception) {
+      log.error("Failed to log the call of method {}(): {}", call.methodName,
+          exception.toString());
+    }
+  }
+
+  /**
+   * Copies the first {@code limit} elements of a collection or array, and of one inside an
+   * optional, and keeps its size. Other values are kept as they are.
+   */
+  private static Object snapshot(Object value, int limit) {
+    if (value instanceof Optional<?> optional && optional.isPresent()) {
+      return Optional.of(snapshot(optional.get(), limit));
+    } else if (value instanceof Object[] array) {
+      return new Elements(Arrays.stream(array, 0, Math.min(array.length, limit))
+          .map(element -> snapshot(element, limit)).toList(), array.length);
+    } else if (value instanceof Collection<?> collection) {
+      List<Object> head = new ArrayList<>(Math.min(collection.size(), limit));
+      Iterator<?> elements = collection.iterator();
+      while (elements.hasNext() && head.size() < limit) {
+        head.add(snapshot(elements.next(), limit));
+      }
+      return new Elements(head, collection.size());
+    }
+    return value;
+  }
+
+  private static boolean sampled(double sampleRate) {
+    return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+  }
+
+  /**
+   * Renders a value like {@link String#valueOf}, cutting it at about {@code maxLength}
+   * characters. Optionals, collections, arrays and DTOs are rendered element by element and field
+   * by field, so only what fits is converted to strings and the rest of a collection is only
+   * counted.
+   */
+  static String format(Object value, int maxLength) {
+    StringBuilder builder = new StringBuilder();
+    append(builder, value, maxLength);
+    return builder.toString();
+  }
+
+  private static void append(StringBuilder builder, Object value, int maxLength) {
+    if (value instanceof Optional<?> optional) {
+      if (optional.isEmpty()) {
+        builder.append("Optional.empty");
+        return;
+      }
+      builder.append("Optional[");
+      append(builder, optional.get(), maxLength);
+      builder.append(']');
+    } else if (value instanceof Elements elements) {
+      appendAll(builder, elements.head().iterator(), elements.size(), maxLength);
+    } else if (value instanceof Object[] array) {
+      appendAll(builder, Arrays.asList(array).iterator(), array.length, maxLength);
+    } else if (value instanceof Collection<?> collection) {
+      appendAll(builder, collection.iterator(), collection.size(), maxLength);
+    } else if (value != null && value.getClass().getPackageName().startsWith(DTO_PACKAGE)) {
+      appendFields(builder, value, maxLength);
+    } else {
+      String text = String.valueOf(value);
+      int room = Math.max(maxLength - builder.length(), 0);
+      builder.append(text, 0, Math.min(text.length(), room));
+      if (text.length() > room) {
+        builder.append("...");
+      }
+    }
+  }
+
+  private static void appendAll(StringBuilder builder, Iterator<?> elements, int size,
+                                int maxLength) {
+    builder.append('[');
+    int written = 0;
+    while (elements.hasNext() && builder.length() + 2 < maxLength) {
+      if (written > 0) {
+        builder.append(", ");
+      }
+      append(builder, elements.next(), maxLength);
+      written++;
+    }
+    if (written < size) {
+      builder.append(", ... ").append(size - written).append(" more");
+    }
+    builder.append(']');
+  }
+
+  private static void appendFields(StringBuilder builder, Object value, int maxLength) {
+    builder.append(value.getClass().getSimpleName()).append('(');
+    Field[] fields = FIELDS.get(value.getClass());
+    for (int i = 0; i < fields.length; i++) {
+      if (builder.length() >= maxLength) {
+        builder.append(", ...");
+        break;
+      }
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(fields[i].getName()).append('=');
+      try {
+        append(builder, fields[i].get(value), maxLength);
+      } catch (IllegalAccessException exception) {
+        throw new IllegalStateException(exception);
+      }
+    }
+    builder.append(')');
+  }
+
+  private static Field[] fields(Class<?> type) {
+    List<Field> fields = new ArrayList<>();
+    for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers())) {
+          field.setAccessible(true);
+          fields.add(field);
+        }
+      }
+    }
+    return fields.toArray(Field[]::new);
+  }
+
+  private record Call(String methodName, Object args, Object output) {
+  }
+
+  /**
+   * The first elements of a collection or array and how many it had.
+   */
+  private record Elements(List<Object> head, int size) {
+  }
 }
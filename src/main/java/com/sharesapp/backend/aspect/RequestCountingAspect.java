@@ -1,10 +1,18 @@
 package com.sharesapp.backend.aspect;
 
+import com.sharesapp.backend.exceptions.BadRequestException;
+import com.sharesapp.backend.exceptions.NotFoundException;
 import com.sharesapp.backend.service.RequestCounterService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
 
 @Component
 @Aspect
@@ -19,7 +27,32 @@ public class RequestCountingAspect {
       "@within(com.sharesapp.backend.aspect.annotation.RequestCounting) ||"
           + "@annotation(com.sharesapp.backend.aspect.annotation.RequestCounting)")
   public Object incrementRequestCounter(ProceedingJoinPoint joinPoint) throws Throwable {
-    requestCounterService.increment();
-    return joinPoint.proceed();
+    long start = System.nanoTime();
+    int status = HttpStatus.INTERNAL_SERVER_ERROR.value();
+    try {
+      Object result = joinPoint.proceed();
+      status = result instanceof ResponseEntity<?> response
+          ? response.getStatusCode().value() : HttpStatus.OK.value();
+      return result;
+    } catch (NotFoundException e) {
+      status = HttpStatus.NOT_FOUND.value();
+      throw e;
+    } catch (BadRequestException e) {
+      status = HttpStatus.BAD_REQUEST.value();
+      throw e;
+    } finally {
+      requestCounterService.record(route(joinPoint), status, System.nanoTime() - start);
+    }
   }
-}
\ No newline at end of file
+
+  private static String route(ProceedingJoinPoint joinPoint) {
+    if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes servlet) {
+      HttpServletRequest request = servlet.getRequest();
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      if (pattern != null) {
+        return request.getMethod() + " " + pattern;
+      }
+    }
+    return joinPoint.getSignature().toShortString();
+  }
+}
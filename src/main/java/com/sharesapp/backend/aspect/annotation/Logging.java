@@ -8,4 +8,9 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Logging {
+  /**
+   * Fraction of successful calls whose arguments and return value are logged. Failed calls are
+   * always logged.
+   */
+  double sampleRate() default 1.0;
 }
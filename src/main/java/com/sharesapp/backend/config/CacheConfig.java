@@ -1,16 +1,116 @@
 package com.sharesapp.backend.config;
 
+import com.sharesapp.backend.dto.CompanyDto;
+import com.sharesapp.backend.dto.share.ShareDto;
+import com.sharesapp.backend.dto.user.UserDto;
+import com.sharesapp.backend.utils.ThreadFactories;
+import com.sharesapp.backend.utils.cache.CacheRegistry;
+import com.sharesapp.backend.utils.cache.CacheSpec;
+import com.sharesapp.backend.utils.cache.CopyingCache;
 import com.sharesapp.backend.utils.cache.GenericCache;
-import com.sharesapp.backend.utils.cache.MyCache;
+import com.sharesapp.backend.utils.cache.OffHeapCache;
+import com.sharesapp.backend.utils.cache.SegmentedLruCache;
+import com.sharesapp.backend.utils.cache.TieredCache;
+import com.sharesapp.backend.utils.cache.ValueCodec;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.InjectionPoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Scope;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.StringUtils;
 
 @Configuration
+@EnableConfigurationProperties(CacheProperties.class)
 public class CacheConfig<K, V> {
+  private static final int REFRESH_QUEUE_CAPACITY = 1000;
+  private static final Map<Class<?>, UnaryOperator<?>> COPIERS = Map.of(
+      ShareDto.class, (UnaryOperator<ShareDto>) share -> share.toBuilder().build(),
+      CompanyDto.class, (UnaryOperator<CompanyDto>) company -> company.toBuilder().build(),
+      UserDto.class, (UnaryOperator<UserDto>) user -> user.toBuilder().build());
+  private final CacheProperties cacheProperties;
+  private final CacheRegistry cacheRegistry;
+  private final List<ValueCodec<?>> codecs;
+  private final ThreadPoolExecutor refreshExecutor;
+
+  public CacheConfig(CacheProperties cacheProperties, CacheRegistry cacheRegistry,
+                     List<ValueCodec<?>> codecs,
+                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+    this.cacheProperties = cacheProperties;
+    this.cacheRegistry = cacheRegistry;
+    this.codecs = codecs;
+    this.refreshExecutor = new ThreadPoolExecutor(cacheProperties.getRefreshThreads(),
+        cacheProperties.getRefreshThreads(), 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(REFRESH_QUEUE_CAPACITY),
+        ThreadFactories.named("cache-refresh-", virtualThreads));
+  }
+
   @Bean
   @Scope("prototype")
-  public GenericCache<K, V> cache() {
-    return new MyCache<>();
+  public GenericCache<K, V> cache(InjectionPoint injectionPoint) {
+    String name = cacheName(injectionPoint);
+    CacheSpec spec = cacheProperties.specFor(name);
+    GenericCache<K, V> cache = new SegmentedLruCache<>(spec, refreshExecutor);
+    if (spec.getOffHeapCapacity() != null && spec.getOffHeapCapacity() > 0) {
+      GenericCache<K, V> offHeapCache = new OffHeapCache<>(spec.getOffHeapCapacity(),
+          offHeapExpiry(spec), codecFor(name, injectionPoint));
+      cacheRegistry.register(name + "OffHeap", offHeapCache);
+      cache = new TieredCache<>(cache, offHeapCache);
+    }
+    UnaryOperator<V> copier = copierFor(injectionPoint);
+    if (copier != null) {
+      cache = new CopyingCache<>(cache, copier);
+    }
+    cacheRegistry.register(name, cache);
+    return cache;
+  }
+
+  @PreDestroy
+  public void shutdownRefreshExecutor() {
+    refreshExecutor.shutdownNow();
+  }
+
+  @SuppressWarnings("unchecked")
+  private ValueCodec<V> codecFor(String name, InjectionPoint injectionPoint) {
+    Class<?> valueType = valueType(injectionPoint);
+    return (ValueCodec<V>) codecs.stream()
+        .filter(codec -> codec.type().equals(valueType))
+        .findFirst()
+        .orElseThrow(() -> new IllegalStateException(
+            "No value codec for the off-heap tier of cache " + name));
+  }
+
+  @SuppressWarnings("unchecked")
+  private UnaryOperator<V> copierFor(InjectionPoint injectionPoint) {
+    return (UnaryOperator<V>) COPIERS.get(valueType(injectionPoint));
+  }
+
+  private static Class<?> valueType(InjectionPoint injectionPoint) {
+    ResolvableType cacheType = injectionPoint.getMethodParameter() != null
+        ? ResolvableType.forMethodParameter(injectionPoint.getMethodParameter())
+        : ResolvableType.forField(injectionPoint.getField());
+    return cacheType.getGeneric(1).resolve();
+  }
+
+  static Duration offHeapExpiry(CacheSpec spec) {
+    return Stream.of(spec.getExpireAfterWrite(), spec.getRefreshAfterWrite())
+        .filter(duration -> duration != null && !duration.isZero())
+        .min(Duration::compareTo)
+        .orElse(null);
+  }
+
+  static String cacheName(InjectionPoint injectionPoint) {
+    String owner = injectionPoint.getMember().getDeclaringClass().getSimpleName();
+    return StringUtils.uncapitalize(owner.replaceFirst("Service(Impl)?$", ""));
   }
 }
@@ -0,0 +1,23 @@
+package com.sharesapp.backend.config;
+
+import com.sharesapp.backend.utils.cache.CacheSpec;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+  private static final int DEFAULT_CAPACITY = 1000;
+
+  private CacheSpec defaults = new CacheSpec(DEFAULT_CAPACITY, null, null, null, null);
+
+  private Map<String, CacheSpec> specs = new HashMap<>();
+
+  private int refreshThreads = 2;
+
+  public CacheSpec specFor(String cacheName) {
+    return specs.getOrDefault(cacheName, new CacheSpec()).withDefaults(defaults);
+  }
+}
@@ -0,0 +1,32 @@
+package com.sharesapp.backend.controller;
+
+import com.sharesapp.backend.dto.CacheStatsDto;
+import com.sharesapp.backend.service.CacheStatsService;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@CrossOrigin("*")
+@RestController
+@RequestMapping("/api/cache/stats")
+public class CacheStatsController {
+  private final CacheStatsService cacheStatsService;
+
+  public CacheStatsController(CacheStatsService cacheStatsService) {
+    this.cacheStatsService = cacheStatsService;
+  }
+
+  @GetMapping
+  public ResponseEntity<List<CacheStatsDto>> getAllStats() {
+    return ResponseEntity.ok(cacheStatsService.getAllStats());
+  }
+
+  @GetMapping("/{name}")
+  public ResponseEntity<CacheStatsDto> getStats(@PathVariable("name") String name) {
+    return ResponseEntity.of(cacheStatsService.getStats(name));
+  }
+}
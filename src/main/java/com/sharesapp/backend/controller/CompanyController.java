@@ -2,10 +2,14 @@ package com.sharesapp.backend.controller;
 
 import com.sharesapp.backend.aspect.annotation.RequestCounting;
 import com.sharesapp.backend.dto.CompanyDto;
+import com.sharesapp.backend.dto.SearchResultDto;
 import com.sharesapp.backend.dto.share.ShareDto;
 import com.sharesapp.backend.service.impl.CompanyServiceImpl;
+import com.sharesapp.backend.service.impl.IngestServiceImpl;
+import java.io.InputStream;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,7 +19,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @CrossOrigin("*")
 @RestController
@@ -23,10 +29,12 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/company")
 public class CompanyController {
   private final CompanyServiceImpl companyService;
+  private final IngestServiceImpl ingestService;
 
   @Autowired
-  public CompanyController(CompanyServiceImpl companyService) {
+  public CompanyController(CompanyServiceImpl companyService, IngestServiceImpl ingestService) {
     this.companyService = companyService;
+    this.ingestService = ingestService;
   }
 
   @PostMapping
@@ -40,14 +48,32 @@ public class CompanyController {
     return ResponseEntity.of(companyService.createManyCompanies(createCompanies));
   }
 
+  @PostMapping(value = "/many/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> createManyCompaniesStream(InputStream body) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(out -> ingestService.ingest(body, out, CompanyDto.class,
+            companyService::createManyCompanies));
+  }
+
+  @GetMapping("/search")
+  public ResponseEntity<List<SearchResultDto>> searchCompanies(
+      @RequestParam(value = "prefix", required = false) String prefix,
+      @RequestParam(value = "limit", required = false) Integer limit) {
+    return ResponseEntity.of(companyService.searchCompanies(prefix, limit));
+  }
+
   @GetMapping("/{id}")
   public ResponseEntity<CompanyDto> getCompany(@PathVariable Long id) {
     return ResponseEntity.of(companyService.getById(id));
   }
 
   @GetMapping("/all")
-  public ResponseEntity<List<CompanyDto>> getAllCompanies() {
-    return ResponseEntity.of(companyService.getAllCompanies());
+  public ResponseEntity<List<CompanyDto>> getAllCompanies(
+      @RequestParam(value = "afterId", required = false) Long afterId,
+      @RequestParam(value = "limit", required = false) Integer limit) {
+    return ResponseEntity.of(companyService.getAllCompanies(afterId, limit));
   }
 
   @PutMapping("/{id}")
@@ -1,6 +1,8 @@
 package com.sharesapp.backend.controller;
 
+import com.sharesapp.backend.dto.RouteMetricsDto;
 import com.sharesapp.backend.service.RequestCounterService;
+import java.util.List;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,7 +20,12 @@ public class RequestCounterController {
   }
 
   @GetMapping
-  public ResponseEntity<Integer> getRequestCount() {
+  public ResponseEntity<Long> getRequestCount() {
     return ResponseEntity.ok(requestCounterService.getCount());
   }
+
+  @GetMapping("/routes")
+  public ResponseEntity<List<RouteMetricsDto>> getRouteMetrics() {
+    return ResponseEntity.ok(requestCounterService.getRouteMetrics());
+  }
 }
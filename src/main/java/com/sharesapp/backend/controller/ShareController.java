@@ -2,11 +2,23 @@ package com.sharesapp.backend.controller;
 
 import com.sharesapp.backend.aspect.annotation.RequestCounting;
 import com.sharesapp.backend.dto.CompanyDto;
+import com.sharesapp.backend.dto.SearchResultDto;
+import com.sharesapp.backend.dto.share.CandleDto;
 import com.sharesapp.backend.dto.share.CreateShare;
+import com.sharesapp.backend.dto.share.PricePointDto;
 import com.sharesapp.backend.dto.share.ShareDto;
+import com.sharesapp.backend.dto.share.TickDto;
+import com.sharesapp.backend.service.impl.CandleServiceImpl;
+import com.sharesapp.backend.service.impl.IngestServiceImpl;
+import com.sharesapp.backend.service.impl.PriceStreamServiceImpl;
 import com.sharesapp.backend.service.impl.ShareServiceImpl;
+import com.sharesapp.backend.service.impl.TickServiceImpl;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,7 +28,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @CrossOrigin("*")
 @RestController
@@ -24,10 +39,20 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/share")
 public class ShareController {
   private final ShareServiceImpl shareService;
+  private final IngestServiceImpl ingestService;
+  private final TickServiceImpl tickService;
+  private final PriceStreamServiceImpl priceStreamService;
+  private final CandleServiceImpl candleService;
 
   @Autowired
-  public ShareController(ShareServiceImpl shareService) {
+  public ShareController(ShareServiceImpl shareService, IngestServiceImpl ingestService,
+                         TickServiceImpl tickService, PriceStreamServiceImpl priceStreamService,
+                         CandleServiceImpl candleService) {
     this.shareService = shareService;
+    this.ingestService = ingestService;
+    this.tickService = tickService;
+    this.priceStreamService = priceStreamService;
+    this.candleService = candleService;
   }
 
   @PostMapping
@@ -41,6 +66,39 @@ public class ShareController {
     return ResponseEntity.of(shareService.createManyShares(createShare));
   }
 
+  @PostMapping(value = "/many/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> createManySharesStream(InputStream body) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(out -> ingestService.ingest(body, out, CreateShare.class,
+            shareService::createManyShares));
+  }
+
+  @PostMapping("/ticks")
+  public ResponseEntity<Integer> submitTicks(@RequestBody List<TickDto> ticks) {
+    return ResponseEntity.accepted().body(tickService.submitTicks(ticks));
+  }
+
+  @GetMapping(value = "/prices", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamPrices(
+      @RequestParam(value = "symbol", required = false) Set<String> symbols,
+      @RequestParam(value = "company_id", required = false) Set<Long> companyIds) {
+    return priceStreamService.subscribe(symbols, companyIds);
+  }
+
+  @GetMapping("/search")
+  public ResponseEntity<List<SearchResultDto>> searchShares(
+      @RequestParam(value = "prefix", required = false) String prefix,
+      @RequestParam(value = "limit", required = false) Integer limit) {
+    return ResponseEntity.of(shareService.searchShares(prefix, limit));
+  }
+
+  @GetMapping("/symbol/{symbol}")
+  public ResponseEntity<ShareDto> getShareBySymbol(@PathVariable String symbol) {
+    return ResponseEntity.of(shareService.getBySymbol(symbol));
+  }
+
   @GetMapping("/{id}")
   public ResponseEntity<ShareDto> getShare(@PathVariable Long id) {
     return ResponseEntity.of(shareService.getById(id));
@@ -51,9 +109,30 @@ public class ShareController {
     return ResponseEntity.of(shareService.getCompany(id));
   }
 
+  @GetMapping("/{id}/candles")
+  public ResponseEntity<List<CandleDto>> getCandles(
+      @PathVariable Long id,
+      @RequestParam(value = "resolution", defaultValue = "1m") String resolution,
+      @RequestParam(value = "from", required = false) Instant from,
+      @RequestParam(value = "to", required = false) Instant to,
+      @RequestParam(value = "limit", required = false) Integer limit) {
+    return ResponseEntity.of(candleService.getCandles(id, resolution, from, to, limit));
+  }
+
+  @GetMapping("/{id}/prices")
+  public ResponseEntity<List<PricePointDto>> getPrices(
+      @PathVariable Long id,
+      @RequestParam(value = "from", required = false) Instant from,
+      @RequestParam(value = "to", required = false) Instant to,
+      @RequestParam(value = "limit", required = false) Integer limit) {
+    return ResponseEntity.of(candleService.getPrices(id, from, to, limit));
+  }
+
   @GetMapping("/all")
-  public ResponseEntity<List<ShareDto>> getAllShares() {
-    return ResponseEntity.of(shareService.getAllShares());
+  public ResponseEntity<List<ShareDto>> getAllShares(
+      @RequestParam(value = "afterId", required = false) Long afterId,
+      @RequestParam(value = "limit", required = false) Integer limit) {
+    return ResponseEntity.of(shareService.getAllShares(afterId, limit));
   }
 
   @PutMapping("/{id}")
@@ -3,11 +3,18 @@ package com.sharesapp.backend.controller;
 import com.sharesapp.backend.aspect.annotation.RequestCounting;
 import com.sharesapp.backend.dto.share.ShareDto;
 import com.sharesapp.backend.dto.user.CreateUser;
+import com.sharesapp.backend.dto.user.PortfolioDto;
+import com.sharesapp.backend.dto.user.TradeDto;
+import com.sharesapp.backend.dto.user.TradeResultDto;
 import com.sharesapp.backend.dto.user.UserDto;
 import com.sharesapp.backend.dto.user.UserShareDto;
+import com.sharesapp.backend.service.impl.IngestServiceImpl;
+import com.sharesapp.backend.service.impl.PortfolioServiceImpl;
 import com.sharesapp.backend.service.impl.UserServiceImpl;
+import java.io.InputStream;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -19,6 +26,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @CrossOrigin("*")
 @RestController
@@ -26,10 +34,15 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/user")
 public class UserController {
   private final UserServiceImpl userService;
+  private final IngestServiceImpl ingestService;
+  private final PortfolioServiceImpl portfolioService;
 
   @Autowired
-  public UserController(UserServiceImpl userService) {
+  public UserController(UserServiceImpl userService, IngestServiceImpl ingestService,
+                        PortfolioServiceImpl portfolioService) {
     this.userService = userService;
+    this.ingestService = ingestService;
+    this.portfolioService = portfolioService;
   }
 
   @PostMapping
@@ -43,14 +56,36 @@ public class UserController {
     return ResponseEntity.of(userService.createManyUsers(createShare));
   }
 
+  @PostMapping(value = "/many/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> createManyUsersStream(InputStream body) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(out -> ingestService.ingest(body, out, CreateUser.class,
+            userService::createManyUsers));
+  }
+
   @GetMapping("/{id}")
   public ResponseEntity<UserDto> getUser(@PathVariable Long id) {
     return ResponseEntity.of(userService.getById(id));
   }
 
+  @GetMapping("/{id}/portfolio")
+  public ResponseEntity<PortfolioDto> getPortfolio(@PathVariable Long id) {
+    return ResponseEntity.of(portfolioService.getPortfolio(id));
+  }
+
+  @GetMapping("/portfolio/top")
+  public ResponseEntity<List<PortfolioDto>> getTopPortfolios(
+      @RequestParam(value = "limit", required = false) Integer limit) {
+    return ResponseEntity.of(portfolioService.getTopPortfolios(limit));
+  }
+
   @GetMapping("/all")
-  public ResponseEntity<List<UserDto>> getAllUsers() {
-    return ResponseEntity.of(userService.getAllUsers());
+  public ResponseEntity<List<UserDto>> getAllUsers(
+      @RequestParam(value = "afterId", required = false) Long afterId,
+      @RequestParam(value = "limit", required = false) Integer limit) {
+    return ResponseEntity.of(userService.getAllUsers(afterId, limit));
   }
 
   @PutMapping("/{id}")
@@ -70,14 +105,22 @@ public class UserController {
     return ResponseEntity.of(userService.buyShare(userId, shareId));
   }
 
+  @PostMapping("/trades")
+  public ResponseEntity<List<TradeResultDto>> trade(@RequestBody List<TradeDto> trades) {
+    return ResponseEntity.of(userService.trade(trades));
+  }
+
   @GetMapping("/{id}/shares")
   public ResponseEntity<List<ShareDto>> getShares(@PathVariable("id") Long id) {
     return ResponseEntity.of(userService.getShares(id));
   }
 
   @GetMapping("/{id}/shares/none")
-  public ResponseEntity<List<ShareDto>> getNotPurchasedShares(@PathVariable("id") Long id) {
-    return ResponseEntity.of(userService.getNotPurchasedShares(id));
+  public ResponseEntity<List<ShareDto>> getNotPurchasedShares(
+      @PathVariable("id") Long id,
+      @RequestParam(value = "afterId", required = false) Long afterId,
+      @RequestParam(value = "limit", required = false) Integer limit) {
+    return ResponseEntity.of(userService.getNotPurchasedShares(id, afterId, limit));
   }
 
   @DeleteMapping("/{id}/shares")
@@ -87,8 +130,17 @@ public class UserController {
   }
 
   @GetMapping("/all/all")
-  public ResponseEntity<List<UserShareDto>> getAllUsersSharesAndCompanies() {
-    return ResponseEntity.of(userService.getUsersSharesAndCompanies());
+  public ResponseEntity<List<UserShareDto>> getAllUsersSharesAndCompanies(
+      @RequestParam(value = "afterId", required = false) Long afterId,
+      @RequestParam(value = "limit", required = false) Integer limit) {
+    return ResponseEntity.of(userService.getUsersSharesAndCompanies(afterId, limit));
+  }
+
+  @GetMapping(value = "/all/all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamAllUsersSharesAndCompanies() {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(userService::exportUsersSharesAndCompanies);
   }
 
   @GetMapping("/select/{company_id}")
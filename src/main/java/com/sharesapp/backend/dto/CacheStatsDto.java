@@ -0,0 +1,30 @@
+package com.sharesapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDto {
+  private String name;
+
+  private Long size;
+
+  private Long hitCount;
+
+  private Long missCount;
+
+  private Double hitRate;
+
+  private Long loadSuccessCount;
+
+  private Long loadFailureCount;
+
+  private Double averageLoadPenaltyMillis;
+
+  private Long evictionCount;
+
+  private Long expirationCount;
+}
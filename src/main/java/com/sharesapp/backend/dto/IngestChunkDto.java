@@ -0,0 +1,20 @@
+package com.sharesapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestChunkDto {
+  private Integer chunk;
+
+  private Long firstRecord;
+
+  private Integer records;
+
+  private Integer created;
+
+  private String error;
+}
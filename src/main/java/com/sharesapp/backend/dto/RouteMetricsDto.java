@@ -0,0 +1,27 @@
+package com.sharesapp.backend.dto;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteMetricsDto {
+  private String route;
+
+  private Long count;
+
+  private Map<Integer, Long> statuses;
+
+  private Double meanMicros;
+
+  private Long p50Micros;
+
+  private Long p99Micros;
+
+  private Long p999Micros;
+
+  private Long maxMicros;
+}
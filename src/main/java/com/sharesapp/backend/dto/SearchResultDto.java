@@ -0,0 +1,14 @@
+package com.sharesapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDto {
+  private Long id;
+
+  private String name;
+}
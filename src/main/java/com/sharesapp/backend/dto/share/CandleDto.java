@@ -0,0 +1,23 @@
+package com.sharesapp.backend.dto.share;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandleDto {
+  private Instant start;
+
+  private Float open;
+
+  private Float high;
+
+  private Float low;
+
+  private Float close;
+
+  private Integer ticks;
+}
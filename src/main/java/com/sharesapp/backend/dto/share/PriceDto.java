@@ -0,0 +1,23 @@
+package com.sharesapp.backend.dto.share;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceDto {
+  private Long shareId;
+
+  private String symbol;
+
+  private Float lastSalePrice;
+
+  private Float highPrice;
+
+  private Float lowPrice;
+
+  private Instant timestamp;
+}
@@ -0,0 +1,15 @@
+package com.sharesapp.backend.dto.share;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricePointDto {
+  private Instant timestamp;
+
+  private Float price;
+}
@@ -0,0 +1,20 @@
+package com.sharesapp.backend.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldingDto {
+  private Long userId;
+
+  private Long shareId;
+
+  private Long companyId;
+
+  private Float lastSalePrice;
+
+  private Float prevClosePrice;
+}
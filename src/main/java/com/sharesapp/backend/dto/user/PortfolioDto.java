@@ -0,0 +1,18 @@
+package com.sharesapp.backend.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioDto {
+  private Long userId;
+
+  private Double marketValue;
+
+  private Double dayChange;
+
+  private Integer holdings;
+}
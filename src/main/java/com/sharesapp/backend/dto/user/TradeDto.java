@@ -0,0 +1,17 @@
+package com.sharesapp.backend.dto.user;
+
+import com.sharesapp.backend.model.TradeSide;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeDto {
+  private Long userId;
+
+  private Long shareId;
+
+  private TradeSide side;
+}
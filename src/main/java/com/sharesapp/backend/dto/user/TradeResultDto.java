@@ -0,0 +1,23 @@
+package com.sharesapp.backend.dto.user;
+
+import com.sharesapp.backend.model.TradeSide;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeResultDto {
+  private Long userId;
+
+  private Long shareId;
+
+  private TradeSide side;
+
+  private boolean applied;
+
+  private boolean pending;
+
+  private String error;
+}
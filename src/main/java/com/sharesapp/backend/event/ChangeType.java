@@ -0,0 +1,7 @@
+package com.sharesapp.backend.event;
+
+public enum ChangeType {
+  CREATED,
+  UPDATED,
+  DELETED
+}
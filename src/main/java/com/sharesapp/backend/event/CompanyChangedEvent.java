@@ -0,0 +1,7 @@
+package com.sharesapp.backend.event;
+
+import java.util.List;
+
+public record CompanyChangedEvent(Long companyId, String name, List<Long> shareIds,
+                                  ChangeType type) {
+}
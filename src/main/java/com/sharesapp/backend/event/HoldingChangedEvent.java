@@ -0,0 +1,6 @@
+package com.sharesapp.backend.event;
+
+import com.sharesapp.backend.model.TradeSide;
+
+public record HoldingChangedEvent(Long userId, Long shareId, TradeSide side) {
+}
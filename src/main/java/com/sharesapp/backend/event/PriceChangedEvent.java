@@ -0,0 +1,8 @@
+package com.sharesapp.backend.event;
+
+import java.time.Instant;
+
+public record PriceChangedEvent(Long shareId, Long companyId, String symbol, Float lastSalePrice,
+                                Float prevClosePrice, Float highPrice, Float lowPrice,
+                                Instant timestamp) {
+}
@@ -0,0 +1,4 @@
+package com.sharesapp.backend.event;
+
+public record ShareChangedEvent(Long shareId, Long companyId, String symbol, ChangeType type) {
+}
@@ -0,0 +1,4 @@
+package com.sharesapp.backend.event;
+
+public record UserChangedEvent(Long userId, ChangeType type) {
+}
@@ -0,0 +1,33 @@
+package com.sharesapp.backend.mapper;
+
+import com.sharesapp.backend.dto.CompanyDto;
+import com.sharesapp.backend.model.Company;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CompanyMapper {
+
+  public CompanyDto toDto(Company company) {
+    if (company == null) {
+      return null;
+    }
+    return new CompanyDto(company.getId(), company.getName(), company.getCapitalize(),
+        company.getAdress(), company.getWebsite());
+  }
+
+  public List<CompanyDto> toDtos(Collection<Company> companies) {
+    return companies.stream().map(this::toDto).toList();
+  }
+
+  public Company toEntity(CompanyDto companyDto) {
+    Company company = new Company();
+    company.setId(companyDto.getId());
+    company.setName(companyDto.getName());
+    company.setCapitalize(companyDto.getCapitalize());
+    company.setAdress(companyDto.getAdress());
+    company.setWebsite(companyDto.getWebsite());
+    return company;
+  }
+}
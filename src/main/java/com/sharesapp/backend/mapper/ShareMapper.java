@@ -0,0 +1,54 @@
+package com.sharesapp.backend.mapper;
+
+import com.sharesapp.backend.dto.share.ShareCompanyDto;
+import com.sharesapp.backend.dto.share.ShareDto;
+import com.sharesapp.backend.model.Share;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ShareMapper {
+  private final CompanyMapper companyMapper;
+
+  public ShareMapper(CompanyMapper companyMapper) {
+    this.companyMapper = companyMapper;
+  }
+
+  public ShareDto toDto(Share share) {
+    return new ShareDto(share.getId(), share.getPrevClosePrice(), share.getHighPrice(),
+        share.getLowPrice(), share.getOpenPrice(), share.getLastSalePrice(),
+        share.getLastTimeUpdated(), share.getSymbol());
+  }
+
+  public List<ShareDto> toDtos(Collection<Share> shares) {
+    return shares.stream().map(this::toDto).toList();
+  }
+
+  public ShareCompanyDto toShareCompanyDto(Share share) {
+    ShareCompanyDto shareCompanyDto = new ShareCompanyDto();
+    shareCompanyDto.setId(share.getId());
+    shareCompanyDto.setPrevClosePrice(share.getPrevClosePrice());
+    shareCompanyDto.setHighPrice(share.getHighPrice());
+    shareCompanyDto.setLowPrice(share.getLowPrice());
+    shareCompanyDto.setOpenPrice(share.getOpenPrice());
+    shareCompanyDto.setLastSalePrice(share.getLastSalePrice());
+    shareCompanyDto.setLastTimeUpdated(share.getLastTimeUpdated());
+    shareCompanyDto.setSymbol(share.getSymbol());
+    shareCompanyDto.setCompany(companyMapper.toDto(share.getCompany()));
+    return shareCompanyDto;
+  }
+
+  public Share toEntity(ShareDto shareDto) {
+    Share share = new Share();
+    share.setId(shareDto.getId());
+    share.setPrevClosePrice(shareDto.getPrevClosePrice());
+    share.setHighPrice(shareDto.getHighPrice());
+    share.setLowPrice(shareDto.getLowPrice());
+    share.setOpenPrice(shareDto.getOpenPrice());
+    share.setLastSalePrice(shareDto.getLastSalePrice());
+    share.setLastTimeUpdated(shareDto.getLastTimeUpdated());
+    share.setSymbol(shareDto.getSymbol());
+    return share;
+  }
+}
@@ -0,0 +1,52 @@
+package com.sharesapp.backend.mapper;
+
+import com.sharesapp.backend.dto.user.CreateUser;
+import com.sharesapp.backend.dto.user.UserDto;
+import com.sharesapp.backend.dto.user.UserShareDto;
+import com.sharesapp.backend.model.User;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserMapper {
+  private final ShareMapper shareMapper;
+
+  public UserMapper(ShareMapper shareMapper) {
+    this.shareMapper = shareMapper;
+  }
+
+  public UserDto toDto(User user) {
+    return new UserDto(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+        user.getPhoneNumber());
+  }
+
+  public List<UserDto> toDtos(Collection<User> users) {
+    return users.stream().map(this::toDto).toList();
+  }
+
+  public UserShareDto toUserShareDto(User user) {
+    UserShareDto userShareDto = new UserShareDto();
+    userShareDto.setId(user.getId());
+    userShareDto.setFirstName(user.getFirstName());
+    userShareDto.setLastName(user.getLastName());
+    userShareDto.setEmail(user.getEmail());
+    userShareDto.setPhoneNumber(user.getPhoneNumber());
+    userShareDto.setShares(user.getShares().stream().map(shareMapper::toShareCompanyDto).toList());
+    return userShareDto;
+  }
+
+  public List<UserShareDto> toUserShareDtos(Collection<User> users) {
+    return users.stream().map(this::toUserShareDto).toList();
+  }
+
+  public User toEntity(UserDto userDto) {
+    User user = new User(userDto.getId(), userDto.getFirstName(), userDto.getLastName(),
+        userDto.getEmail());
+    user.setPhoneNumber(userDto.getPhoneNumber());
+    if (userDto instanceof CreateUser createUser) {
+      user.setPassword(createUser.getPassword());
+    }
+    return user;
+  }
+}
@@ -0,0 +1,49 @@
+package com.sharesapp.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@Table(name = "candles")
+@IdClass(CandleId.class)
+@AllArgsConstructor
+@NoArgsConstructor
+public class Candle {
+  @Id
+  @Column(name = "share_id")
+  private Long shareId;
+
+  @Id
+  @Enumerated(EnumType.STRING)
+  @Column(name = "resolution", length = 2)
+  private CandleResolution resolution;
+
+  @Id
+  @Column(name = "bucket_start")
+  private Instant bucketStart;
+
+  @Column(name = "open_price")
+  private Float openPrice;
+
+  @Column(name = "high_price")
+  private Float highPrice;
+
+  @Column(name = "low_price")
+  private Float lowPrice;
+
+  @Column(name = "close_price")
+  private Float closePrice;
+
+  @Column(name = "tick_count")
+  private Integer tickCount;
+}
@@ -0,0 +1,18 @@
+package com.sharesapp.backend.model;
+
+import java.io.Serializable;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandleId implements Serializable {
+  private Long shareId;
+
+  private CandleResolution resolution;
+
+  private Instant bucketStart;
+}
@@ -0,0 +1,38 @@
+package com.sharesapp.backend.model;
+
+import com.sharesapp.backend.exceptions.BadRequestException;
+import java.time.Duration;
+import java.time.Instant;
+
+public enum CandleResolution {
+  M1("1m", Duration.ofMinutes(1)),
+  M5("5m", Duration.ofMinutes(5)),
+  H1("1h", Duration.ofHours(1)),
+  D1("1d", Duration.ofDays(1));
+
+  private final String label;
+  private final long millis;
+
+  CandleResolution(String label, Duration duration) {
+    this.label = label;
+    this.millis = duration.toMillis();
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  public Instant bucketStart(Instant time) {
+    long epochMillis = time.toEpochMilli();
+    return Instant.ofEpochMilli(epochMillis - Math.floorMod(epochMillis, millis));
+  }
+
+  public static CandleResolution fromLabel(String label) throws BadRequestException {
+    for (CandleResolution resolution : values()) {
+      if (resolution.label.equals(label)) {
+        return resolution;
+      }
+    }
+    throw new BadRequestException("Resolution should be one of 1m, 5m, 1h, 1d");
+  }
+}
@@ -6,7 +6,10 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.util.HashSet;
 import java.util.Set;
@@ -19,11 +22,13 @@ import lombok.ToString;
 @Data
 @Entity
 @Table(name = "companies")
+@NamedEntityGraph(name = "Company.shares", attributeNodes = @NamedAttributeNode("shares"))
 @AllArgsConstructor
 @NoArgsConstructor
 public class Company {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "companies_seq")
+  @SequenceGenerator(name = "companies_seq", sequenceName = "companies_seq", allocationSize = 50)
   private Long id;
 
   @Column(name = "name")
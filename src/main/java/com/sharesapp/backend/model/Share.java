@@ -3,12 +3,17 @@ package com.sharesapp.backend.model;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.Instant;
 import java.util.HashSet;
@@ -21,12 +26,14 @@ import lombok.ToString;
 
 @Data
 @Entity
-@Table(name = "shares")
+@Table(name = "shares", indexes = @Index(name = "shares_symbol_idx", columnList = "symbol"))
+@NamedEntityGraph(name = "Share.company", attributeNodes = @NamedAttributeNode("company"))
 @AllArgsConstructor
 @NoArgsConstructor
 public class Share {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shares_seq")
+  @SequenceGenerator(name = "shares_seq", sequenceName = "shares_seq", allocationSize = 50)
   private Long id;
 
   @Column(name = "prev_close_price")
@@ -55,7 +62,9 @@ public class Share {
   @ToString.Exclude
   private Set<User> users = new HashSet<>();
 
-  @ManyToOne(cascade = CascadeType.ALL)
+  @ManyToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   @JoinColumn(name = "company_id", nullable = false)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
   private Company company = new Company();
 }
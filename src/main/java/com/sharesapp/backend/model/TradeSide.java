@@ -0,0 +1,6 @@
+package com.sharesapp.backend.model;
+
+public enum TradeSide {
+  BUY,
+  SELL
+}
@@ -9,6 +9,10 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.util.HashSet;
 import java.util.Set;
@@ -21,11 +25,15 @@ import lombok.ToString;
 @Data
 @Entity
 @Table(name = "users")
+@NamedEntityGraph(name = "User.sharesWithCompanies",
+    attributeNodes = @NamedAttributeNode(value = "shares", subgraph = "shares"),
+    subgraphs = @NamedSubgraph(name = "shares", attributeNodes = @NamedAttributeNode("company")))
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+  @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
   private Long id;
 
   @Column(name = "first_name")
@@ -0,0 +1,16 @@
+package com.sharesapp.backend.repository;
+
+import com.sharesapp.backend.model.Candle;
+import com.sharesapp.backend.model.CandleId;
+import com.sharesapp.backend.model.CandleResolution;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CandleRepository extends JpaRepository<Candle, CandleId>, CandleWriteRepository {
+  List<Candle> findByShareIdAndResolutionAndBucketStartBetweenOrderByBucketStartAsc(
+      Long shareId, CandleResolution resolution, Instant from, Instant to, Limit limit);
+}
@@ -0,0 +1,13 @@
+package com.sharesapp.backend.repository;
+
+import com.sharesapp.backend.model.Candle;
+import java.util.Collection;
+
+public interface CandleWriteRepository {
+  /**
+   * Folds each candle into the stored candle of the same share, resolution and bucket in JDBC
+   * batches, or inserts it if there is none. The candles hold only the prices since the last
+   * merge, so the stored open price is kept and the tick counts are added.
+   */
+  void mergeCandles(Collection<Candle> candles);
+}
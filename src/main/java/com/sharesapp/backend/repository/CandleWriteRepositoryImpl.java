@@ -0,0 +1,64 @@
+package com.sharesapp.backend.repository;
+
+import com.sharesapp.backend.model.Candle;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class CandleWriteRepositoryImpl implements CandleWriteRepository {
+  private static final int BATCH_SIZE = 1000;
+  private static final String UPDATE_CANDLE = "UPDATE candles SET "
+      + "high_price = GREATEST(high_price, ?), low_price = LEAST(low_price, ?), "
+      + "close_price = ?, tick_count = tick_count + ? "
+      + "WHERE share_id = ? AND resolution = ? AND bucket_start = ?";
+  private static final String INSERT_CANDLE = "INSERT INTO candles (share_id, resolution, "
+      + "bucket_start, open_price, high_price, low_price, close_price, tick_count) "
+      + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+  private final JdbcTemplate jdbcTemplate;
+
+  public CandleWriteRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void mergeCandles(Collection<Candle> candles) {
+    int[][] updated = jdbcTemplate.batchUpdate(UPDATE_CANDLE, candles, BATCH_SIZE,
+        (statement, candle) -> {
+          statement.setFloat(1, candle.getHighPrice());
+          statement.setFloat(2, candle.getLowPrice());
+          statement.setFloat(3, candle.getClosePrice());
+          statement.setInt(4, candle.getTickCount());
+          setKey(statement, 5, candle);
+        });
+    List<Candle> missing = new ArrayList<>();
+    Iterator<Candle> iterator = candles.iterator();
+    for (int[] batch : updated) {
+      for (int count : batch) {
+        Candle candle = iterator.next();
+        if (count == 0) {
+          missing.add(candle);
+        }
+      }
+    }
+    jdbcTemplate.batchUpdate(INSERT_CANDLE, missing, BATCH_SIZE, (statement, candle) -> {
+      setKey(statement, 1, candle);
+      statement.setFloat(4, candle.getOpenPrice());
+      statement.setFloat(5, candle.getHighPrice());
+      statement.setFloat(6, candle.getLowPrice());
+      statement.setFloat(7, candle.getClosePrice());
+      statement.setInt(8, candle.getTickCount());
+    });
+  }
+
+  private static void setKey(PreparedStatement statement, int index, Candle candle)
+      throws SQLException {
+    statement.setLong(index, candle.getShareId());
+    statement.setString(index + 1, candle.getResolution().name());
+    statement.setObject(index + 2, candle.getBucketStart().atOffset(ZoneOffset.UTC));
+  }
+}
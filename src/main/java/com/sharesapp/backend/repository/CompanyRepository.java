@@ -1,9 +1,26 @@
 package com.sharesapp.backend.repository;
 
+import com.sharesapp.backend.dto.SearchResultDto;
 import com.sharesapp.backend.model.Company;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CompanyRepository extends JpaRepository<Company, Long> {
+  List<Company> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+  @EntityGraph("Company.shares")
+  Optional<Company> findWithSharesById(Long id);
+
+  List<Company> findByNameStartingWithIgnoreCaseOrderByNameAscIdAsc(String prefix, Limit limit);
+
+  @Query("SELECT new com.sharesapp.backend.dto.SearchResultDto(c.id, c.name) FROM Company c "
+      + "WHERE c.id > :afterId ORDER BY c.id")
+  List<SearchResultDto> findNamesByIdGreaterThan(@Param("afterId") Long afterId, Limit limit);
 }
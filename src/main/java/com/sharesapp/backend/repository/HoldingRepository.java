@@ -0,0 +1,15 @@
+package com.sharesapp.backend.repository;
+
+import com.sharesapp.backend.dto.user.TradeDto;
+import java.util.Collection;
+import java.util.List;
+
+public interface HoldingRepository {
+  /**
+   * Adds the bought and removes the sold shares of the trades in JDBC batches and returns, in
+   * the order of the trades, whether each one changed a row. Buying a share that is already held,
+   * or of a user or share that no longer exists, and selling a share that is not held change
+   * nothing.
+   */
+  List<Boolean> applyTrades(Collection<TradeDto> trades);
+}
@@ -0,0 +1,110 @@
+package com.sharesapp.backend.repository;
+
+import com.sharesapp.backend.dto.user.TradeDto;
+import com.sharesapp.backend.model.TradeSide;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+public class HoldingRepositoryImpl implements HoldingRepository {
+  private static final int BATCH_SIZE = 1000;
+  private static final String INSERT_HOLDING = "INSERT INTO users_shares (user_id, share_id) "
+      + "SELECT u.id, s.id FROM users u JOIN shares s ON s.id = ? WHERE u.id = ? AND NOT EXISTS "
+      + "(SELECT 1 FROM users_shares us WHERE us.user_id = u.id AND us.share_id = s.id)";
+  private static final String DELETE_HOLDING =
+      "DELETE FROM users_shares WHERE user_id = ? AND share_id = ?";
+  private final JdbcTemplate jdbcTemplate;
+
+  public HoldingRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public List<Boolean> applyTrades(Collection<TradeDto> trades) {
+    List<TradeDto> ordered = List.copyOf(trades);
+    List<Boolean> changed = new ArrayList<>(Collections.nCopies(ordered.size(), false));
+    apply(INSERT_HOLDING, ordered, TradeSide.BUY, changed, (statement, trade) -> {
+      statement.setLong(1, trade.getShareId());
+      statement.setLong(2, trade.getUserId());
+    });
+    apply(DELETE_HOLDING, ordered, TradeSide.SELL, changed, (statement, trade) -> {
+      statement.setLong(1, trade.getUserId());
+      statement.setLong(2, trade.getShareId());
+    });
+    return changed;
+  }
+
+  /**
+   * Runs the trades of one side as batches and records their update counts. A driver that
+   * rewrites a batch may report {@link Statement#SUCCESS_NO_INFO}, which does not tell whether the
+   * row changed. The batches are then rolled back to a savepoint and the trades run one statement
+   * at a time, whose counts are always known. Without a transaction to roll back they run one at
+   * a time from the start.
+   */
+  private void apply(String sql, List<TradeDto> trades, TradeSide side, List<Boolean> changed,
+                     ParameterizedPreparedStatementSetter<TradeDto> setter) {
+    List<Integer> indexes = IntStream.range(0, trades.size())
+        .filter(i -> trades.get(i).getSide() == side)
+        .boxed()
+        .toList();
+    if (indexes.isEmpty()) {
+      return;
+    }
+    List<TradeDto> batch = indexes.stream().map(trades::get).toList();
+    int[] counts = jdbcTemplate.execute((ConnectionCallback<int[]>) connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        if (connection.getAutoCommit()) {
+          return executeEach(statement, batch, setter);
+        }
+        Savepoint savepoint = connection.setSavepoint();
+        int[] result = executeBatches(statement, batch, setter);
+        if (Arrays.stream(result).anyMatch(count -> count == Statement.SUCCESS_NO_INFO)) {
+          connection.rollback(savepoint);
+          result = executeEach(statement, batch, setter);
+        }
+        connection.releaseSavepoint(savepoint);
+        return result;
+      }
+    });
+    for (int i = 0; i < indexes.size(); i++) {
+      changed.set(indexes.get(i), counts[i] > 0);
+    }
+  }
+
+  private static int[] executeBatches(PreparedStatement statement, List<TradeDto> trades,
+                                      ParameterizedPreparedStatementSetter<TradeDto> setter)
+      throws SQLException {
+    int[] counts = new int[trades.size()];
+    for (int from = 0; from < trades.size(); from += BATCH_SIZE) {
+      int to = Math.min(from + BATCH_SIZE, trades.size());
+      for (TradeDto trade : trades.subList(from, to)) {
+        setter.setValues(statement, trade);
+        statement.addBatch();
+      }
+      int[] batch = statement.executeBatch();
+      System.arraycopy(batch, 0, counts, from, batch.length);
+    }
+    return counts;
+  }
+
+  private static int[] executeEach(PreparedStatement statement, List<TradeDto> trades,
+                                   ParameterizedPreparedStatementSetter<TradeDto> setter)
+      throws SQLException {
+    int[] counts = new int[trades.size()];
+    for (int i = 0; i < trades.size(); i++) {
+      setter.setValues(statement, trades.get(i));
+      counts[i] = statement.executeUpdate();
+    }
+    return counts;
+  }
+}
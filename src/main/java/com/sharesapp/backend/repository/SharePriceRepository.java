@@ -0,0 +1,12 @@
+package com.sharesapp.backend.repository;
+
+import com.sharesapp.backend.dto.share.TickDto;
+import java.util.Collection;
+
+public interface SharePriceRepository {
+  /**
+   * Applies each tick to the shares with its symbol in JDBC batches. A share that already holds
+   * a newer price is left as it is.
+   */
+  void updatePrices(Collection<TickDto> ticks);
+}
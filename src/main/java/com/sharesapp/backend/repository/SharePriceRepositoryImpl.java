@@ -0,0 +1,34 @@
+package com.sharesapp.backend.repository;
+
+import com.sharesapp.backend.dto.share.TickDto;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class SharePriceRepositoryImpl implements SharePriceRepository {
+  private static final int BATCH_SIZE = 1000;
+  private static final String UPDATE_PRICE = "UPDATE shares SET last_sale_price = ?, "
+      + "high_price = COALESCE(?, high_price), low_price = COALESCE(?, low_price), "
+      + "last_time_update = ? "
+      + "WHERE symbol = ? AND (last_time_update IS NULL OR last_time_update <= ?)";
+  private final JdbcTemplate jdbcTemplate;
+
+  public SharePriceRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void updatePrices(Collection<TickDto> ticks) {
+    jdbcTemplate.batchUpdate(UPDATE_PRICE, ticks, BATCH_SIZE, (statement, tick) -> {
+      OffsetDateTime timestamp = tick.getTimestamp().atOffset(ZoneOffset.UTC);
+      statement.setFloat(1, tick.getLastSalePrice());
+      statement.setObject(2, tick.getHighPrice(), Types.REAL);
+      statement.setObject(3, tick.getLowPrice(), Types.REAL);
+      statement.setObject(4, timestamp);
+      statement.setString(5, tick.getSymbol());
+      statement.setObject(6, timestamp);
+    });
+  }
+}
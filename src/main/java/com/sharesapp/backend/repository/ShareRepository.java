@@ -1,9 +1,40 @@
 package com.sharesapp.backend.repository;
 
+import com.sharesapp.backend.dto.SearchResultDto;
 import com.sharesapp.backend.model.Share;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ShareRepository extends JpaRepository<Share, Long> {
+public interface ShareRepository extends JpaRepository<Share, Long>, SharePriceRepository {
+  List<Share> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+  @EntityGraph("Share.company")
+  Optional<Share> findWithCompanyById(Long id);
+
+  List<Share> findBySymbolIn(Collection<String> symbols);
+
+  @Query("SELECT s.id FROM Share s WHERE s.id IN :ids")
+  List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+  List<Share> findBySymbolIgnoreCaseOrderByIdAsc(String symbol, Limit limit);
+
+  List<Share> findBySymbolStartingWithIgnoreCaseOrderBySymbolAscIdAsc(String prefix, Limit limit);
+
+  @Query("SELECT new com.sharesapp.backend.dto.SearchResultDto(s.id, s.symbol) FROM Share s "
+      + "WHERE s.id > :afterId ORDER BY s.id")
+  List<SearchResultDto> findSymbolsByIdGreaterThan(@Param("afterId") Long afterId, Limit limit);
+
+  @Query("SELECT s FROM Share s WHERE s.id > :afterId AND NOT EXISTS "
+      + "(SELECT 1 FROM User u JOIN u.shares us WHERE u.id = :userId AND us.id = s.id) "
+      + "ORDER BY s.id")
+  List<Share> findNotPurchasedByUser(@Param("userId") Long userId,
+                                     @Param("afterId") Long afterId, Limit limit);
 }
@@ -1,15 +1,35 @@
 package com.sharesapp.backend.repository;
 
+import com.sharesapp.backend.dto.user.HoldingDto;
 import com.sharesapp.backend.model.User;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-  @Query("SELECT u FROM User u JOIN u.shares s WHERE s.company.id = :companyId AND "
+public interface UserRepository extends JpaRepository<User, Long>, HoldingRepository {
+  List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+  @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+  List<Long> findIdsByIdGreaterThan(@Param("afterId") Long afterId, Limit limit);
+
+  @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+  List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+  @EntityGraph("User.sharesWithCompanies")
+  List<User> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+  @Query("SELECT new com.sharesapp.backend.dto.user.HoldingDto(u.id, s.id, s.company.id, "
+      + "s.lastSalePrice, s.prevClosePrice) FROM User u JOIN u.shares s WHERE u.id IN :ids")
+  List<HoldingDto> findHoldingsByUserIdIn(@Param("ids") Collection<Long> ids);
+
+  @EntityGraph("User.sharesWithCompanies")
+  @Query("SELECT DISTINCT u FROM User u JOIN u.shares s WHERE s.company.id = :companyId AND "
       + "s.lastSalePrice BETWEEN :minPrice AND :maxPrice")
   List<User> findUsersByCompanyAndSharePriceRange(@Param("companyId") Long companyId,
                                                   @Param("minPrice") Float minPrice,
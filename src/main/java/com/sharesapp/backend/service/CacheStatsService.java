@@ -0,0 +1,11 @@
+package com.sharesapp.backend.service;
+
+import com.sharesapp.backend.dto.CacheStatsDto;
+import java.util.List;
+import java.util.Optional;
+
+public interface CacheStatsService {
+  List<CacheStatsDto> getAllStats();
+
+  Optional<CacheStatsDto> getStats(String name);
+}
@@ -0,0 +1,19 @@
+package com.sharesapp.backend.service;
+
+import com.sharesapp.backend.dto.share.CandleDto;
+import com.sharesapp.backend.dto.share.PricePointDto;
+import com.sharesapp.backend.event.PriceChangedEvent;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface CandleService {
+  void onPriceChanged(PriceChangedEvent event);
+
+  void flush();
+
+  Optional<List<CandleDto>> getCandles(Long shareId, String resolution, Instant from,
+                                       Instant to, Integer limit);
+
+  Optional<List<PricePointDto>> getPrices(Long shareId, Instant from, Instant to, Integer limit);
+}
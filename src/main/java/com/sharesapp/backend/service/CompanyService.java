@@ -1,6 +1,7 @@
 package com.sharesapp.backend.service;
 
 import com.sharesapp.backend.dto.CompanyDto;
+import com.sharesapp.backend.dto.SearchResultDto;
 import com.sharesapp.backend.dto.share.ShareDto;
 import java.util.List;
 import java.util.Optional;
@@ -12,7 +13,9 @@ public interface  CompanyService {
 
   Optional<CompanyDto> getById(Long id);
 
-  Optional<List<CompanyDto>> getAllCompanies();
+  Optional<List<CompanyDto>> getAllCompanies(Long afterId, Integer limit);
+
+  Optional<List<SearchResultDto>> searchCompanies(String prefix, Integer limit);
 
   Optional<CompanyDto> updateCompany(Long id, CompanyDto companyDto);
 
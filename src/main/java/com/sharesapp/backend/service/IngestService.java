@@ -0,0 +1,12 @@
+package com.sharesapp.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface IngestService {
+  <T> void ingest(InputStream in, OutputStream out, Class<T> type, Consumer<List<T>> createMany)
+      throws IOException;
+}
@@ -0,0 +1,11 @@
+package com.sharesapp.backend.service;
+
+import com.sharesapp.backend.dto.user.PortfolioDto;
+import java.util.List;
+import java.util.Optional;
+
+public interface PortfolioService {
+  Optional<PortfolioDto> getPortfolio(Long userId);
+
+  Optional<List<PortfolioDto>> getTopPortfolios(Integer limit);
+}
@@ -0,0 +1,13 @@
+package com.sharesapp.backend.service;
+
+import com.sharesapp.backend.event.PriceChangedEvent;
+import java.util.Set;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface PriceStreamService {
+  SseEmitter subscribe(Set<String> symbols, Set<Long> companyIds);
+
+  void onPriceChanged(PriceChangedEvent event);
+
+  int subscriberCount();
+}
@@ -1,7 +1,12 @@
 package com.sharesapp.backend.service;
 
+import com.sharesapp.backend.dto.RouteMetricsDto;
+import java.util.List;
+
 public interface RequestCounterService {
-  Integer increment();
+  void record(String route, int status, long nanos);
+
+  Long getCount();
 
-  Integer getCount();
-}
\ No newline at end of file
+  List<RouteMetricsDto> getRouteMetrics();
+}
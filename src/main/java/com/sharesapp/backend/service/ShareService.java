@@ -1,6 +1,7 @@
 package com.sharesapp.backend.service;
 
 import com.sharesapp.backend.dto.CompanyDto;
+import com.sharesapp.backend.dto.SearchResultDto;
 import com.sharesapp.backend.dto.share.CreateShare;
 import com.sharesapp.backend.dto.share.ShareDto;
 import java.util.List;
@@ -15,7 +16,11 @@ public interface ShareService {
 
   Optional<CompanyDto> getCompany(Long id);
 
-  Optional<List<ShareDto>> getAllShares();
+  Optional<List<ShareDto>> getAllShares(Long afterId, Integer limit);
+
+  Optional<ShareDto> getBySymbol(String symbol);
+
+  Optional<List<SearchResultDto>> searchShares(String prefix, Integer limit);
 
   Optional<ShareDto> updateShare(Long id, ShareDto shareDto);
 
@@ -0,0 +1,10 @@
+package com.sharesapp.backend.service;
+
+import com.sharesapp.backend.dto.share.TickDto;
+import java.util.List;
+
+public interface TickService {
+  int submitTicks(List<TickDto> ticks);
+
+  void flush();
+}
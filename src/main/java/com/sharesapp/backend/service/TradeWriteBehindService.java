@@ -0,0 +1,16 @@
+package com.sharesapp.backend.service;
+
+import com.sharesapp.backend.dto.user.TradeDto;
+import java.util.Collection;
+
+public interface TradeWriteBehindService {
+  boolean isEnabled();
+
+  void submit(TradeDto trade);
+
+  void flush();
+
+  void flush(Long userId);
+
+  void flush(Collection<Long> userIds);
+}
@@ -2,8 +2,12 @@ package com.sharesapp.backend.service;
 
 import com.sharesapp.backend.dto.share.ShareDto;
 import com.sharesapp.backend.dto.user.CreateUser;
+import com.sharesapp.backend.dto.user.TradeDto;
+import com.sharesapp.backend.dto.user.TradeResultDto;
 import com.sharesapp.backend.dto.user.UserDto;
 import com.sharesapp.backend.dto.user.UserShareDto;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,7 +18,7 @@ public interface UserService {
 
   Optional<UserDto> getById(Long id);
 
-  Optional<List<UserDto>> getAllUsers();
+  Optional<List<UserDto>> getAllUsers(Long afterId, Integer limit);
 
   Optional<UserDto> updateUser(Long id, UserDto userDto);
 
@@ -24,11 +28,15 @@ public interface UserService {
 
   Optional<ShareDto> sellShare(Long userId, Long shareId);
 
+  Optional<List<TradeResultDto>> trade(List<TradeDto> trades);
+
   Optional<List<ShareDto>> getShares(Long id);
 
-  Optional<List<ShareDto>> getNotPurchasedShares(Long id);
+  Optional<List<ShareDto>> getNotPurchasedShares(Long id, Long afterId, Integer limit);
+
+  Optional<List<UserShareDto>> getUsersSharesAndCompanies(Long afterId, Integer limit);
 
-  Optional<List<UserShareDto>> getUsersSharesAndCompanies();
+  void exportUsersSharesAndCompanies(OutputStream out) throws IOException;
 
   Optional<List<UserShareDto>> getUsersByCompanyAndSharePriceRange(Long companyId, Float minPrice,
                                                                    Float maxPrice);
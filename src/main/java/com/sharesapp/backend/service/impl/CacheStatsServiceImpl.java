@@ -0,0 +1,42 @@
+package com.sharesapp.backend.service.impl;
+
+import com.sharesapp.backend.dto.CacheStatsDto;
+import com.sharesapp.backend.exceptions.NotFoundException;
+import com.sharesapp.backend.service.CacheStatsService;
+import com.sharesapp.backend.utils.cache.CacheRegistry;
+import com.sharesapp.backend.utils.cache.CacheStats;
+import com.sharesapp.backend.utils.cache.GenericCache;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CacheStatsServiceImpl implements CacheStatsService {
+  private final CacheRegistry cacheRegistry;
+
+  public CacheStatsServiceImpl(CacheRegistry cacheRegistry) {
+    this.cacheRegistry = cacheRegistry;
+  }
+
+  @Override
+  public List<CacheStatsDto> getAllStats() {
+    return cacheRegistry.getAll().entrySet().stream()
+        .map(entry -> toDto(entry.getKey(), entry.getValue()))
+        .toList();
+  }
+
+  @Override
+  public Optional<CacheStatsDto> getStats(String name) throws NotFoundException {
+    GenericCache<?, ?> cache = cacheRegistry.get(name)
+        .orElseThrow(() -> new NotFoundException("There is no cache with name = " + name));
+    return Optional.of(toDto(name, cache));
+  }
+
+  private static CacheStatsDto toDto(String name, GenericCache<?, ?> cache) {
+    CacheStats stats = cache.stats();
+    return new CacheStatsDto(name, cache.size(), stats.getHitCount(), stats.getMissCount(),
+        stats.getHitRate(), stats.getLoadSuccessCount(), stats.getLoadFailureCount(),
+        stats.getAverageLoadPenaltyMillis(), stats.getEvictionCount(),
+        stats.getExpirationCount());
+  }
+}
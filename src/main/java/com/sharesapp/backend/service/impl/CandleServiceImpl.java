@@ -0,0 +1,189 @@
+package com.sharesapp.backend.service.impl;
+
+import com.sharesapp.backend.aspect.annotation.Logging;
+import com.sharesapp.backend.dto.share.CandleDto;
+import com.sharesapp.backend.dto.share.PricePointDto;
+import com.sharesapp.backend.event.PriceChangedEvent;
+import com.sharesapp.backend.exceptions.BadRequestException;
+import com.sharesapp.backend.exceptions.NotFoundException;
+import com.sharesapp.backend.model.Candle;
+import com.sharesapp.backend.model.CandleId;
+import com.sharesapp.backend.model.CandleResolution;
+import com.sharesapp.backend.repository.CandleRepository;
+import com.sharesapp.backend.repository.ShareRepository;
+import com.sharesapp.backend.service.CandleService;
+import com.sharesapp.backend.utils.Pagination;
+import com.sharesapp.backend.utils.history.PriceLog;
+import com.sharesapp.backend.utils.history.PriceRecord;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps 1m, 5m, 1h and 1d OHLC candles of every share as prices are applied. A price is folded
+ * into an in-memory candle per resolution and bucket holding only the prices since the last
+ * flush. Every {@code history.flush-interval-millis} those candles are merged into the candles
+ * table in one transaction and the raw prices are appended to the {@link PriceLog}, so candle
+ * queries read pre-aggregated rows and never the raw prices. Candles and prices that fail to be
+ * written are kept for the next flush. Price history of up to a day is the close of every 1m
+ * candle.
+ */
+@Slf4j
+@Service
+public class CandleServiceImpl implements CandleService {
+  private static final String SHARE_ERROR_MESSAGE = "There is no share with id = ";
+  private static final Duration MAX_PRICE_RANGE = Duration.ofDays(1);
+  private final CandleRepository candleRepository;
+  private final ShareRepository shareRepository;
+  private final PriceLog priceLog;
+  private final ConcurrentHashMap<CandleId, Candle> pending = new ConcurrentHashMap<>();
+  private final ConcurrentLinkedQueue<PriceRecord> prices = new ConcurrentLinkedQueue<>();
+  private final TransactionTemplate transactionTemplate;
+  private final ReentrantLock flushLock = new ReentrantLock();
+
+  @Autowired
+  public CandleServiceImpl(CandleRepository candleRepository, ShareRepository shareRepository,
+                           PriceLog priceLog, PlatformTransactionManager transactionManager) {
+    this.candleRepository = candleRepository;
+    this.shareRepository = shareRepository;
+    this.priceLog = priceLog;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @Override
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPriceChanged(PriceChangedEvent event) {
+    if (event.lastSalePrice() == null || event.timestamp() == null) {
+      return;
+    }
+    prices.add(new PriceRecord(event.shareId(), event.timestamp().toEpochMilli(),
+        event.lastSalePrice()));
+    for (CandleResolution resolution : CandleResolution.values()) {
+      Instant bucketStart = resolution.bucketStart(event.timestamp());
+      Float price = event.lastSalePrice();
+      pending.merge(new CandleId(event.shareId(), resolution, bucketStart),
+          new Candle(event.shareId(), resolution, bucketStart, price, price, price, price, 1),
+          CandleServiceImpl::fold);
+    }
+  }
+
+  @Override
+  @Scheduled(fixedDelayString = "${history.flush-interval-millis:1000}")
+  public void flush() {
+    flushLock.lock();
+    try {
+      flushPrices();
+      flushCandles();
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  @PreDestroy
+  public void flushPending() {
+    flush();
+  }
+
+  @Logging
+  @Override
+  public Optional<List<CandleDto>> getCandles(Long shareId, String resolution, Instant from,
+                                              Instant to, Integer limit)
+      throws NotFoundException, BadRequestException {
+    CandleResolution candleResolution = CandleResolution.fromLabel(resolution);
+    Instant start = from == null ? Instant.EPOCH : candleResolution.bucketStart(from);
+    Instant end = to == null ? Instant.now() : to;
+    if (start.isAfter(end)) {
+      throw new BadRequestException("Range start should not be after its end");
+    }
+    if (!shareRepository.existsById(shareId)) {
+      throw new NotFoundException(SHARE_ERROR_MESSAGE, shareId);
+    }
+    return Optional.of(candleRepository
+        .findByShareIdAndResolutionAndBucketStartBetweenOrderByBucketStartAsc(shareId,
+            candleResolution, start, end, Pagination.limit(limit))
+        .stream()
+        .map(candle -> new CandleDto(candle.getBucketStart(), candle.getOpenPrice(),
+            candle.getHighPrice(), candle.getLowPrice(), candle.getClosePrice(),
+            candle.getTickCount()))
+        .toList());
+  }
+
+  @Logging
+  @Override
+  public Optional<List<PricePointDto>> getPrices(Long shareId, Instant from, Instant to,
+                                                 Integer limit)
+      throws NotFoundException, BadRequestException {
+    Instant end = to == null ? Instant.now() : to;
+    Instant start = from == null ? end.minus(MAX_PRICE_RANGE) : from;
+    if (start.isAfter(end) || Duration.between(start, end).compareTo(MAX_PRICE_RANGE) > 0) {
+      throw new BadRequestException("Price range should be from 0 to 1 day long, "
+          + "use candles for longer ranges");
+    }
+    if (!shareRepository.existsById(shareId)) {
+      throw new NotFoundException(SHARE_ERROR_MESSAGE, shareId);
+    }
+    return Optional.of(candleRepository
+        .findByShareIdAndResolutionAndBucketStartBetweenOrderByBucketStartAsc(shareId,
+            CandleResolution.M1, CandleResolution.M1.bucketStart(start), end,
+            Pagination.limit(limit))
+        .stream()
+        .map(candle -> new PricePointDto(candle.getBucketStart(), candle.getClosePrice()))
+        .toList());
+  }
+
+  private void flushPrices() {
+    List<PriceRecord> records = new ArrayList<>();
+    for (PriceRecord record = prices.poll(); record != null; record = prices.poll()) {
+      records.add(record);
+    }
+    try {
+      priceLog.append(records);
+    } catch (IOException e) {
+      prices.addAll(records);
+      log.error("Failed to append {} prices to the price log: {}", records.size(),
+          e.getMessage());
+    }
+  }
+
+  private void flushCandles() {
+    List<Candle> candles = new ArrayList<>(pending.size());
+    for (CandleId id : pending.keySet()) {
+      Candle candle = pending.remove(id);
+      if (candle != null) {
+        candles.add(candle);
+      }
+    }
+    if (candles.isEmpty()) {
+      return;
+    }
+    try {
+      transactionTemplate.executeWithoutResult(status -> candleRepository.mergeCandles(candles));
+    } catch (RuntimeException e) {
+      candles.forEach(candle -> pending.merge(new CandleId(candle.getShareId(),
+              candle.getResolution(), candle.getBucketStart()), candle,
+          (newer, older) -> fold(older, newer)));
+      throw e;
+    }
+  }
+
+  private static Candle fold(Candle current, Candle next) {
+    return new Candle(current.getShareId(), current.getResolution(), current.getBucketStart(),
+        current.getOpenPrice(), Math.max(current.getHighPrice(), next.getHighPrice()),
+        Math.min(current.getLowPrice(), next.getLowPrice()), next.getClosePrice(),
+        current.getTickCount() + next.getTickCount());
+  }
+}
@@ -2,23 +2,30 @@ package com.sharesapp.backend.service.impl;
 
 import com.sharesapp.backend.aspect.annotation.Logging;
 import com.sharesapp.backend.dto.CompanyDto;
+import com.sharesapp.backend.dto.SearchResultDto;
 import com.sharesapp.backend.dto.share.ShareDto;
+import com.sharesapp.backend.event.ChangeType;
+import com.sharesapp.backend.event.CompanyChangedEvent;
 import com.sharesapp.backend.exceptions.BadRequestException;
 import com.sharesapp.backend.exceptions.NotFoundException;
+import com.sharesapp.backend.mapper.CompanyMapper;
+import com.sharesapp.backend.mapper.ShareMapper;
 import com.sharesapp.backend.model.Company;
 import com.sharesapp.backend.model.Share;
 import com.sharesapp.backend.repository.CompanyRepository;
 import com.sharesapp.backend.repository.ShareRepository;
 import com.sharesapp.backend.service.CompanyService;
+import com.sharesapp.backend.utils.Pagination;
 import com.sharesapp.backend.utils.cache.GenericCache;
+import com.sharesapp.backend.utils.index.SymbolIndex;
 import jakarta.transaction.Transactional;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -27,17 +34,24 @@ public class CompanyServiceImpl implements CompanyService {
   private static final String COMPANY_ERROR_MESSAGE = "There is no company with id = ";
   private final CompanyRepository companyRepository;
   private final ShareRepository shareRepository;
-  private final GenericCache<Long, Company> cache;
-  private final ModelMapper modelMapper;
+  private final GenericCache<Long, CompanyDto> cache;
+  private final CompanyMapper companyMapper;
+  private final ShareMapper shareMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final SymbolIndex symbolIndex;
 
   @Autowired
   public CompanyServiceImpl(CompanyRepository companyRepository, ShareRepository shareRepository,
-                            GenericCache<Long, Company> cache,
-                            ModelMapper modelMapper) {
+                            GenericCache<Long, CompanyDto> cache, CompanyMapper companyMapper,
+                            ShareMapper shareMapper, ApplicationEventPublisher eventPublisher,
+                            SymbolIndex symbolIndex) {
     this.companyRepository = companyRepository;
     this.shareRepository = shareRepository;
     this.cache = cache;
-    this.modelMapper = modelMapper;
+    this.companyMapper = companyMapper;
+    this.shareMapper = shareMapper;
+    this.eventPublisher = eventPublisher;
+    this.symbolIndex = symbolIndex;
   }
 
   @Logging
@@ -46,69 +60,90 @@ public class CompanyServiceImpl implements CompanyService {
     if (companyDto.getName().isEmpty()) {
       throw new BadRequestException("Wrong company name");
     }
-    Company savedCompany = companyRepository.save(modelMapper.map(companyDto, Company.class));
-    cache.clear();
-    cache.put(savedCompany.getId(), savedCompany);
-    return Optional.of(modelMapper.map(savedCompany, CompanyDto.class));
+    Company savedCompany = companyRepository.save(companyMapper.toEntity(companyDto));
+    CompanyDto savedCompanyDto = companyMapper.toDto(savedCompany);
+    cache.put(savedCompany.getId(), savedCompanyDto);
+    eventPublisher.publishEvent(
+        new CompanyChangedEvent(savedCompany.getId(), savedCompany.getName(), List.of(),
+            ChangeType.CREATED));
+    return Optional.of(savedCompanyDto);
   }
 
   @Logging
   @Override
   public Optional<List<CompanyDto>> createManyCompanies(List<CompanyDto> createCompanies)
       throws BadRequestException {
-    if (createCompanies.stream().anyMatch(c -> c.getName().isEmpty())) {
+    if (createCompanies.stream().anyMatch(c -> c == null || c.getName() == null
+        || c.getName().isEmpty())) {
       throw new BadRequestException("Wrong shares or its name");
     }
-    List<Company> companies =
-        createCompanies.stream()
-            .map(c -> (companyRepository.save(modelMapper.map(c, Company.class))))
-            .toList();
-    cache.clear();
-    companies.forEach(s -> cache.put(s.getId(), s));
-    return Optional.of(Arrays.asList(modelMapper.map(companies, CompanyDto[].class)));
+    List<Company> companies = companyRepository.saveAll(
+        createCompanies.stream().map(companyMapper::toEntity).toList());
+    List<CompanyDto> companyDtos = companyMapper.toDtos(companies);
+    companyDtos.forEach(c -> {
+      cache.put(c.getId(), c);
+      eventPublisher.publishEvent(
+          new CompanyChangedEvent(c.getId(), c.getName(), List.of(), ChangeType.CREATED));
+    });
+    return Optional.of(companyDtos);
   }
 
   @Logging
   @Override
   public Optional<CompanyDto> getById(Long id) throws NotFoundException {
-    Company company = cache.get(id).orElseGet(() -> companyRepository.findById(id).orElse(null));
+    CompanyDto company = cache.get(id, this::loadCompany).orElse(null);
     if (company == null) {
       throw new NotFoundException(COMPANY_ERROR_MESSAGE, id);
     }
-    cache.put(id, company);
-    return Optional.of(modelMapper.map(company, CompanyDto.class));
+    return Optional.of(company);
   }
 
-  @Logging
+  @Logging(sampleRate = 0.1)
   @Override
-  public Optional<List<CompanyDto>> getAllCompanies() throws NotFoundException {
-    List<Company> companies = companyRepository.findAll();
+  public Optional<List<CompanyDto>> getAllCompanies(Long afterId, Integer limit)
+      throws NotFoundException, BadRequestException {
+    List<Company> companies = companyRepository.findByIdGreaterThanOrderByIdAsc(
+        Pagination.afterId(afterId), Pagination.limit(limit));
     if (companies.isEmpty()) {
       throw new NotFoundException("There are no companies");
     }
-    companies.sort(Comparator.comparing(Company::getId));
-    return Optional.of(Arrays.asList(modelMapper.map(companies, CompanyDto[].class)));
+    return Optional.of(companyMapper.toDtos(companies));
+  }
+
+  @Logging(sampleRate = 0.1)
+  @Override
+  public Optional<List<SearchResultDto>> searchCompanies(String prefix, Integer limit)
+      throws BadRequestException {
+    int max = Pagination.limit(limit).max();
+    String text = prefix == null ? "" : prefix.strip();
+    return Optional.of(symbolIndex.completeCompanies(text, max).orElseGet(() -> companyRepository
+        .findByNameStartingWithIgnoreCaseOrderByNameAscIdAsc(text, Limit.of(max)).stream()
+        .map(company -> new SearchResultDto(company.getId(), company.getName()))
+        .toList()));
   }
 
   @Logging
   @Override
   public Optional<CompanyDto> updateCompany(Long id, CompanyDto companyDto)
       throws BadRequestException {
-    Company company = cache.get(id).orElseGet(() -> companyRepository.findById(id).orElse(null));
+    CompanyDto company = cache.get(id, this::loadCompany).orElse(null);
     if (company == null || companyDto.getName().isEmpty()) {
       throw new BadRequestException("Wrong company name or there is no such company");
     }
     cache.remove(id);
-    companyDto.setId(id);
-    Company updatedCompany = companyRepository.save(modelMapper.map(companyDto, Company.class));
-    cache.put(id, updatedCompany);
-    return Optional.of(modelMapper.map(updatedCompany, CompanyDto.class));
+    Company updatedCompany = companyRepository.save(
+        companyMapper.toEntity(companyDto.toBuilder().id(id).build()));
+    CompanyDto updatedCompanyDto = companyMapper.toDto(updatedCompany);
+    cache.put(id, updatedCompanyDto);
+    eventPublisher.publishEvent(new CompanyChangedEvent(id, updatedCompany.getName(), List.of(),
+        ChangeType.UPDATED));
+    return Optional.of(updatedCompanyDto);
   }
 
   @Logging
   @Override
   public Optional<CompanyDto> deleteCompany(Long id) throws NotFoundException {
-    Company company = cache.get(id).orElseGet(() -> companyRepository.findById(id).orElse(null));
+    Company company = companyRepository.findById(id).orElse(null);
     if (company == null) {
       throw new NotFoundException(COMPANY_ERROR_MESSAGE, id);
     }
@@ -120,22 +155,28 @@ public class CompanyServiceImpl implements CompanyService {
     });
     cache.remove(id);
     companyRepository.deleteById(id);
-    return Optional.of(modelMapper.map(company, CompanyDto.class));
+    List<Long> shareIds = shares.stream().map(Share::getId).toList();
+    eventPublisher.publishEvent(new CompanyChangedEvent(id, company.getName(), shareIds,
+        ChangeType.DELETED));
+    return Optional.of(companyMapper.toDto(company));
   }
 
   @Logging
   @Override
   public Optional<List<ShareDto>> getShares(Long id) {
-    Company company = companyRepository.findById(id).orElse(null);
+    Company company = companyRepository.findWithSharesById(id).orElse(null);
     if (company == null) {
       throw new NotFoundException(COMPANY_ERROR_MESSAGE, id);
     }
     if (company.getShares().isEmpty()) {
       throw new NotFoundException("There is no shares");
     }
-    cache.put(id, company);
     List<Share> shares = new ArrayList<>(company.getShares());
     shares.sort(Comparator.comparing(Share::getId));
-    return Optional.of(Arrays.asList(modelMapper.map(shares, ShareDto[].class)));
+    return Optional.of(shareMapper.toDtos(shares));
+  }
+
+  private Optional<CompanyDto> loadCompany(Long id) {
+    return companyRepository.findById(id).map(companyMapper::toDto);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.sharesapp.backend.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sharesapp.backend.dto.IngestChunkDto;
+import com.sharesapp.backend.exceptions.BadRequestException;
+import com.sharesapp.backend.exceptions.NotFoundException;
+import com.sharesapp.backend.service.IngestService;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reads NDJSON records one at a time and hands them to {@code createMany} in chunks of
+ * {@code ingest.chunk-size}. Each chunk commits in its own transaction, and its result is written
+ * to the output as one NDJSON line before the next chunk is read, so a slow database slows the
+ * upload down instead of buffering it. A chunk rejected by validation or failing in the database
+ * is rolled back and reported, and the ingest goes on with the next one; a malformed record stops
+ * the ingest.
+ */
+@Service
+public class IngestServiceImpl implements IngestService {
+  private final ObjectMapper objectMapper;
+  private final int chunkSize;
+
+  @Autowired
+  public IngestServiceImpl(ObjectMapper objectMapper,
+                           @Value("${ingest.chunk-size:1000}") int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size should be positive");
+    }
+    this.objectMapper = objectMapper;
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public <T> void ingest(InputStream in, OutputStream out, Class<T> type,
+                         Consumer<List<T>> createMany) throws IOException {
+    ObjectWriter writer = objectMapper.writerFor(IngestChunkDto.class)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    try (MappingIterator<T> records = objectMapper.readerFor(type).readValues(in);
+         JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+             .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+      List<T> chunk = new ArrayList<>(chunkSize);
+      long firstRecord = 1;
+      int number = 1;
+      boolean end = false;
+      while (!end) {
+        String error = null;
+        try {
+          while (chunk.size() < chunkSize && records.hasNextValue()) {
+            chunk.add(records.nextValue());
+          }
+          end = chunk.size() < chunkSize;
+          if (chunk.isEmpty()) {
+            break;
+          }
+          createMany.accept(chunk);
+        } catch (JsonProcessingException exception) {
+          error = "Malformed record " + (firstRecord + chunk.size()) + ": "
+              + exception.getOriginalMessage();
+          end = true;
+        } catch (BadRequestException | NotFoundException exception) {
+          error = exception.getMessage();
+        } catch (RuntimeException exception) {
+          error = "Failed to create the chunk: " + exception.getMessage();
+        }
+        writer.writeValue(generator, new IngestChunkDto(number, firstRecord, chunk.size(),
+            error == null ? chunk.size() : 0, error));
+        generator.writeRaw('\n');
+        generator.flush();
+        firstRecord += chunk.size();
+        number++;
+        chunk.clear();
+      }
+    }
+  }
+}
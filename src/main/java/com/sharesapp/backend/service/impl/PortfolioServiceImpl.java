@@ -0,0 +1,166 @@
+package com.sharesapp.backend.service.impl;
+
+import com.sharesapp.backend.aspect.annotation.Logging;
+import com.sharesapp.backend.dto.user.HoldingDto;
+import com.sharesapp.backend.dto.user.PortfolioDto;
+import com.sharesapp.backend.exceptions.BadRequestException;
+import com.sharesapp.backend.exceptions.NotFoundException;
+import com.sharesapp.backend.repository.UserRepository;
+import com.sharesapp.backend.service.PortfolioService;
+import com.sharesapp.backend.utils.Pagination;
+import com.sharesapp.backend.utils.index.HoldingIndex;
+import com.sharesapp.backend.utils.index.HoldingIndex.Quote;
+import com.sharesapp.backend.utils.index.HoldingListener;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the market value and day change of every user's holdings up to date in memory.
+ *
+ * <p>The valuation follows the {@link HoldingIndex}, which owns the holdings themselves. A price
+ * change only adds its difference to the holders of that share, and a trade only adds or removes
+ * one share of one user. Sums are kept in exact fixed-point units of {@code 1 / UNITS} so that
+ * any number of such differences never drifts from the sum of the current prices. Changes are
+ * applied one at a time, while reads go to a map of immutable per-user valuations and a skip
+ * list ordered by market value without taking any lock. Until the index is loaded a portfolio
+ * is valued from the database and the ranking is not available.
+ */
+@Service
+public class PortfolioServiceImpl implements PortfolioService, HoldingListener {
+  private static final String USER_ERROR_MESSAGE = "There is no user with id = ";
+  private static final double UNITS = 10_000.0;
+  private final UserRepository userRepository;
+  private final ConcurrentHashMap<Long, Valuation> portfolios = new ConcurrentHashMap<>();
+  private final ConcurrentSkipListSet<Ranking> ranking = new ConcurrentSkipListSet<>(
+      Comparator.comparingLong(Ranking::marketValue).reversed()
+          .thenComparingLong(Ranking::userId));
+  private volatile boolean ready;
+
+  @Autowired
+  public PortfolioServiceImpl(UserRepository userRepository) {
+    this.userRepository = userRepository;
+  }
+
+  @Override
+  public void onReset() {
+    ready = false;
+    portfolios.clear();
+    ranking.clear();
+  }
+
+  @Override
+  public void onLoaded() {
+    ready = true;
+  }
+
+  @Override
+  public void onHoldingAdded(Long userId, Long shareId, Quote quote, Set<Long> holders) {
+    adjust(userId, value(quote), dayChange(quote), 1);
+  }
+
+  @Override
+  public void onHoldingRemoved(Long userId, Long shareId, Quote quote, Set<Long> holders) {
+    adjust(userId, -value(quote), -dayChange(quote), -1);
+  }
+
+  @Override
+  public void onQuoteChanged(Long shareId, Quote previous, Quote current, Set<Long> holders) {
+    long valueChange = value(current) - value(previous);
+    long dayChangeChange = dayChange(current) - dayChange(previous);
+    holders.forEach(userId -> adjust(userId, valueChange, dayChangeChange, 0));
+  }
+
+  @Logging
+  @Override
+  public Optional<PortfolioDto> getPortfolio(Long userId) throws NotFoundException {
+    Valuation valuation = ready ? portfolios.get(userId) : load(userId);
+    if (valuation != null) {
+      return Optional.of(valuation.toDto(userId));
+    }
+    if (!userRepository.existsById(userId)) {
+      throw new NotFoundException(USER_ERROR_MESSAGE, userId);
+    }
+    return Optional.of(new PortfolioDto(userId, 0.0, 0.0, 0));
+  }
+
+  @Logging
+  @Override
+  public Optional<List<PortfolioDto>> getTopPortfolios(Integer limit)
+      throws NotFoundException, BadRequestException {
+    if (!ready) {
+      throw new NotFoundException("Portfolios are still being loaded");
+    }
+    List<PortfolioDto> top = ranking.stream()
+        .map(entry -> {
+          Valuation valuation = portfolios.get(entry.userId());
+          return valuation == null ? null : valuation.toDto(entry.userId());
+        })
+        .filter(Objects::nonNull)
+        .limit(Pagination.limit(limit).max())
+        .toList();
+    if (top.isEmpty()) {
+      throw new NotFoundException("There are no portfolios");
+    }
+    return Optional.of(top);
+  }
+
+  private Valuation load(Long userId) {
+    Valuation valuation = null;
+    for (HoldingDto holding : userRepository.findHoldingsByUserIdIn(List.of(userId))) {
+      Quote quote = new Quote(holding.getCompanyId(), holding.getLastSalePrice(),
+          holding.getPrevClosePrice());
+      valuation = Valuation.plus(valuation, value(quote), dayChange(quote), 1);
+    }
+    return valuation;
+  }
+
+  private void adjust(Long userId, long valueChange, long dayChange, int holdingsChange) {
+    Valuation current = portfolios.get(userId);
+    Valuation next = Valuation.plus(current, valueChange, dayChange, holdingsChange);
+    if (current != null) {
+      ranking.remove(new Ranking(current.marketValue(), userId));
+    }
+    if (next.holdings() <= 0) {
+      portfolios.remove(userId);
+    } else {
+      portfolios.put(userId, next);
+      ranking.add(new Ranking(next.marketValue(), userId));
+    }
+  }
+
+  private static long value(Quote quote) {
+    return units(quote.lastSalePrice());
+  }
+
+  private static long dayChange(Quote quote) {
+    return quote.lastSalePrice() == null || quote.prevClosePrice() == null ? 0L
+        : units(quote.lastSalePrice()) - units(quote.prevClosePrice());
+  }
+
+  private static long units(Float price) {
+    return price == null ? 0L : Math.round(price * UNITS);
+  }
+
+  private record Valuation(long marketValue, long dayChange, int holdings) {
+    static Valuation plus(Valuation current, long valueChange, long dayChange,
+                          int holdingsChange) {
+      return current == null ? new Valuation(valueChange, dayChange, holdingsChange)
+          : new Valuation(current.marketValue + valueChange, current.dayChange + dayChange,
+              current.holdings + holdingsChange);
+    }
+
+    PortfolioDto toDto(Long userId) {
+      return new PortfolioDto(userId, marketValue / UNITS, dayChange / UNITS, holdings);
+    }
+  }
+
+  private record Ranking(long marketValue, long userId) {
+  }
+}
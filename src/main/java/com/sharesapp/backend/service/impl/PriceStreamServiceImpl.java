@@ -0,0 +1,175 @@
+package com.sharesapp.backend.service.impl;
+
+import com.sharesapp.backend.dto.share.PriceDto;
+import com.sharesapp.backend.event.PriceChangedEvent;
+import com.sharesapp.backend.exceptions.BadRequestException;
+import com.sharesapp.backend.service.PriceStreamService;
+import com.sharesapp.backend.utils.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes committed price changes to Server-Sent Events subscribers of a symbol or a company.
+ *
+ * <p>The publishing thread only records the latest price per symbol for every matching
+ * subscriber and hands the subscriber to the sender pool if it is not already queued. While a
+ * subscriber is behind its intermediate prices are coalesced, so it holds at most one pending
+ * price per symbol and at most one task in the queue of the {@code prices.stream.sender-threads}
+ * senders. A client that stops reading blocks its sender in a socket write only until the
+ * container write timeout, which {@code server.tomcat.connection-timeout} sets to
+ * {@code prices.stream.send-timeout-millis}. The write then fails and the client is unsubscribed,
+ * so stalled clients delay the others by at most that long and never hold more threads than the
+ * pool has.
+ */
+@Service
+public class PriceStreamServiceImpl implements PriceStreamService {
+  private static final int MAX_TOPICS = 1000;
+  private static final String EVENT_NAME = "price";
+  private final ConcurrentHashMap<String, Set<Subscription>> bySymbol = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Long, Set<Subscription>> byCompany = new ConcurrentHashMap<>();
+  private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+  private final Executor sender;
+
+  @Autowired
+  public PriceStreamServiceImpl(
+      @Value("${prices.stream.sender-threads:8}") int senderThreads,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+    this(new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(), ThreadFactories.named("price-stream-", virtualThreads)));
+  }
+
+  public PriceStreamServiceImpl(Executor sender) {
+    this.sender = sender;
+  }
+
+  @Override
+  public SseEmitter subscribe(Set<String> symbols, Set<Long> companyIds)
+      throws BadRequestException {
+    Set<String> symbolTopics = symbols == null ? Set.of() : symbols;
+    Set<Long> companyTopics = companyIds == null ? Set.of() : companyIds;
+    int topics = symbolTopics.size() + companyTopics.size();
+    if (topics == 0 || topics > MAX_TOPICS) {
+      throw new BadRequestException(
+          "Subscribe to between 1 and " + MAX_TOPICS + " symbols and companies");
+    }
+    SseEmitter emitter = new SseEmitter();
+    Subscription subscription = new Subscription(emitter, symbolTopics, companyTopics);
+    emitter.onCompletion(() -> unsubscribe(subscription));
+    emitter.onTimeout(() -> unsubscribe(subscription));
+    emitter.onError(e -> unsubscribe(subscription));
+    subscriptions.add(subscription);
+    subscription.symbols.forEach(symbol -> addTo(bySymbol, symbol, subscription));
+    subscription.companyIds.forEach(companyId -> addTo(byCompany, companyId, subscription));
+    return emitter;
+  }
+
+  @Override
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPriceChanged(PriceChangedEvent event) {
+    if (subscriptions.isEmpty()) {
+      return;
+    }
+    PriceDto price = new PriceDto(event.shareId(), event.symbol(), event.lastSalePrice(),
+        event.highPrice(), event.lowPrice(), event.timestamp());
+    offer(bySymbol.get(event.symbol()), price);
+    if (event.companyId() != null) {
+      offer(byCompany.get(event.companyId()), price);
+    }
+  }
+
+  @Override
+  public int subscriberCount() {
+    return subscriptions.size();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    subscriptions.forEach(subscription -> subscription.emitter.complete());
+    if (sender instanceof ExecutorService executorService) {
+      executorService.shutdownNow();
+    }
+  }
+
+  private void offer(Set<Subscription> subscribers, PriceDto price) {
+    if (subscribers == null) {
+      return;
+    }
+    for (Subscription subscription : subscribers) {
+      subscription.pending.put(price.getSymbol(), price);
+      if (subscription.queued.compareAndSet(false, true)) {
+        sender.execute(() -> drain(subscription));
+      }
+    }
+  }
+
+  private void drain(Subscription subscription) {
+    try {
+      do {
+        for (String symbol : subscription.pending.keySet()) {
+          PriceDto price = subscription.pending.remove(symbol);
+          if (price != null) {
+            subscription.emitter.send(SseEmitter.event()
+                .name(EVENT_NAME)
+                .data(price, MediaType.APPLICATION_JSON));
+          }
+        }
+        subscription.queued.set(false);
+      } while (!subscription.pending.isEmpty() && subscription.queued.compareAndSet(false, true));
+    } catch (Exception e) {
+      unsubscribe(subscription);
+    }
+  }
+
+  private void unsubscribe(Subscription subscription) {
+    if (!subscriptions.remove(subscription)) {
+      return;
+    }
+    subscription.symbols.forEach(symbol -> removeFrom(bySymbol, symbol, subscription));
+    subscription.companyIds.forEach(companyId -> removeFrom(byCompany, companyId, subscription));
+    subscription.pending.clear();
+  }
+
+  private static <K> void addTo(ConcurrentHashMap<K, Set<Subscription>> index, K key,
+                                Subscription subscription) {
+    index.compute(key, (k, subscribers) -> {
+      Set<Subscription> result = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+      result.add(subscription);
+      return result;
+    });
+  }
+
+  private static <K> void removeFrom(ConcurrentHashMap<K, Set<Subscription>> index, K key,
+                                     Subscription subscription) {
+    index.computeIfPresent(key, (k, subscribers) -> {
+      subscribers.remove(subscription);
+      return subscribers.isEmpty() ? null : subscribers;
+    });
+  }
+
+  private static final class Subscription {
+    private final SseEmitter emitter;
+    private final Set<String> symbols;
+    private final Set<Long> companyIds;
+    private final ConcurrentHashMap<String, PriceDto> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean queued = new AtomicBoolean();
+
+    private Subscription(SseEmitter emitter, Set<String> symbols, Set<Long> companyIds) {
+      this.emitter = emitter;
+      this.symbols = Set.copyOf(symbols);
+      this.companyIds = Set.copyOf(companyIds);
+    }
+  }
+}
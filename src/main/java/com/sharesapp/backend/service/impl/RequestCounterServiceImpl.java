@@ -1,24 +1,69 @@
 package com.sharesapp.backend.service.impl;
 
 import com.sharesapp.backend.aspect.annotation.Logging;
+import com.sharesapp.backend.dto.RouteMetricsDto;
 import com.sharesapp.backend.service.RequestCounterService;
-import java.util.concurrent.atomic.AtomicInteger;
+import com.sharesapp.backend.utils.metrics.LatencyHistogram;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import org.springframework.stereotype.Service;
 
+/**
+ * Counts requests per route and status and keeps a latency histogram per route. Recording only
+ * touches striped {@link LongAdder}s and lock-free histogram counters, so concurrent requests do
+ * not contend on a shared counter.
+ */
 @Service
 public class RequestCounterServiceImpl implements RequestCounterService {
-  private final AtomicInteger count = new AtomicInteger(0);
+  private final ConcurrentHashMap<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+  @Override
+  public void record(String route, int status, long nanos) {
+    RouteMetrics metrics = routes.get(route);
+    if (metrics == null) {
+      metrics = routes.computeIfAbsent(route, k -> new RouteMetrics());
+    }
+    metrics.count.increment();
+    LongAdder statusCount = metrics.statuses.get(status);
+    if (statusCount == null) {
+      statusCount = metrics.statuses.computeIfAbsent(status, k -> new LongAdder());
+    }
+    statusCount.increment();
+    metrics.latency.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+  }
 
   @Logging
   @Override
-  public Integer increment() {
-    count.incrementAndGet();
-    return count.get();
+  public Long getCount() {
+    return routes.values().stream().mapToLong(metrics -> metrics.count.sum()).sum();
   }
 
   @Logging
   @Override
-  public Integer getCount() {
-    return count.get();
+  public List<RouteMetricsDto> getRouteMetrics() {
+    return routes.entrySet().stream()
+        .sorted(Map.Entry.comparingByKey(Comparator.naturalOrder()))
+        .map(entry -> toDto(entry.getKey(), entry.getValue()))
+        .toList();
+  }
+
+  private static RouteMetricsDto toDto(String route, RouteMetrics metrics) {
+    Map<Integer, Long> statuses = new TreeMap<>();
+    metrics.statuses.forEach((status, count) -> statuses.put(status, count.sum()));
+    LatencyHistogram latency = metrics.latency;
+    return new RouteMetricsDto(route, metrics.count.sum(), statuses, latency.mean(),
+        latency.percentile(50.0), latency.percentile(99.0), latency.percentile(99.9),
+        latency.max());
+  }
+
+  private static final class RouteMetrics {
+    private final LongAdder count = new LongAdder();
+    private final ConcurrentHashMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LatencyHistogram latency = new LatencyHistogram();
   }
-}
\ No newline at end of file
+}
@@ -2,23 +2,34 @@ package com.sharesapp.backend.service.impl;
 
 import com.sharesapp.backend.aspect.annotation.Logging;
 import com.sharesapp.backend.dto.CompanyDto;
+import com.sharesapp.backend.dto.SearchResultDto;
 import com.sharesapp.backend.dto.share.CreateShare;
 import com.sharesapp.backend.dto.share.ShareDto;
+import com.sharesapp.backend.event.ChangeType;
+import com.sharesapp.backend.event.PriceChangedEvent;
+import com.sharesapp.backend.event.ShareChangedEvent;
 import com.sharesapp.backend.exceptions.BadRequestException;
 import com.sharesapp.backend.exceptions.NotFoundException;
+import com.sharesapp.backend.mapper.CompanyMapper;
+import com.sharesapp.backend.mapper.ShareMapper;
 import com.sharesapp.backend.model.Company;
 import com.sharesapp.backend.model.Share;
 import com.sharesapp.backend.repository.CompanyRepository;
 import com.sharesapp.backend.repository.ShareRepository;
 import com.sharesapp.backend.service.ShareService;
+import com.sharesapp.backend.utils.Pagination;
 import com.sharesapp.backend.utils.cache.GenericCache;
+import com.sharesapp.backend.utils.index.SymbolIndex;
 import jakarta.transaction.Transactional;
-import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import org.modelmapper.ModelMapper;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -28,23 +39,30 @@ public class ShareServiceImpl implements ShareService {
   private static final String COMPANY_ERROR_MESSAGE = "There is no such company";
   private final ShareRepository shareRepository;
   private final CompanyRepository companyRepository;
-  private final GenericCache<Long, Share> cache;
-  private final ModelMapper modelMapper;
-
+  private final GenericCache<Long, ShareDto> cache;
+  private final ShareMapper shareMapper;
+  private final CompanyMapper companyMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final SymbolIndex symbolIndex;
 
   @Autowired
-  public ShareServiceImpl(ShareRepository shareRepository, ModelMapper modelMapper,
-                          CompanyRepository companyRepository, GenericCache<Long, Share> cache) {
+  public ShareServiceImpl(ShareRepository shareRepository, ShareMapper shareMapper,
+                          CompanyMapper companyMapper, CompanyRepository companyRepository,
+                          GenericCache<Long, ShareDto> cache,
+                          ApplicationEventPublisher eventPublisher, SymbolIndex symbolIndex) {
     this.shareRepository = shareRepository;
     this.companyRepository = companyRepository;
-    this.modelMapper = modelMapper;
+    this.shareMapper = shareMapper;
+    this.companyMapper = companyMapper;
     this.cache = cache;
+    this.eventPublisher = eventPublisher;
+    this.symbolIndex = symbolIndex;
   }
 
   @Logging
   @Override
   public Optional<ShareDto> createShare(CreateShare createShare) throws BadRequestException {
-    Share share = modelMapper.map(createShare, Share.class);
+    Share share = shareMapper.toEntity(createShare);
     Company company = companyRepository.findById(createShare.getCompanyId()).orElse(null);
     if (Optional.ofNullable(createShare.getCompanyId()).isEmpty()
         || Optional.ofNullable(createShare.getLastSalePrice()).isEmpty()
@@ -58,9 +76,12 @@ public class ShareServiceImpl implements ShareService {
     company.addShare(share);
     Share savedShare = shareRepository.saveAndFlush(share);
     companyRepository.saveAndFlush(company);
-    cache.clear();
-    cache.put(savedShare.getId(), savedShare);
-    return Optional.of(modelMapper.map(savedShare, ShareDto.class));
+    ShareDto savedShareDto = shareMapper.toDto(savedShare);
+    cache.put(savedShare.getId(), savedShareDto);
+    eventPublisher.publishEvent(
+        new ShareChangedEvent(savedShare.getId(), company.getId(), savedShare.getSymbol(),
+            ChangeType.CREATED));
+    return Optional.of(savedShareDto);
   }
 
   @Logging
@@ -68,65 +89,95 @@ public class ShareServiceImpl implements ShareService {
   public Optional<List<ShareDto>> createManyShares(List<CreateShare> createShares)
       throws BadRequestException {
     if (createShares.stream()
-        .anyMatch(s -> (s.getSymbol().isEmpty() || Optional.ofNullable(s.getCompanyId()).isEmpty()
+        .anyMatch(s -> (s == null || s.getSymbol() == null || s.getSymbol().isEmpty()
+            || Optional.ofNullable(s.getCompanyId()).isEmpty()
             || Optional.ofNullable(s.getLastSalePrice()).isEmpty()))) {
       throw new BadRequestException("Wrong shares or its name");
     }
-    if (createShares.stream()
-        .anyMatch(s -> (companyRepository.findById(s.getCompanyId())).isEmpty())) {
+    Set<Long> companyIds =
+        createShares.stream().map(CreateShare::getCompanyId).collect(Collectors.toSet());
+    Map<Long, Company> companies = companyRepository.findAllById(companyIds).stream()
+        .collect(Collectors.toMap(Company::getId, Function.identity()));
+    if (companies.size() != companyIds.size()) {
       throw new NotFoundException(COMPANY_ERROR_MESSAGE);
     }
-    createShares.forEach(s -> companyRepository.findById(s.getCompanyId())
-        .ifPresent(company -> {
-          company.addShare(modelMapper.map(s, Share.class));
-          companyRepository.save(company);
-        }));
-    List<Share> shares =
-        createShares.stream().map(s -> modelMapper.map(s, Share.class))
-            .toList();
+    List<Share> shares = createShares.stream().map(s -> {
+      Share share = shareMapper.toEntity(s);
+      share.setCompany(companies.get(s.getCompanyId()));
+      return share;
+    }).toList();
     List<Share> savedShares = shareRepository.saveAll(shares);
-    cache.clear();
-    shares.forEach(s -> cache.put(s.getId(), s));
-    return Optional.of(Arrays.asList(modelMapper.map(savedShares, ShareDto[].class)));
+    List<ShareDto> savedShareDtos = shareMapper.toDtos(savedShares);
+    for (int i = 0; i < savedShareDtos.size(); i++) {
+      ShareDto share = savedShareDtos.get(i);
+      cache.put(share.getId(), share);
+      eventPublisher.publishEvent(new ShareChangedEvent(share.getId(),
+          createShares.get(i).getCompanyId(), share.getSymbol(), ChangeType.CREATED));
+    }
+    return Optional.of(savedShareDtos);
   }
 
   @Logging
   @Override
   public Optional<ShareDto> getById(Long id) throws NotFoundException {
-    Share share = cache.get(id).orElseGet(() -> shareRepository.findById(id).orElse(null));
+    ShareDto share = cache.get(id, this::loadShare).orElse(null);
     if (share == null) {
       throw new NotFoundException(SHARE_ERROR_MESSAGE, id);
     }
-    cache.put(id, share);
-    return Optional.of(modelMapper.map(share, ShareDto.class));
+    return Optional.of(share);
   }
 
   @Logging
   @Override
   public Optional<CompanyDto> getCompany(Long id) throws NotFoundException {
-    Share share = cache.get(id).orElseGet(() -> shareRepository.findById(id).orElse(null));
+    Share share = shareRepository.findWithCompanyById(id).orElse(null);
     if (share == null) {
       throw new NotFoundException(SHARE_ERROR_MESSAGE, id);
     }
-    cache.put(id, share);
-    return Optional.of(modelMapper.map(share.getCompany(), CompanyDto.class));
+    return Optional.of(companyMapper.toDto(share.getCompany()));
   }
 
-  @Logging
+  @Logging(sampleRate = 0.1)
   @Override
-  public Optional<List<ShareDto>> getAllShares() throws NotFoundException {
-    List<Share> shares = shareRepository.findAll();
+  public Optional<List<ShareDto>> getAllShares(Long afterId, Integer limit)
+      throws NotFoundException, BadRequestException {
+    List<Share> shares = shareRepository.findByIdGreaterThanOrderByIdAsc(
+        Pagination.afterId(afterId), Pagination.limit(limit));
     if (shares.isEmpty()) {
       throw new NotFoundException("There are no shares");
     }
-    shares.sort(Comparator.comparing(Share::getId));
-    return Optional.of(Arrays.asList(modelMapper.map(shares, ShareDto[].class)));
+    return Optional.of(shareMapper.toDtos(shares));
+  }
+
+  @Logging
+  @Override
+  public Optional<ShareDto> getBySymbol(String symbol) throws NotFoundException {
+    List<Long> ids = symbolIndex.findShares(symbol).orElseGet(() -> shareRepository
+        .findBySymbolIgnoreCaseOrderByIdAsc(symbol.strip(), Limit.of(1)).stream()
+        .map(Share::getId)
+        .toList());
+    if (ids.isEmpty()) {
+      throw new NotFoundException("There is no share with symbol " + symbol);
+    }
+    return getById(ids.get(0));
+  }
+
+  @Logging(sampleRate = 0.1)
+  @Override
+  public Optional<List<SearchResultDto>> searchShares(String prefix, Integer limit)
+      throws BadRequestException {
+    int max = Pagination.limit(limit).max();
+    String text = prefix == null ? "" : prefix.strip();
+    return Optional.of(symbolIndex.completeShares(text, max).orElseGet(() -> shareRepository
+        .findBySymbolStartingWithIgnoreCaseOrderBySymbolAscIdAsc(text, Limit.of(max)).stream()
+        .map(share -> new SearchResultDto(share.getId(), share.getSymbol()))
+        .toList()));
   }
 
   @Logging
   @Override
   public Optional<ShareDto> updateShare(Long id, ShareDto shareDto) throws NotFoundException {
-    Share share = cache.get(id).orElseGet(() -> shareRepository.findById(id).orElse(null));
+    Share share = shareRepository.findById(id).orElse(null);
     if (share == null || Optional.ofNullable(shareDto.getLastSalePrice()).isEmpty()
         || shareDto.getSymbol().isEmpty()) {
       throw new BadRequestException("Wrong share information or this share doesn't exist");
@@ -137,18 +188,25 @@ public class ShareServiceImpl implements ShareService {
     }
     cache.remove(id);
     company.removeShare(share.getId());
-    shareDto.setId(id);
-    Share updatedShare = shareRepository.save(modelMapper.map(shareDto, Share.class));
+    Share updatedShare = shareRepository.save(
+        shareMapper.toEntity(shareDto.toBuilder().id(id).build()));
     company.addShare(updatedShare);
     companyRepository.save(company);
-    cache.put(id, updatedShare);
-    return Optional.of(modelMapper.map(updatedShare, ShareDto.class));
+    ShareDto updatedShareDto = shareMapper.toDto(updatedShare);
+    cache.put(id, updatedShareDto);
+    eventPublisher.publishEvent(new ShareChangedEvent(id, company.getId(),
+        updatedShareDto.getSymbol(), ChangeType.UPDATED));
+    eventPublisher.publishEvent(new PriceChangedEvent(id, company.getId(),
+        updatedShareDto.getSymbol(), updatedShareDto.getLastSalePrice(),
+        updatedShareDto.getPrevClosePrice(), updatedShareDto.getHighPrice(),
+        updatedShareDto.getLowPrice(), updatedShareDto.getLastTimeUpdated()));
+    return Optional.of(updatedShareDto);
   }
 
   @Logging
   @Override
   public Optional<ShareDto> deleteShare(Long id) throws NotFoundException {
-    Share share = cache.get(id).orElseGet(() -> shareRepository.findById(id).orElse(null));
+    Share share = shareRepository.findById(id).orElse(null);
     if (share == null) {
       throw new NotFoundException(SHARE_ERROR_MESSAGE, id);
     }
@@ -160,6 +218,12 @@ public class ShareServiceImpl implements ShareService {
     companyRepository.save(company);
     shareRepository.deleteById(id);
     cache.remove(id);
-    return Optional.of(modelMapper.map(share, ShareDto.class));
+    eventPublisher.publishEvent(new ShareChangedEvent(id, company.getId(), share.getSymbol(),
+        ChangeType.DELETED));
+    return Optional.of(shareMapper.toDto(share));
+  }
+
+  private Optional<ShareDto> loadShare(Long id) {
+    return shareRepository.findById(id).map(shareMapper::toDto);
   }
 }
@@ -0,0 +1,96 @@
+package com.sharesapp.backend.service.impl;
+
+import com.sharesapp.backend.dto.share.TickDto;
+import com.sharesapp.backend.event.PriceChangedEvent;
+import com.sharesapp.backend.exceptions.BadRequestException;
+import com.sharesapp.backend.model.Share;
+import com.sharesapp.backend.repository.ShareRepository;
+import com.sharesapp.backend.service.TickService;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Collects quote ticks and applies them to the shares table every
+ * {@code ticks.flush-interval-millis}. Ticks are coalesced per symbol, so only the latest tick of
+ * a symbol since the last flush is written. The flushed shares are published as price changes,
+ * which update the share cache and the price stream subscribers. If the write fails the ticks
+ * are queued again unless a newer tick of the same symbol arrived meanwhile.
+ */
+@Service
+public class TickServiceImpl implements TickService {
+  private static final int REFRESH_CHUNK_SIZE = 1000;
+  private final ShareRepository shareRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ConcurrentHashMap<String, TickDto> pending = new ConcurrentHashMap<>();
+
+  @Autowired
+  public TickServiceImpl(ShareRepository shareRepository,
+                         ApplicationEventPublisher eventPublisher) {
+    this.shareRepository = shareRepository;
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Override
+  public int submitTicks(List<TickDto> ticks) throws BadRequestException {
+    if (ticks.stream().anyMatch(t -> t.getSymbol() == null || t.getSymbol().isEmpty()
+        || t.getLastSalePrice() == null)) {
+      throw new BadRequestException("Wrong ticks symbol or price");
+    }
+    Instant now = Instant.now();
+    for (TickDto tick : ticks) {
+      if (tick.getTimestamp() == null) {
+        tick.setTimestamp(now);
+      }
+      pending.merge(tick.getSymbol(), tick, TickServiceImpl::latest);
+    }
+    return ticks.size();
+  }
+
+  @Override
+  @Scheduled(fixedDelayString = "${ticks.flush-interval-millis:100}")
+  public void flush() {
+    List<TickDto> ticks = new ArrayList<>(pending.size());
+    for (String symbol : pending.keySet()) {
+      TickDto tick = pending.remove(symbol);
+      if (tick != null) {
+        ticks.add(tick);
+      }
+    }
+    if (ticks.isEmpty()) {
+      return;
+    }
+    try {
+      shareRepository.updatePrices(ticks);
+    } catch (RuntimeException e) {
+      ticks.forEach(tick -> pending.merge(tick.getSymbol(), tick, TickServiceImpl::latest));
+      throw e;
+    }
+    List<String> symbols = ticks.stream().map(TickDto::getSymbol).toList();
+    for (int from = 0; from < symbols.size(); from += REFRESH_CHUNK_SIZE) {
+      List<String> chunk = symbols.subList(from, Math.min(from + REFRESH_CHUNK_SIZE,
+          symbols.size()));
+      for (Share share : shareRepository.findBySymbolIn(chunk)) {
+        eventPublisher.publishEvent(new PriceChangedEvent(share.getId(),
+            share.getCompany() == null ? null : share.getCompany().getId(), share.getSymbol(),
+            share.getLastSalePrice(), share.getPrevClosePrice(), share.getHighPrice(),
+            share.getLowPrice(), share.getLastTimeUpdated()));
+      }
+    }
+  }
+
+  @PreDestroy
+  public void flushPending() {
+    flush();
+  }
+
+  private static TickDto latest(TickDto current, TickDto next) {
+    return next.getTimestamp().isBefore(current.getTimestamp()) ? current : next;
+  }
+}
@@ -0,0 +1,215 @@
+package com.sharesapp.backend.service.impl;
+
+import com.sharesapp.backend.dto.user.TradeDto;
+import com.sharesapp.backend.event.HoldingChangedEvent;
+import com.sharesapp.backend.model.TradeSide;
+import com.sharesapp.backend.repository.UserRepository;
+import com.sharesapp.backend.service.TradeWriteBehindService;
+import com.sharesapp.backend.utils.journal.TradeJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Acknowledges trades once they are appended to the {@link TradeJournal} and writes them to
+ * users_shares later. Pending trades are coalesced to the last side per user and share, and every
+ * {@code trades.flush-interval-millis} they are applied in batched statements, after which the
+ * journal segments holding them are deleted. A {@link HoldingChangedEvent} is published for every
+ * trade that changed a holding once it is committed. Reads of users' holdings flush those users'
+ * pending trades first, and segments left by a crash are applied on startup. Nothing is flushed
+ * on schedule while write-behind is disabled.
+ */
+@Slf4j
+@Service
+public class TradeWriteBehindServiceImpl implements TradeWriteBehindService {
+  private final UserRepository userRepository;
+  private final TradeJournal journal;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final boolean enabled;
+  private final ConcurrentHashMap<Long, Map<Long, TradeSide>> pending = new ConcurrentHashMap<>();
+  private final ReentrantReadWriteLock appendLock = new ReentrantReadWriteLock();
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private final List<Path> appliedSegments = new ArrayList<>();
+
+  @Autowired
+  public TradeWriteBehindServiceImpl(UserRepository userRepository, TradeJournal journal,
+                                     PlatformTransactionManager transactionManager,
+                                     ApplicationEventPublisher eventPublisher,
+                                     @Value("${trades.write-behind.enabled:false}")
+                                     boolean enabled) {
+    this.userRepository = userRepository;
+    this.journal = journal;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(
+        TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.eventPublisher = eventPublisher;
+    this.enabled = enabled;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public void submit(TradeDto trade) {
+    appendLock.readLock().lock();
+    try {
+      journal.append(trade);
+      pending.compute(trade.getUserId(), (userId, trades) -> {
+        Map<Long, TradeSide> result = trades == null ? new HashMap<>() : trades;
+        result.put(trade.getShareId(), trade.getSide());
+        return result;
+      });
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to journal the trade", e);
+    } finally {
+      appendLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  @Scheduled(fixedDelayString = "${trades.flush-interval-millis:100}")
+  public void flush() {
+    if (!enabled) {
+      return;
+    }
+    flushLock.lock();
+    try {
+      Map<Long, Map<Long, TradeSide>> drained = new HashMap<>();
+      appendLock.writeLock().lock();
+      try {
+        journal.rotate().ifPresent(appliedSegments::add);
+        for (Long userId : pending.keySet()) {
+          Map<Long, TradeSide> trades = pending.remove(userId);
+          if (trades != null) {
+            drained.put(userId, trades);
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to rotate the trade journal", e);
+      } finally {
+        appendLock.writeLock().unlock();
+      }
+      apply(drained);
+      for (Path segment : List.copyOf(appliedSegments)) {
+        journal.delete(segment);
+        appliedSegments.remove(segment);
+      }
+    } catch (IOException e) {
+      log.error("Failed to delete a flushed trade journal segment: {}", e.getMessage());
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  @Override
+  public void flush(Long userId) {
+    flushLock.lock();
+    try {
+      Map<Long, TradeSide> trades = pending.remove(userId);
+      if (trades != null) {
+        apply(Map.of(userId, trades));
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  @Override
+  public void flush(Collection<Long> userIds) {
+    flushLock.lock();
+    try {
+      Map<Long, Map<Long, TradeSide>> trades = new HashMap<>();
+      for (Long userId : userIds) {
+        Map<Long, TradeSide> sides = pending.remove(userId);
+        if (sides != null) {
+          trades.put(userId, sides);
+        }
+      }
+      apply(trades);
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  @PostConstruct
+  public void replay() throws IOException {
+    List<Path> segments = journal.segments();
+    if (segments.isEmpty()) {
+      return;
+    }
+    Map<List<Long>, TradeDto> trades = new LinkedHashMap<>();
+    for (Path segment : segments) {
+      journal.read(segment, trade -> {
+        List<Long> key = List.of(trade.getUserId(), trade.getShareId());
+        trades.remove(key);
+        trades.put(key, trade);
+      });
+    }
+    transactionTemplate.executeWithoutResult(status -> userRepository.applyTrades(
+        trades.values()));
+    for (Path segment : segments) {
+      journal.delete(segment);
+    }
+    log.info("Replayed {} trades from {} journal segments", trades.size(), segments.size());
+  }
+
+  @PreDestroy
+  public void flushPending() {
+    flush();
+  }
+
+  /**
+   * Writes the trades in a transaction of their own and publishes the holdings that changed once
+   * it commits. If that fails they are queued again unless a newer trade of the same user and
+   * share is already pending, and the exception is rethrown.
+   */
+  private void apply(Map<Long, Map<Long, TradeSide>> trades) {
+    if (trades.isEmpty()) {
+      return;
+    }
+    List<TradeDto> batch = new ArrayList<>();
+    trades.forEach((userId, sides) -> sides.forEach((shareId, side) ->
+        batch.add(new TradeDto(userId, shareId, side))));
+    List<Boolean> changed;
+    try {
+      changed = transactionTemplate.execute(status -> userRepository.applyTrades(batch));
+    } catch (RuntimeException e) {
+      trades.forEach((userId, sides) -> pending.compute(userId, (k, current) -> {
+        Map<Long, TradeSide> result = current == null ? new HashMap<>() : current;
+        sides.forEach(result::putIfAbsent);
+        return result;
+      }));
+      throw e;
+    }
+    for (int i = 0; changed != null && i < changed.size(); i++) {
+      if (changed.get(i)) {
+        TradeDto trade = batch.get(i);
+        eventPublisher.publishEvent(
+            new HoldingChangedEvent(trade.getUserId(), trade.getShareId(), trade.getSide()));
+      }
+    }
+  }
+}
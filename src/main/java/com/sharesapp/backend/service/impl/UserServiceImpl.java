@@ -1,45 +1,93 @@
 package com.sharesapp.backend.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.sharesapp.backend.aspect.annotation.Logging;
 import com.sharesapp.backend.dto.share.ShareDto;
 import com.sharesapp.backend.dto.user.CreateUser;
+import com.sharesapp.backend.dto.user.TradeDto;
+import com.sharesapp.backend.dto.user.TradeResultDto;
 import com.sharesapp.backend.dto.user.UserDto;
 import com.sharesapp.backend.dto.user.UserShareDto;
+import com.sharesapp.backend.event.ChangeType;
+import com.sharesapp.backend.event.HoldingChangedEvent;
+import com.sharesapp.backend.event.UserChangedEvent;
 import com.sharesapp.backend.exceptions.BadRequestException;
 import com.sharesapp.backend.exceptions.NotFoundException;
+import com.sharesapp.backend.mapper.ShareMapper;
+import com.sharesapp.backend.mapper.UserMapper;
 import com.sharesapp.backend.model.Share;
+import com.sharesapp.backend.model.TradeSide;
 import com.sharesapp.backend.model.User;
 import com.sharesapp.backend.repository.ShareRepository;
 import com.sharesapp.backend.repository.UserRepository;
+import com.sharesapp.backend.service.TradeWriteBehindService;
 import com.sharesapp.backend.service.UserService;
+import com.sharesapp.backend.utils.Pagination;
 import com.sharesapp.backend.utils.cache.GenericCache;
+import com.sharesapp.backend.utils.index.HolderPriceIndex;
 import jakarta.transaction.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import org.modelmapper.ModelMapper;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Users and their holdings. Reads that first flush pending write-behind trades run outside the
+ * class-wide transaction and read in a transaction of their own, so the flush and the read hold a
+ * connection one after the other rather than both at once.
+ */
 @Service
 @Transactional
 public class UserServiceImpl implements UserService {
   private static final String USER_ERROR_MESSAGE = "There is no user with id = ";
   private static final String USER_LIST_ERROR_MESSAGE = "There are no users";
+  private static final int EXPORT_CHUNK_SIZE = 500;
   private final UserRepository userRepository;
   private final ShareRepository shareRepository;
-  private final GenericCache<Long, User> cache;
-  private final ModelMapper modelMapper;
+  private final GenericCache<Long, UserDto> cache;
+  private final UserMapper userMapper;
+  private final ShareMapper shareMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ObjectMapper objectMapper;
+  private final HolderPriceIndex holderPriceIndex;
+  private final TradeWriteBehindService tradeWriteBehindService;
+  private final TransactionTemplate readTransaction;
 
   @Autowired
   public UserServiceImpl(UserRepository userRepository, ShareRepository shareRepository,
-                         GenericCache<Long, User> cache, ModelMapper modelMapper) {
+                         GenericCache<Long, UserDto> cache, UserMapper userMapper,
+                         ShareMapper shareMapper, ApplicationEventPublisher eventPublisher,
+                         ObjectMapper objectMapper, HolderPriceIndex holderPriceIndex,
+                         TradeWriteBehindService tradeWriteBehindService,
+                         PlatformTransactionManager transactionManager) {
     this.userRepository = userRepository;
     this.shareRepository = shareRepository;
     this.cache = cache;
-    this.modelMapper = modelMapper;
+    this.userMapper = userMapper;
+    this.shareMapper = shareMapper;
+    this.eventPublisher = eventPublisher;
+    this.objectMapper = objectMapper;
+    this.holderPriceIndex = holderPriceIndex;
+    this.tradeWriteBehindService = tradeWriteBehindService;
+    this.readTransaction = new TransactionTemplate(transactionManager);
+    this.readTransaction.setReadOnly(true);
   }
 
   @Logging
@@ -48,80 +96,89 @@ public class UserServiceImpl implements UserService {
     if (createUser.getFirstName().isEmpty() || createUser.getLastName().isEmpty()) {
       throw new BadRequestException("Wrong user name");
     }
-    User savedUser = userRepository.save(modelMapper.map(createUser, User.class));
-    cache.clear();
-    cache.put(savedUser.getId(), savedUser);
-    return Optional.of(modelMapper.map(savedUser, UserDto.class));
+    User savedUser = userRepository.save(userMapper.toEntity(createUser));
+    UserDto savedUserDto = userMapper.toDto(savedUser);
+    cache.put(savedUser.getId(), savedUserDto);
+    eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId(), ChangeType.CREATED));
+    return Optional.of(savedUserDto);
   }
 
   @Logging
   @Override
   public Optional<List<UserDto>> createManyUsers(List<CreateUser> createUsers)
       throws BadRequestException {
-    if (createUsers.stream().anyMatch(u -> (u.getFirstName()).isEmpty()
-        || u.getLastName().isEmpty())) {
+    if (createUsers.stream().anyMatch(u -> u == null || u.getFirstName() == null
+        || u.getLastName() == null || u.getFirstName().isEmpty() || u.getLastName().isEmpty())) {
       throw new BadRequestException("Wrong users or its name");
     }
-    List<User> users =
-        createUsers.stream().map(u -> (userRepository.save(modelMapper.map(u, User.class))))
-            .toList();
-    cache.clear();
-    users.forEach(s -> cache.put(s.getId(), s));
-    return Optional.of(Arrays.asList(modelMapper.map(users, UserDto[].class)));
+    List<User> users = userRepository.saveAll(
+        createUsers.stream().map(userMapper::toEntity).toList());
+    List<UserDto> userDtos = userMapper.toDtos(users);
+    userDtos.forEach(u -> {
+      cache.put(u.getId(), u);
+      eventPublisher.publishEvent(new UserChangedEvent(u.getId(), ChangeType.CREATED));
+    });
+    return Optional.of(userDtos);
   }
 
   @Logging
   @Override
   public Optional<UserDto> getById(Long id) throws NotFoundException {
-    User user = cache.get(id).orElseGet(() -> userRepository.findById(id).orElse(null));
+    UserDto user = cache.get(id, this::loadUser).orElse(null);
     if (user == null) {
       throw new NotFoundException(USER_ERROR_MESSAGE, id);
     }
-    cache.put(id, user);
-    return Optional.of(modelMapper.map(user, UserDto.class));
+    return Optional.of(user);
   }
 
-  @Logging
+  @Logging(sampleRate = 0.1)
   @Override
-  public Optional<List<UserDto>> getAllUsers() throws NotFoundException {
-    List<User> users = userRepository.findAll();
+  public Optional<List<UserDto>> getAllUsers(Long afterId, Integer limit)
+      throws NotFoundException, BadRequestException {
+    List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(
+        Pagination.afterId(afterId), Pagination.limit(limit));
     if (users.isEmpty()) {
       throw new NotFoundException(USER_LIST_ERROR_MESSAGE);
     }
-    users.sort(Comparator.comparing(User::getId));
-    return Optional.of(Arrays.asList(modelMapper.map(users, UserDto[].class)));
+    return Optional.of(userMapper.toDtos(users));
   }
 
   @Logging
   @Override
   public Optional<UserDto> updateUser(Long id, UserDto userDto) throws BadRequestException {
-    User user = cache.get(id).orElseGet(() -> userRepository.findById(id).orElse(null));
+    UserDto user = cache.get(id, this::loadUser).orElse(null);
     if (user == null || userDto.getFirstName().isEmpty() || userDto.getLastName().isEmpty()) {
       throw new BadRequestException("Wrong user name or there is no such user");
     }
     cache.remove(id);
-    userDto.setId(id);
-    User updatedUser = userRepository.save(modelMapper.map(userDto, User.class));
-    cache.put(id, updatedUser);
-    return Optional.of(modelMapper.map(updatedUser, UserDto.class));
+    User updatedUser = userRepository.save(
+        userMapper.toEntity(userDto.toBuilder().id(id).build()));
+    UserDto updatedUserDto = userMapper.toDto(updatedUser);
+    cache.put(id, updatedUserDto);
+    eventPublisher.publishEvent(new UserChangedEvent(id, ChangeType.UPDATED));
+    return Optional.of(updatedUserDto);
   }
 
   @Logging
   @Override
   public Optional<UserDto> deleteUser(Long id) throws NotFoundException {
-    User user = cache.get(id).orElseGet(() -> userRepository.findById(id).orElse(null));
+    UserDto user = cache.get(id, this::loadUser).orElse(null);
     if (user == null) {
       throw new NotFoundException(USER_ERROR_MESSAGE, id);
     }
     userRepository.deleteById(id);
     cache.remove(id);
-    return Optional.of(modelMapper.map(user, UserDto.class));
+    eventPublisher.publishEvent(new UserChangedEvent(id, ChangeType.DELETED));
+    return Optional.of(user);
   }
 
   @Logging
   @Override
   public Optional<ShareDto> buyShare(Long userId, Long shareId) throws NotFoundException {
-    User user = cache.get(userId).orElseGet(() -> userRepository.findById(userId).orElse(null));
+    if (tradeWriteBehindService.isEnabled()) {
+      return submitTrade(userId, shareId, TradeSide.BUY);
+    }
+    User user = userRepository.findById(userId).orElse(null);
     Share share = shareRepository.findById(shareId).orElse(null);
     if (user == null) {
       throw new NotFoundException(USER_ERROR_MESSAGE, userId);
@@ -131,44 +188,59 @@ public class UserServiceImpl implements UserService {
     }
     user.addShare(share);
     userRepository.save(user);
-    return Optional.of(modelMapper.map(share, ShareDto.class));
+    eventPublisher.publishEvent(new HoldingChangedEvent(userId, shareId, TradeSide.BUY));
+    return Optional.of(shareMapper.toDto(share));
   }
 
   @Logging
   @Override
+  @Transactional(Transactional.TxType.NOT_SUPPORTED)
   public Optional<List<ShareDto>> getShares(Long id) throws NotFoundException {
-    User user = cache.get(id).orElseGet(() -> userRepository.findById(id).orElse(null));
-    if (user == null) {
-      throw new NotFoundException(USER_ERROR_MESSAGE, id);
-    }
-    if (user.getShares().isEmpty()) {
-      throw new NotFoundException("There are no shares");
+    if (tradeWriteBehindService.isEnabled()) {
+      tradeWriteBehindService.flush(id);
     }
-    List<Share> shares = new ArrayList<>(user.getShares());
-    shares.sort(Comparator.comparing(Share::getId));
-    return Optional.of(Arrays.asList(modelMapper.map(shares, ShareDto[].class)));
+    return readTransaction.execute(status -> {
+      User user = userRepository.findById(id).orElse(null);
+      if (user == null) {
+        throw new NotFoundException(USER_ERROR_MESSAGE, id);
+      }
+      if (user.getShares().isEmpty()) {
+        throw new NotFoundException("There are no shares");
+      }
+      List<Share> shares = new ArrayList<>(user.getShares());
+      shares.sort(Comparator.comparing(Share::getId));
+      return Optional.of(shareMapper.toDtos(shares));
+    });
   }
 
   @Logging
   @Override
-  public Optional<List<ShareDto>> getNotPurchasedShares(Long id) throws NotFoundException {
-    User user = cache.get(id).orElseGet(() -> userRepository.findById(id).orElse(null));
-    List<Share> shares = shareRepository.findAll();
-    if (user == null) {
-      throw new NotFoundException(USER_ERROR_MESSAGE, id);
-    }
-    if (shares.isEmpty()) {
-      throw new NotFoundException("There are no shares");
+  @Transactional(Transactional.TxType.NOT_SUPPORTED)
+  public Optional<List<ShareDto>> getNotPurchasedShares(Long id, Long afterId, Integer limit)
+      throws NotFoundException, BadRequestException {
+    if (tradeWriteBehindService.isEnabled()) {
+      tradeWriteBehindService.flush(id);
     }
-    shares.removeAll(user.getShares());
-    shares.sort(Comparator.comparing(Share::getId));
-    return Optional.of(Arrays.asList(modelMapper.map(shares, ShareDto[].class)));
+    return readTransaction.execute(status -> {
+      if (!userRepository.existsById(id)) {
+        throw new NotFoundException(USER_ERROR_MESSAGE, id);
+      }
+      List<Share> shares = shareRepository.findNotPurchasedByUser(id,
+          Pagination.afterId(afterId), Pagination.limit(limit));
+      if (shares.isEmpty()) {
+        throw new NotFoundException("There are no shares");
+      }
+      return Optional.of(shareMapper.toDtos(shares));
+    });
   }
 
   @Logging
   @Override
   public Optional<ShareDto> sellShare(Long userId, Long shareId) throws NotFoundException {
-    User user = cache.get(userId).orElseGet(() -> userRepository.findById(userId).orElse(null));
+    if (tradeWriteBehindService.isEnabled()) {
+      return submitTrade(userId, shareId, TradeSide.SELL);
+    }
+    User user = userRepository.findById(userId).orElse(null);
     Share share = shareRepository.findById(shareId).orElse(null);
     if (user == null) {
       throw new NotFoundException(USER_ERROR_MESSAGE, userId);
@@ -179,17 +251,139 @@ public class UserServiceImpl implements UserService {
     user.removeShare(shareId);
     userRepository.save(user);
     shareRepository.save(share);
-    return Optional.of(modelMapper.map(share, ShareDto.class));
+    eventPublisher.publishEvent(new HoldingChangedEvent(userId, shareId, TradeSide.SELL));
+    return Optional.of(shareMapper.toDto(share));
   }
 
+  /**
+   * Applies buys and sells of many users in one transaction. The referenced users and shares are
+   * looked up with one query each, and the trades are coalesced to the last side per user and
+   * share and written with batched inserts and deletes. Trades of a missing user or share are
+   * reported as not applied and do not fail the others. The update count of each coalesced trade
+   * tells whether the user held the share before the batch, from which every trade of that user
+   * and share is replayed in order, so a duplicate buy or a sell of a share that is not held is
+   * reported as not applied. Events are published only for holdings that changed. With
+   * write-behind the trades are not written yet, so the others are reported as pending rather
+   * than applied, and the write-behind service publishes the events once it has written them.
+   */
   @Logging
   @Override
-  public Optional<List<UserShareDto>> getUsersSharesAndCompanies() throws NotFoundException {
-    List<User> users = userRepository.findAll();
-    if (users.isEmpty()) {
+  public Optional<List<TradeResultDto>> trade(List<TradeDto> trades) throws BadRequestException {
+    if (trades.isEmpty() || trades.size() > Pagination.MAX_LIMIT) {
+      throw new BadRequestException("Submit between 1 and " + Pagination.MAX_LIMIT + " trades");
+    }
+    if (trades.stream().anyMatch(t -> t == null || t.getUserId() == null
+        || t.getShareId() == null || t.getSide() == null)) {
+      throw new BadRequestException("Wrong trade user, share or side");
+    }
+    Set<Long> userIds = new HashSet<>(userRepository.findIdsByIdIn(
+        trades.stream().map(TradeDto::getUserId).collect(Collectors.toSet())));
+    Set<Long> shareIds = new HashSet<>(shareRepository.findIdsByIdIn(
+        trades.stream().map(TradeDto::getShareId).collect(Collectors.toSet())));
+    Map<List<Long>, TradeDto> coalesced = new LinkedHashMap<>();
+    for (TradeDto trade : trades) {
+      if (tradeError(trade, userIds, shareIds) == null) {
+        coalesced.put(List.of(trade.getUserId(), trade.getShareId()), trade);
+      }
+    }
+    List<TradeDto> batch = List.copyOf(coalesced.values());
+    Map<List<Long>, Boolean> held = new HashMap<>();
+    boolean writeBehind = tradeWriteBehindService.isEnabled();
+    if (writeBehind) {
+      batch.forEach(tradeWriteBehindService::submit);
+    } else if (!batch.isEmpty()) {
+      List<Boolean> changed = userRepository.applyTrades(batch);
+      for (int i = 0; i < batch.size(); i++) {
+        TradeDto trade = batch.get(i);
+        held.put(List.of(trade.getUserId(), trade.getShareId()),
+            (trade.getSide() == TradeSide.SELL) == changed.get(i));
+        if (changed.get(i)) {
+          publishHoldingChanged(trade);
+        }
+      }
+    }
+    List<TradeResultDto> results = new ArrayList<>(trades.size());
+    for (TradeDto trade : trades) {
+      String error = tradeError(trade, userIds, shareIds);
+      List<Long> key = List.of(trade.getUserId(), trade.getShareId());
+      if (error == null && held.containsKey(key)) {
+        boolean buy = trade.getSide() == TradeSide.BUY;
+        if (held.put(key, buy) == buy) {
+          error = (buy ? "User already holds share with id = "
+              : "User does not hold share with id = ") + trade.getShareId();
+        }
+      }
+      boolean accepted = error == null;
+      results.add(new TradeResultDto(trade.getUserId(), trade.getShareId(), trade.getSide(),
+          accepted && !writeBehind, accepted && writeBehind, error));
+    }
+    return Optional.of(results);
+  }
+
+  private static String tradeError(TradeDto trade, Set<Long> userIds, Set<Long> shareIds) {
+    if (!userIds.contains(trade.getUserId())) {
+      return USER_ERROR_MESSAGE + trade.getUserId();
+    }
+    if (!shareIds.contains(trade.getShareId())) {
+      return "There is no share with id = " + trade.getShareId();
+    }
+    return null;
+  }
+
+  private void publishHoldingChanged(TradeDto trade) {
+    eventPublisher.publishEvent(
+        new HoldingChangedEvent(trade.getUserId(), trade.getShareId(), trade.getSide()));
+  }
+
+  @Logging(sampleRate = 0.1)
+  @Override
+  @Transactional(Transactional.TxType.NOT_SUPPORTED)
+  public Optional<List<UserShareDto>> getUsersSharesAndCompanies(Long afterId, Integer limit)
+      throws NotFoundException, BadRequestException {
+    List<Long> ids = userRepository.findIdsByIdGreaterThan(Pagination.afterId(afterId),
+        Pagination.limit(limit));
+    if (ids.isEmpty()) {
       throw new NotFoundException(USER_LIST_ERROR_MESSAGE);
     }
-    return Optional.of(Arrays.asList(modelMapper.map(users, UserShareDto[].class)));
+    if (tradeWriteBehindService.isEnabled()) {
+      tradeWriteBehindService.flush(ids);
+    }
+    return readTransaction.execute(status -> Optional.of(
+        userMapper.toUserShareDtos(userRepository.findByIdInOrderByIdAsc(ids))));
+  }
+
+  /**
+   * Writes every user with their shares and companies as NDJSON, one user per line. Users are
+   * read in pages of {@value #EXPORT_CHUNK_SIZE} by id, each page in a short read-only transaction
+   * of its own, and written after it ends, so neither memory use nor the time a connection is held
+   * grows with the number of users or with a slow client. Pending write-behind trades of a page's
+   * users are written before the page is read.
+   */
+  @Logging
+  @Override
+  @Transactional(Transactional.TxType.NOT_SUPPORTED)
+  public void exportUsersSharesAndCompanies(OutputStream out) throws IOException {
+    ObjectWriter writer = objectMapper.writerFor(UserShareDto.class)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+      List<Long> ids = userRepository.findIdsByIdGreaterThan(0L, Limit.of(EXPORT_CHUNK_SIZE));
+      while (!ids.isEmpty()) {
+        if (tradeWriteBehindService.isEnabled()) {
+          tradeWriteBehindService.flush(ids);
+        }
+        List<Long> page = ids;
+        List<UserShareDto> users = readTransaction.execute(status ->
+            userMapper.toUserShareDtos(userRepository.findByIdInOrderByIdAsc(page)));
+        for (UserShareDto user : users) {
+          writer.writeValue(generator, user);
+          generator.writeRaw('\n');
+        }
+        generator.flush();
+        ids = ids.size() < EXPORT_CHUNK_SIZE ? List.of() : userRepository.findIdsByIdGreaterThan(
+            ids.get(ids.size() - 1), Limit.of(EXPORT_CHUNK_SIZE));
+      }
+    }
   }
 
   @Logging
@@ -198,11 +392,43 @@ public class UserServiceImpl implements UserService {
                                                                           Float minPrice,
                                                                           Float maxPrice)
       throws NotFoundException {
-    List<User> selectUsers =
-        userRepository.findUsersByCompanyAndSharePriceRange(companyId, minPrice, maxPrice);
-    if (selectUsers.isEmpty()) {
-      throw new NotFoundException(USER_LIST_ERROR_MESSAGE);
+    Optional<List<Long>> holders = holderPriceIndex.findHolders(companyId, minPrice, maxPrice);
+    if (tradeWriteBehindService.isEnabled()) {
+      holders.ifPresentOrElse(ids -> tradeWriteBehindService.flush(ids),
+          () -> tradeWriteBehindService.flush());
     }
-    return Optional.of(Arrays.asList(modelMapper.map(selectUsers, UserShareDto[].class)));
+    return readTransaction.execute(status -> {
+      List<User> selectUsers = holders
+          .map(ids -> ids.isEmpty() ? List.<User>of()
+              : userRepository.findByIdInOrderByIdAsc(ids))
+          .orElseGet(() -> userRepository.findUsersByCompanyAndSharePriceRange(companyId,
+              minPrice, maxPrice));
+      if (selectUsers.isEmpty()) {
+        throw new NotFoundException(USER_LIST_ERROR_MESSAGE);
+      }
+      return Optional.of(userMapper.toUserShareDtos(selectUsers));
+    });
+  }
+
+  /**
+   * Checks the user through the cache and the share, then hands the trade to the write-behind
+   * journal instead of updating the user's shares in this transaction. The holding change is
+   * published when the journal writes it.
+   */
+  private Optional<ShareDto> submitTrade(Long userId, Long shareId, TradeSide side)
+      throws NotFoundException {
+    if (cache.get(userId, this::loadUser).isEmpty()) {
+      throw new NotFoundException(USER_ERROR_MESSAGE, userId);
+    }
+    Share share = shareRepository.findById(shareId).orElse(null);
+    if (share == null) {
+      throw new NotFoundException("There is no share with id = ", shareId);
+    }
+    tradeWriteBehindService.submit(new TradeDto(userId, shareId, side));
+    return Optional.of(shareMapper.toDto(share));
+  }
+
+  private Optional<UserDto> loadUser(Long id) {
+    return userRepository.findById(id).map(userMapper::toDto);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+package com.sharesapp.backend.utils;
+
+import com.sharesapp.backend.exceptions.BadRequestException;
+import org.springframework.data.domain.Limit;
+
+/**
+ * Keyset pagination parameters of the list endpoints. Rows are returned in id order, starting
+ * after {@code afterId}, at most {@code limit} at a time.
+ */
+public final class Pagination {
+  public static final int DEFAULT_LIMIT = 100;
+  public static final int MAX_LIMIT = 1000;
+
+  private Pagination() {
+  }
+
+  public static long afterId(Long afterId) {
+    return afterId == null ? 0L : afterId;
+  }
+
+  public static Limit limit(Integer limit) throws BadRequestException {
+    if (limit == null) {
+      return Limit.of(DEFAULT_LIMIT);
+    }
+    if (limit <= 0 || limit > MAX_LIMIT) {
+      throw new BadRequestException("Limit should be between 1 and " + MAX_LIMIT);
+    }
+    return Limit.of(limit);
+  }
+}
@@ -0,0 +1,23 @@
+package com.sharesapp.backend.utils;
+
+import java.util.concurrent.ThreadFactory;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Thread factories of the background executors. With {@code spring.threads.virtual.enabled} they
+ * create virtual threads, which need Java 21 at runtime, and otherwise daemon platform threads.
+ */
+public final class ThreadFactories {
+  private ThreadFactories() {
+  }
+
+  public static ThreadFactory named(String prefix, boolean virtual) {
+    if (virtual) {
+      return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+    }
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+    threadFactory.setDaemon(true);
+    return threadFactory;
+  }
+}
@@ -0,0 +1,43 @@
+package com.sharesapp.backend.utils.cache;
+
+import com.sharesapp.backend.dto.share.ShareDto;
+import com.sharesapp.backend.event.ChangeType;
+import com.sharesapp.backend.event.CompanyChangedEvent;
+import com.sharesapp.backend.event.PriceChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts the cache entries of other entities that a committed change makes stale.
+ *
+ * <p>The service that performs a change keeps its own cache entry up to date. Cached DTOs do not
+ * embed related entities, so the cross-entity changes left are a company delete cascading to its
+ * shares and prices written by the tick flush, which are copied into the cached share.
+ */
+@Component
+public class CacheInvalidationListener {
+  static final String SHARE_CACHE = "share";
+  private final CacheRegistry cacheRegistry;
+
+  public CacheInvalidationListener(CacheRegistry cacheRegistry) {
+    this.cacheRegistry = cacheRegistry;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCompanyChanged(CompanyChangedEvent event) {
+    if (event.type() == ChangeType.DELETED) {
+      event.shareIds().forEach(shareId -> cacheRegistry.evict(SHARE_CACHE, shareId));
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPriceChanged(PriceChangedEvent event) {
+    cacheRegistry.<Long, ShareDto>update(SHARE_CACHE, event.shareId(), share -> share.toBuilder()
+        .lastSalePrice(event.lastSalePrice())
+        .prevClosePrice(event.prevClosePrice())
+        .highPrice(event.highPrice())
+        .lowPrice(event.lowPrice())
+        .lastTimeUpdated(event.timestamp())
+        .build());
+  }
+}
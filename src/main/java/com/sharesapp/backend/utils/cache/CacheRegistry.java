@@ -0,0 +1,45 @@
+package com.sharesapp.backend.utils.cache;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CacheRegistry {
+  private final Map<String, GenericCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+  public void register(String name, GenericCache<?, ?> cache) {
+    caches.put(name, cache);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <K> void evict(String name, K key) {
+    GenericCache<K, ?> cache = (GenericCache<K, ?>) caches.get(name);
+    if (cache != null && key != null) {
+      cache.remove(key);
+    }
+  }
+
+  /**
+   * Replaces the value cached under {@code key} with {@code update} applied to it, if there is
+   * one. A missing key stays missing, so the next read loads it.
+   */
+  @SuppressWarnings("unchecked")
+  public <K, V> void update(String name, K key, UnaryOperator<V> update) {
+    GenericCache<K, V> cache = (GenericCache<K, V>) caches.get(name);
+    if (cache != null && key != null) {
+      cache.get(key).ifPresent(value -> cache.put(key, update.apply(value)));
+    }
+  }
+
+  public Optional<GenericCache<?, ?>> get(String name) {
+    return Optional.ofNullable(caches.get(name));
+  }
+
+  public Map<String, GenericCache<?, ?>> getAll() {
+    return new TreeMap<>(caches);
+  }
+}
@@ -0,0 +1,30 @@
+package com.sharesapp.backend.utils.cache;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheSpec {
+  private Integer capacity;
+
+  private Duration expireAfterWrite;
+
+  private Duration expireAfterAccess;
+
+  private Duration refreshAfterWrite;
+
+  private Integer offHeapCapacity;
+
+  public CacheSpec withDefaults(CacheSpec defaults) {
+    return new CacheSpec(
+        capacity != null ? capacity : defaults.getCapacity(),
+        expireAfterWrite != null ? expireAfterWrite : defaults.getExpireAfterWrite(),
+        expireAfterAccess != null ? expireAfterAccess : defaults.getExpireAfterAccess(),
+        refreshAfterWrite != null ? refreshAfterWrite : defaults.getRefreshAfterWrite(),
+        offHeapCapacity != null ? offHeapCapacity : defaults.getOffHeapCapacity());
+  }
+}
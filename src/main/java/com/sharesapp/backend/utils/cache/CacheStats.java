@@ -0,0 +1,84 @@
+package com.sharesapp.backend.utils.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of a single cache.
+ *
+ * <p>Every counter is a {@link LongAdder}, so recording from many request threads does not
+ * contend on one memory location.
+ */
+public class CacheStats {
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder loadSuccessCount = new LongAdder();
+  private final LongAdder loadFailureCount = new LongAdder();
+  private final LongAdder totalLoadTime = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+  private final LongAdder expirationCount = new LongAdder();
+
+  public void recordHit() {
+    hitCount.increment();
+  }
+
+  public void recordMiss() {
+    missCount.increment();
+  }
+
+  public void recordLoadSuccess(long loadTimeNanos) {
+    loadSuccessCount.increment();
+    totalLoadTime.add(loadTimeNanos);
+  }
+
+  public void recordLoadFailure(long loadTimeNanos) {
+    loadFailureCount.increment();
+    totalLoadTime.add(loadTimeNanos);
+  }
+
+  public void recordEviction() {
+    evictionCount.increment();
+  }
+
+  public void recordExpiration() {
+    expirationCount.increment();
+  }
+
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  public long getLoadSuccessCount() {
+    return loadSuccessCount.sum();
+  }
+
+  public long getLoadFailureCount() {
+    return loadFailureCount.sum();
+  }
+
+  public long getTotalLoadTimeNanos() {
+    return totalLoadTime.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  public long getExpirationCount() {
+    return expirationCount.sum();
+  }
+
+  public double getHitRate() {
+    long hits = getHitCount();
+    long requests = hits + getMissCount();
+    return requests == 0 ? 1.0 : (double) hits / requests;
+  }
+
+  public double getAverageLoadPenaltyMillis() {
+    long loads = getLoadSuccessCount() + getLoadFailureCount();
+    return loads == 0 ? 0.0 : getTotalLoadTimeNanos() / 1_000_000.0 / loads;
+  }
+}
@@ -0,0 +1,55 @@
+package com.sharesapp.backend.utils.cache;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache of mutable values that stores a copy of every value put and hands out a copy on every
+ * read, so a caller changing a value it got from, or gave to, the cache cannot change the entry
+ * other callers read.
+ */
+public class CopyingCache<K, V> implements GenericCache<K, V> {
+  private final GenericCache<K, V> delegate;
+  private final UnaryOperator<V> copier;
+
+  public CopyingCache(GenericCache<K, V> delegate, UnaryOperator<V> copier) {
+    this.delegate = delegate;
+    this.copier = copier;
+  }
+
+  @Override
+  public void put(K key, V value) {
+    delegate.put(key, copier.apply(value));
+  }
+
+  @Override
+  public Optional<V> get(K key) {
+    return delegate.get(key).map(copier);
+  }
+
+  @Override
+  public Optional<V> get(K key, Function<? super K, Optional<V>> loader) {
+    return delegate.get(key, k -> loader.apply(k).map(copier)).map(copier);
+  }
+
+  @Override
+  public void remove(K key) {
+    delegate.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+  }
+
+  @Override
+  public long size() {
+    return delegate.size();
+  }
+
+  @Override
+  public CacheStats stats() {
+    return delegate.stats();
+  }
+}
@@ -1,6 +1,7 @@
 package com.sharesapp.backend.utils.cache;
 
 import java.util.Optional;
+import java.util.function.Function;
 
 public interface GenericCache<K, V> {
 
@@ -8,7 +9,19 @@ public interface GenericCache<K, V> {
 
   Optional<V> get(K key);
 
+  /**
+   * Returns the cached value or loads it with {@code loader} on a miss.
+   *
+   * <p>Concurrent misses for the same key share one load. An empty result from the loader is
+   * not cached.
+   */
+  Optional<V> get(K key, Function<? super K, Optional<V>> loader);
+
   void remove(K key);
 
   void clear();
+
+  long size();
+
+  CacheStats stats();
 }
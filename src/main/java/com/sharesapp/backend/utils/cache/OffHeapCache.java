@@ -0,0 +1,302 @@
+package com.sharesapp.backend.utils.cache;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache that keeps its values serialized in direct memory instead of on the heap.
+ *
+ * <p>Every segment owns one direct buffer cut into fixed-size slots, one slot per entry, and
+ * evicts with the CLOCK algorithm: a read marks the slot as referenced, and the eviction hand
+ * skips referenced slots once before reusing them. Only the key index stays on the heap, so the
+ * cache can hold hundreds of thousands of values without adding to garbage collection work.
+ */
+public class OffHeapCache<K, V> implements GenericCache<K, V> {
+  private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+  private static final int HEADER_SIZE = Long.BYTES;
+  private final Segment<K>[] segments;
+  private final int segmentMask;
+  private final int slotSize;
+  private final ValueCodec<V> codec;
+  private final ConcurrentHashMap<K, CompletableFuture<Optional<V>>> loads =
+      new ConcurrentHashMap<>();
+  private final long expireAfterWriteNanos;
+  private final LongSupplier ticker;
+  private final CacheStats stats = new CacheStats();
+
+  public OffHeapCache(int capacity, ValueCodec<V> codec) {
+    this(capacity, null, codec);
+  }
+
+  public OffHeapCache(int capacity, Duration expireAfterWrite, ValueCodec<V> codec) {
+    this(capacity, DEFAULT_CONCURRENCY_LEVEL, expireAfterWrite, codec, System::nanoTime);
+  }
+
+  @SuppressWarnings("unchecked")
+  OffHeapCache(int capacity, int concurrencyLevel, Duration expireAfterWrite,
+               ValueCodec<V> codec, LongSupplier ticker) {
+    if (capacity <= 0 || concurrencyLevel <= 0) {
+      throw new IllegalArgumentException("Cache capacity and concurrency level must be positive");
+    }
+    int segmentCount = 1;
+    while (segmentCount < Math.min(concurrencyLevel, capacity)) {
+      segmentCount <<= 1;
+    }
+    int segmentCapacity = (capacity + segmentCount - 1) / segmentCount;
+    slotSize = HEADER_SIZE + codec.maxEncodedSize();
+    segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment<>(segmentCapacity, slotSize, stats);
+    }
+    segmentMask = segmentCount - 1;
+    this.codec = codec;
+    this.expireAfterWriteNanos = expireAfterWrite == null ? 0 : expireAfterWrite.toNanos();
+    this.ticker = ticker;
+  }
+
+  @Override
+  public void put(K key, V value) {
+    store(key, value, () -> {
+      loads.remove(key);
+      return true;
+    });
+  }
+
+  @Override
+  public Optional<V> get(K key) {
+    ByteBuffer record = segmentFor(key).get(key);
+    if (record == null) {
+      stats.recordMiss();
+      return Optional.empty();
+    }
+    if (expireAfterWriteNanos > 0
+        && ticker.getAsLong() - record.getLong() >= expireAfterWriteNanos) {
+      segmentFor(key).remove(key);
+      stats.recordExpiration();
+      stats.recordMiss();
+      return Optional.empty();
+    }
+    stats.recordHit();
+    record.position(HEADER_SIZE);
+    return Optional.of(codec.decode(record));
+  }
+
+  @Override
+  public Optional<V> get(K key, Function<? super K, Optional<V>> loader) {
+    Optional<V> cached = get(key);
+    if (cached.isPresent()) {
+      return cached;
+    }
+    CompletableFuture<Optional<V>> load = new CompletableFuture<>();
+    CompletableFuture<Optional<V>> running = loads.putIfAbsent(key, load);
+    if (running != null) {
+      return awaitLoad(running);
+    }
+    long start = System.nanoTime();
+    try {
+      Optional<V> value = loader.apply(key);
+      stats.recordLoadSuccess(System.nanoTime() - start);
+      value.ifPresent(v -> store(key, v, () -> loads.remove(key, load)));
+      loads.remove(key, load);
+      load.complete(value);
+      return value;
+    } catch (RuntimeException exception) {
+      stats.recordLoadFailure(System.nanoTime() - start);
+      loads.remove(key, load);
+      load.completeExceptionally(exception);
+      throw exception;
+    }
+  }
+
+  @Override
+  public void remove(K key) {
+    loads.remove(key);
+    segmentFor(key).remove(key);
+  }
+
+  @Override
+  public void clear() {
+    loads.clear();
+    for (Segment<K> segment : segments) {
+      segment.clear();
+    }
+  }
+
+  @Override
+  public long size() {
+    long size = 0;
+    for (Segment<K> segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  @Override
+  public CacheStats stats() {
+    return stats;
+  }
+
+  private void store(K key, V value, BooleanSupplier admit) {
+    ByteBuffer record = ByteBuffer.allocate(slotSize);
+    record.putLong(ticker.getAsLong());
+    try {
+      codec.encode(value, record);
+    } catch (BufferOverflowException exception) {
+      record = null;
+    }
+    if (record != null) {
+      record.flip();
+    }
+    segmentFor(key).put(key, record, admit);
+  }
+
+  private Optional<V> awaitLoad(CompletableFuture<Optional<V>> load) {
+    try {
+      return load.join();
+    } catch (CompletionException exception) {
+      if (exception.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw exception;
+    }
+  }
+
+  private Segment<K> segmentFor(Object key) {
+    int hash = key.hashCode();
+    hash ^= hash >>> 16;
+    return segments[hash & segmentMask];
+  }
+
+  private static final class Segment<K> {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<K, Integer> index = new HashMap<>();
+    private final ByteBuffer slab;
+    private final int slotSize;
+    private final Object[] keys;
+    private final boolean[] referenced;
+    private final int[] freeSlots;
+    private final CacheStats stats;
+    private int freeCount;
+    private int usedSlots;
+    private int hand;
+
+    Segment(int capacity, int slotSize, CacheStats stats) {
+      this.slab = ByteBuffer.allocateDirect(Math.multiplyExact(capacity, slotSize));
+      this.slotSize = slotSize;
+      this.keys = new Object[capacity];
+      this.referenced = new boolean[capacity];
+      this.freeSlots = new int[capacity];
+      this.stats = stats;
+    }
+
+    ByteBuffer get(K key) {
+      lock.lock();
+      try {
+        Integer slot = index.get(key);
+        if (slot == null) {
+          return null;
+        }
+        referenced[slot] = true;
+        ByteBuffer record = ByteBuffer.allocate(slotSize);
+        record.put(0, slab, slot * slotSize, slotSize);
+        return record;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Stores the record, or drops the key when the value did not fit a slot, if {@code admit}
+     * returns true. It runs under the segment lock, so a load that lost to a put of a newer value
+     * cannot overwrite it.
+     */
+    void put(K key, ByteBuffer record, BooleanSupplier admit) {
+      lock.lock();
+      try {
+        if (!admit.getAsBoolean()) {
+          return;
+        }
+        if (record == null) {
+          remove(key);
+          return;
+        }
+        Integer slot = index.get(key);
+        if (slot == null) {
+          slot = allocateSlot();
+          index.put(key, slot);
+          keys[slot] = key;
+        }
+        slab.put(slot * slotSize, record, 0, record.limit());
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void remove(K key) {
+      lock.lock();
+      try {
+        Integer slot = index.remove(key);
+        if (slot != null) {
+          keys[slot] = null;
+          referenced[slot] = false;
+          freeSlots[freeCount++] = slot;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    int size() {
+      lock.lock();
+      try {
+        return index.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void clear() {
+      lock.lock();
+      try {
+        index.clear();
+        Arrays.fill(keys, null);
+        Arrays.fill(referenced, false);
+        freeCount = 0;
+        usedSlots = 0;
+        hand = 0;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private int allocateSlot() {
+      if (freeCount > 0) {
+        return freeSlots[--freeCount];
+      }
+      if (usedSlots < keys.length) {
+        return usedSlots++;
+      }
+      while (referenced[hand]) {
+        referenced[hand] = false;
+        hand = (hand + 1) % keys.length;
+      }
+      int victim = hand;
+      hand = (hand + 1) % keys.length;
+      index.remove(keys[victim]);
+      stats.recordEviction();
+      return victim;
+    }
+  }
+}
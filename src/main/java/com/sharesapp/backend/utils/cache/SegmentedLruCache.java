@@ -0,0 +1,382 @@
+package com.sharesapp.backend.utils.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Bounded thread-safe cache split into independently locked segments.
+ *
+ * <p>Every segment runs a segmented LRU policy: new entries land in a probation area and are
+ * promoted to a protected area on their second hit, so one-off reads cannot flush the entries
+ * that are requested over and over.
+ *
+ * <p>Entries may expire a fixed time after they were written or last read. When a refresh
+ * interval is set, a hit on an entry older than that interval returns the cached value and
+ * reloads it in the background, so hot keys are renewed before they expire.
+ */
+public class SegmentedLruCache<K, V> implements GenericCache<K, V> {
+  private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+  private static final double PROTECTED_RATIO = 0.8;
+  private final Segment<K, V>[] segments;
+  private final int segmentMask;
+  private final ConcurrentHashMap<K, CompletableFuture<Optional<V>>> loads =
+      new ConcurrentHashMap<>();
+  private final long expireAfterWriteNanos;
+  private final long expireAfterAccessNanos;
+  private final long refreshAfterWriteNanos;
+  private final Executor refreshExecutor;
+  private final LongSupplier ticker;
+  private final CacheStats stats = new CacheStats();
+
+  public SegmentedLruCache(int capacity) {
+    this(capacity, DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  public SegmentedLruCache(int capacity, int concurrencyLevel) {
+    this(new CacheSpec(capacity, null, null, null, null), concurrencyLevel, Runnable::run,
+        System::nanoTime);
+  }
+
+  public SegmentedLruCache(CacheSpec spec, Executor refreshExecutor) {
+    this(spec, DEFAULT_CONCURRENCY_LEVEL, refreshExecutor, System::nanoTime);
+  }
+
+  @SuppressWarnings("unchecked")
+  SegmentedLruCache(CacheSpec spec, int concurrencyLevel, Executor refreshExecutor,
+                    LongSupplier ticker) {
+    int capacity = spec.getCapacity() == null ? 0 : spec.getCapacity();
+    if (capacity <= 0 || concurrencyLevel <= 0) {
+      throw new IllegalArgumentException("Cache capacity and concurrency level must be positive");
+    }
+    int segmentCount = 1;
+    while (segmentCount < Math.min(concurrencyLevel, capacity)) {
+      segmentCount <<= 1;
+    }
+    int segmentCapacity = (capacity + segmentCount - 1) / segmentCount;
+    segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment<>(segmentCapacity, stats);
+    }
+    segmentMask = segmentCount - 1;
+    expireAfterWriteNanos = toNanos(spec.getExpireAfterWrite());
+    expireAfterAccessNanos = toNanos(spec.getExpireAfterAccess());
+    refreshAfterWriteNanos = toNanos(spec.getRefreshAfterWrite());
+    this.refreshExecutor = refreshExecutor;
+    this.ticker = ticker;
+  }
+
+  @Override
+  public void put(K key, V value) {
+    segmentFor(key).put(key, new Entry<>(value, ticker.getAsLong()), () -> {
+      loads.remove(key);
+      return true;
+    });
+  }
+
+  @Override
+  public Optional<V> get(K key) {
+    Entry<V> entry = getEntry(key);
+    if (entry == null) {
+      stats.recordMiss();
+      return Optional.empty();
+    }
+    stats.recordHit();
+    return Optional.of(entry.value);
+  }
+
+  @Override
+  public Optional<V> get(K key, Function<? super K, Optional<V>> loader) {
+    Entry<V> entry = getEntry(key);
+    if (entry != null) {
+      stats.recordHit();
+      if (isRefreshDue(entry) && entry.refreshing.compareAndSet(false, true)) {
+        refreshAsync(key, entry, loader);
+      }
+      return Optional.of(entry.value);
+    }
+    stats.recordMiss();
+    CompletableFuture<Optional<V>> load = new CompletableFuture<>();
+    CompletableFuture<Optional<V>> running = loads.putIfAbsent(key, load);
+    if (running != null) {
+      return awaitLoad(running);
+    }
+    try {
+      Optional<V> value = load(key, loader);
+      value.ifPresent(v -> segmentFor(key).put(key, new Entry<>(v, ticker.getAsLong()),
+          () -> loads.remove(key, load)));
+      loads.remove(key, load);
+      load.complete(value);
+      return value;
+    } catch (RuntimeException exception) {
+      loads.remove(key, load);
+      load.completeExceptionally(exception);
+      throw exception;
+    }
+  }
+
+  @Override
+  public void remove(K key) {
+    loads.remove(key);
+    segmentFor(key).remove(key);
+  }
+
+  @Override
+  public void clear() {
+    loads.clear();
+    for (Segment<K, V> segment : segments) {
+      segment.clear();
+    }
+  }
+
+  @Override
+  public long size() {
+    long size = 0;
+    for (Segment<K, V> segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  @Override
+  public CacheStats stats() {
+    return stats;
+  }
+
+  private Optional<V> load(K key, Function<? super K, Optional<V>> loader) {
+    long start = System.nanoTime();
+    try {
+      Optional<V> value = loader.apply(key);
+      stats.recordLoadSuccess(System.nanoTime() - start);
+      return value;
+    } catch (RuntimeException exception) {
+      stats.recordLoadFailure(System.nanoTime() - start);
+      throw exception;
+    }
+  }
+
+  private Entry<V> getEntry(K key) {
+    long now = ticker.getAsLong();
+    return segmentFor(key).get(key, entry -> isExpired(entry, now), now);
+  }
+
+  private Optional<V> awaitLoad(CompletableFuture<Optional<V>> load) {
+    try {
+      return load.join();
+    } catch (CompletionException exception) {
+      if (exception.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw exception;
+    }
+  }
+
+  private boolean isRefreshDue(Entry<V> entry) {
+    return refreshAfterWriteNanos > 0
+        && ticker.getAsLong() - entry.writeTime >= refreshAfterWriteNanos;
+  }
+
+  private boolean isExpired(Entry<V> entry, long now) {
+    return (expireAfterWriteNanos > 0 && now - entry.writeTime >= expireAfterWriteNanos)
+        || (expireAfterAccessNanos > 0 && now - entry.accessTime >= expireAfterAccessNanos);
+  }
+
+  private void refreshAsync(K key, Entry<V> entry, Function<? super K, Optional<V>> loader) {
+    try {
+      refreshExecutor.execute(() -> {
+        try {
+          Optional<V> value = load(key, loader);
+          if (value.isPresent()) {
+            segmentFor(key).replace(key, entry, new Entry<>(value.get(), ticker.getAsLong()));
+          } else {
+            segmentFor(key).remove(key, entry);
+          }
+        } finally {
+          entry.refreshing.set(false);
+        }
+      });
+    } catch (RuntimeException exception) {
+      entry.refreshing.set(false);
+    }
+  }
+
+  private Segment<K, V> segmentFor(Object key) {
+    int hash = key.hashCode();
+    hash ^= hash >>> 16;
+    return segments[hash & segmentMask];
+  }
+
+  private static long toNanos(Duration duration) {
+    return duration == null ? 0 : duration.toNanos();
+  }
+
+  private static final class Entry<V> {
+    private final V value;
+    private final long writeTime;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile long accessTime;
+
+    Entry(V value, long writeTime) {
+      this.value = value;
+      this.writeTime = writeTime;
+      this.accessTime = writeTime;
+    }
+  }
+
+  private static final class Segment<K, V> {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Entry<V>> protectedArea =
+        new LinkedHashMap<>(16, 0.75f, true);
+    private final int capacity;
+    private final int protectedCapacity;
+    private final CacheStats stats;
+
+    Segment(int capacity, CacheStats stats) {
+      this.capacity = capacity;
+      this.stats = stats;
+      this.protectedCapacity = Math.max(1, (int) (capacity * PROTECTED_RATIO));
+    }
+
+    Entry<V> get(K key, Predicate<Entry<V>> isExpired, long now) {
+      lock.lock();
+      try {
+        Entry<V> entry = protectedArea.get(key);
+        if (entry != null) {
+          if (isExpired.test(entry)) {
+            protectedArea.remove(key);
+            stats.recordExpiration();
+            return null;
+          }
+          entry.accessTime = now;
+          return entry;
+        }
+        entry = probation.remove(key);
+        if (entry == null) {
+          return null;
+        }
+        if (isExpired.test(entry)) {
+          stats.recordExpiration();
+          return null;
+        }
+        entry.accessTime = now;
+        promote(key, entry);
+        return entry;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Stores the entry if {@code admit} returns true. It runs under the segment lock, so a load
+     * that lost to a put of a newer value cannot overwrite it.
+     */
+    void put(K key, Entry<V> entry, BooleanSupplier admit) {
+      lock.lock();
+      try {
+        if (!admit.getAsBoolean()) {
+          return;
+        }
+        if (protectedArea.containsKey(key)) {
+          protectedArea.put(key, entry);
+          return;
+        }
+        probation.put(key, entry);
+        evictOverflow();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void replace(K key, Entry<V> expected, Entry<V> entry) {
+      lock.lock();
+      try {
+        if (protectedArea.get(key) == expected) {
+          protectedArea.put(key, entry);
+        } else if (probation.get(key) == expected) {
+          probation.put(key, entry);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void remove(K key, Entry<V> expected) {
+      lock.lock();
+      try {
+        if (protectedArea.get(key) == expected) {
+          protectedArea.remove(key);
+        } else if (probation.get(key) == expected) {
+          probation.remove(key);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void remove(K key) {
+      lock.lock();
+      try {
+        if (probation.remove(key) == null) {
+          protectedArea.remove(key);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    int size() {
+      lock.lock();
+      try {
+        return probation.size() + protectedArea.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void clear() {
+      lock.lock();
+      try {
+        probation.clear();
+        protectedArea.clear();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void promote(K key, Entry<V> entry) {
+      protectedArea.put(key, entry);
+      if (protectedArea.size() > protectedCapacity) {
+        Map.Entry<K, Entry<V>> demoted = pollEldest(protectedArea);
+        probation.put(demoted.getKey(), demoted.getValue());
+      }
+    }
+
+    private void evictOverflow() {
+      while (probation.size() + protectedArea.size() > capacity) {
+        pollEldest(probation.isEmpty() ? protectedArea : probation);
+        stats.recordEviction();
+      }
+    }
+
+    private static <K, V> Map.Entry<K, V> pollEldest(LinkedHashMap<K, V> map) {
+      Iterator<Map.Entry<K, V>> iterator = map.entrySet().iterator();
+      Map.Entry<K, V> eldest = iterator.next();
+      Map.Entry<K, V> copy = Map.entry(eldest.getKey(), eldest.getValue());
+      iterator.remove();
+      return copy;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package com.sharesapp.backend.utils.cache;
+
+import com.sharesapp.backend.dto.share.ShareDto;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fixed-layout encoding of a share quote: a bit mask of the present fields followed by the
+ * fields themselves. Symbols longer than {@value #MAX_SYMBOL_BYTES} bytes are rejected.
+ */
+@Component
+public class ShareDtoCodec implements ValueCodec<ShareDto> {
+  static final int MAX_SYMBOL_BYTES = 32;
+  private static final int MAX_ENCODED_SIZE =
+      Byte.BYTES + Long.BYTES + 5 * Float.BYTES + Long.BYTES + Integer.BYTES + Short.BYTES
+          + MAX_SYMBOL_BYTES;
+
+  @Override
+  public Class<ShareDto> type() {
+    return ShareDto.class;
+  }
+
+  @Override
+  public int maxEncodedSize() {
+    return MAX_ENCODED_SIZE;
+  }
+
+  @Override
+  public void encode(ShareDto share, ByteBuffer target) {
+    byte[] symbol = share.getSymbol() == null ? null
+        : share.getSymbol().getBytes(StandardCharsets.UTF_8);
+    if (symbol != null && symbol.length > MAX_SYMBOL_BYTES) {
+      throw new BufferOverflowException();
+    }
+    Object[] fields = {share.getId(), share.getPrevClosePrice(), share.getHighPrice(),
+        share.getLowPrice(), share.getOpenPrice(), share.getLastSalePrice(),
+        share.getLastTimeUpdated(), symbol};
+    int mask = 0;
+    for (int i = 0; i < fields.length; i++) {
+      if (fields[i] != null) {
+        mask |= 1 << i;
+      }
+    }
+    target.put((byte) mask);
+    if (share.getId() != null) {
+      target.putLong(share.getId());
+    }
+    putFloat(target, share.getPrevClosePrice());
+    putFloat(target, share.getHighPrice());
+    putFloat(target, share.getLowPrice());
+    putFloat(target, share.getOpenPrice());
+    putFloat(target, share.getLastSalePrice());
+    if (share.getLastTimeUpdated() != null) {
+      target.putLong(share.getLastTimeUpdated().getEpochSecond());
+      target.putInt(share.getLastTimeUpdated().getNano());
+    }
+    if (symbol != null) {
+      target.putShort((short) symbol.length);
+      target.put(symbol);
+    }
+  }
+
+  @Override
+  public ShareDto decode(ByteBuffer source) {
+    int mask = source.get();
+    ShareDto share = new ShareDto();
+    share.setId(isSet(mask, 0) ? source.getLong() : null);
+    share.setPrevClosePrice(isSet(mask, 1) ? source.getFloat() : null);
+    share.setHighPrice(isSet(mask, 2) ? source.getFloat() : null);
+    share.setLowPrice(isSet(mask, 3) ? source.getFloat() : null);
+    share.setOpenPrice(isSet(mask, 4) ? source.getFloat() : null);
+    share.setLastSalePrice(isSet(mask, 5) ? source.getFloat() : null);
+    if (isSet(mask, 6)) {
+      share.setLastTimeUpdated(Instant.ofEpochSecond(source.getLong(), source.getInt()));
+    }
+    if (isSet(mask, 7)) {
+      byte[] symbol = new byte[source.getShort()];
+      source.get(symbol);
+      share.setSymbol(new String(symbol, StandardCharsets.UTF_8));
+    }
+    return share;
+  }
+
+  private static void putFloat(ByteBuffer target, Float value) {
+    if (value != null) {
+      target.putFloat(value);
+    }
+  }
+
+  private static boolean isSet(int mask, int field) {
+    return (mask & (1 << field)) != 0;
+  }
+}
@@ -0,0 +1,60 @@
+package com.sharesapp.backend.utils.cache;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Two-level cache: a small on-heap tier in front of a larger second tier.
+ *
+ * <p>Writes go to both tiers. A miss in the first tier is served from the second one before
+ * the loader runs, and everything the loader returns is stored in both. The second tier must
+ * expire its entries no later than the refresh interval of the first one, otherwise refreshes
+ * of the first tier would keep reading the same value back from the second.
+ */
+public class TieredCache<K, V> implements GenericCache<K, V> {
+  private final GenericCache<K, V> first;
+  private final GenericCache<K, V> second;
+
+  public TieredCache(GenericCache<K, V> first, GenericCache<K, V> second) {
+    this.first = first;
+    this.second = second;
+  }
+
+  @Override
+  public void put(K key, V value) {
+    second.put(key, value);
+    first.put(key, value);
+  }
+
+  @Override
+  public Optional<V> get(K key) {
+    return first.get(key, second::get);
+  }
+
+  @Override
+  public Optional<V> get(K key, Function<? super K, Optional<V>> loader) {
+    return first.get(key, k -> second.get(k, loader));
+  }
+
+  @Override
+  public void remove(K key) {
+    second.remove(key);
+    first.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    second.clear();
+    first.clear();
+  }
+
+  @Override
+  public long size() {
+    return first.size();
+  }
+
+  @Override
+  public CacheStats stats() {
+    return first.stats();
+  }
+}
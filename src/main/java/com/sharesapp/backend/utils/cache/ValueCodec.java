@@ -0,0 +1,20 @@
+package com.sharesapp.backend.utils.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary form of a cached value for caches that keep their entries outside the Java heap.
+ */
+public interface ValueCodec<V> {
+
+  Class<V> type();
+
+  /**
+   * Largest number of bytes {@link #encode} writes. Values that do not fit are not cached.
+   */
+  int maxEncodedSize();
+
+  void encode(V value, ByteBuffer target);
+
+  V decode(ByteBuffer source);
+}
@@ -0,0 +1,116 @@
+package com.sharesapp.backend.utils.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Append-only history of applied prices, partitioned into one file per UTC day. A price is a
+ * fixed {@value #RECORD_BYTES}-byte record of share id, epoch millisecond and price. Queries are
+ * served from the candles, so the log is only an archive for offline use, and partitions older
+ * than {@code history.retention-days} are deleted as whole files.
+ */
+@Slf4j
+@Component
+public class PriceLog {
+  static final int RECORD_BYTES = Long.BYTES + Long.BYTES + Float.BYTES;
+  private static final long MILLIS_PER_DAY = 86_400_000L;
+  private static final String PREFIX = "prices-";
+  private static final String SUFFIX = ".bin";
+  private final Path directory;
+  private final int retentionDays;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  public PriceLog(@Value("${history.dir:data/history}") Path directory,
+                  @Value("${history.retention-days:30}") int retentionDays) {
+    this.directory = directory;
+    this.retentionDays = retentionDays;
+  }
+
+  public void append(Collection<PriceRecord> records) throws IOException {
+    lock.lock();
+    try {
+      if (records.isEmpty()) {
+        return;
+      }
+      Files.createDirectories(directory);
+      Map<LocalDate, List<PriceRecord>> partitions = records.stream()
+          .collect(Collectors.groupingBy(record -> day(record.epochMillis()), TreeMap::new,
+              Collectors.toList()));
+      for (Map.Entry<LocalDate, List<PriceRecord>> partition : partitions.entrySet()) {
+        ByteBuffer buffer = ByteBuffer.allocate(partition.getValue().size() * RECORD_BYTES);
+        partition.getValue().forEach(record -> buffer.putLong(record.shareId())
+            .putLong(record.epochMillis())
+            .putFloat(record.price()));
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(partition(partition.getKey()),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+          while (buffer.hasRemaining()) {
+            channel.write(buffer);
+          }
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${history.prune-interval-millis:3600000}")
+  public void prune() {
+    try {
+      prune(Instant.now());
+    } catch (IOException e) {
+      log.error("Failed to prune the price log: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Deletes the partitions of the days more than {@code history.retention-days} before the day of
+   * {@code now}.
+   */
+  public void prune(Instant now) throws IOException {
+    lock.lock();
+    try {
+      if (!Files.isDirectory(directory)) {
+        return;
+      }
+      String firstKept = PREFIX + day(now.toEpochMilli()).minusDays(retentionDays) + SUFFIX;
+      List<Path> expired;
+      try (Stream<Path> files = Files.list(directory)) {
+        expired = files.filter(file -> {
+          String name = file.getFileName().toString();
+          return name.startsWith(PREFIX) && name.endsWith(SUFFIX) && name.compareTo(firstKept) < 0;
+        }).toList();
+      }
+      for (Path partition : expired) {
+        Files.deleteIfExists(partition);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Path partition(LocalDate day) {
+    return directory.resolve(PREFIX + day + SUFFIX);
+  }
+
+  private static LocalDate day(long epochMillis) {
+    return LocalDate.ofEpochDay(Math.floorDiv(epochMillis, MILLIS_PER_DAY));
+  }
+}
@@ -0,0 +1,4 @@
+package com.sharesapp.backend.utils.history;
+
+public record PriceRecord(long shareId, long epochMillis, float price) {
+}
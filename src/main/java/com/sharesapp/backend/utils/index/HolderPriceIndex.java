@@ -0,0 +1,98 @@
+package com.sharesapp.backend.utils.index;
+
+import com.sharesapp.backend.utils.index.HoldingIndex.Quote;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-company index of held shares ordered by last sale price, each pointing at the set of its
+ * holders, so the users holding a company's shares within a price range are found with one
+ * skip list range lookup.
+ *
+ * <p>The index follows the {@link HoldingIndex}, which owns the holdings themselves. Until that
+ * is loaded {@link #findHolders} returns nothing and callers fall back to SQL.
+ */
+@Component
+public class HolderPriceIndex implements HoldingListener {
+  private final ConcurrentHashMap<Long, ConcurrentSkipListMap<PriceKey, Set<Long>>> companies =
+      new ConcurrentHashMap<>();
+  private volatile boolean ready;
+
+  /**
+   * Returns the ids, in order, of the users holding a share of the company whose last sale
+   * price is within {@code [minPrice, maxPrice]}, or nothing while the index is not loaded.
+   */
+  public Optional<List<Long>> findHolders(Long companyId, Float minPrice, Float maxPrice) {
+    if (!ready) {
+      return Optional.empty();
+    }
+    ConcurrentSkipListMap<PriceKey, Set<Long>> index = companies.get(companyId);
+    if (index == null || minPrice > maxPrice) {
+      return Optional.of(List.of());
+    }
+    Set<Long> holders = new TreeSet<>();
+    index.subMap(new PriceKey(minPrice, Long.MIN_VALUE), true,
+        new PriceKey(maxPrice, Long.MAX_VALUE), true).values().forEach(holders::addAll);
+    return Optional.of(List.copyOf(holders));
+  }
+
+  @Override
+  public void onReset() {
+    ready = false;
+    companies.clear();
+  }
+
+  @Override
+  public void onLoaded() {
+    ready = true;
+  }
+
+  @Override
+  public void onHoldingAdded(Long userId, Long shareId, Quote quote, Set<Long> holders) {
+    if (holders.size() == 1) {
+      index(shareId, quote, holders);
+    }
+  }
+
+  @Override
+  public void onHoldingRemoved(Long userId, Long shareId, Quote quote, Set<Long> holders) {
+    if (holders.isEmpty()) {
+      unindex(shareId, quote);
+    }
+  }
+
+  @Override
+  public void onQuoteChanged(Long shareId, Quote previous, Quote current, Set<Long> holders) {
+    unindex(shareId, previous);
+    index(shareId, current, holders);
+  }
+
+  private void index(Long shareId, Quote quote, Set<Long> holders) {
+    if (quote.companyId() != null && quote.lastSalePrice() != null) {
+      companies.computeIfAbsent(quote.companyId(), k -> new ConcurrentSkipListMap<>())
+          .put(new PriceKey(quote.lastSalePrice(), shareId), holders);
+    }
+  }
+
+  private void unindex(Long shareId, Quote quote) {
+    if (quote.companyId() != null && quote.lastSalePrice() != null) {
+      companies.computeIfPresent(quote.companyId(), (k, index) -> {
+        index.remove(new PriceKey(quote.lastSalePrice(), shareId));
+        return index.isEmpty() ? null : index;
+      });
+    }
+  }
+
+  private record PriceKey(float price, long shareId) implements Comparable<PriceKey> {
+    @Override
+    public int compareTo(PriceKey other) {
+      int byPrice = Float.compare(price, other.price);
+      return byPrice != 0 ? byPrice : Long.compare(shareId, other.shareId);
+    }
+  }
+}
@@ -0,0 +1,238 @@
+package com.sharesapp.backend.utils.index;
+
+import com.sharesapp.backend.dto.user.HoldingDto;
+import com.sharesapp.backend.event.ChangeType;
+import com.sharesapp.backend.event.CompanyChangedEvent;
+import com.sharesapp.backend.event.HoldingChangedEvent;
+import com.sharesapp.backend.event.PriceChangedEvent;
+import com.sharesapp.backend.event.ShareChangedEvent;
+import com.sharesapp.backend.event.UserChangedEvent;
+import com.sharesapp.backend.model.Share;
+import com.sharesapp.backend.model.TradeSide;
+import com.sharesapp.backend.repository.ShareRepository;
+import com.sharesapp.backend.repository.UserRepository;
+import com.sharesapp.backend.utils.ThreadFactories;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Which users hold which shares, with the company and prices of every held share, shared by the
+ * in-memory views built on top of holdings.
+ *
+ * <p>The index is loaded when the application is ready and kept in sync by committed price,
+ * holding, share, company and user changes. Every change is passed on to the
+ * {@link HoldingListener} beans, which only keep what they derive from it. The load runs in the
+ * background so startup does not wait for it, and until it completes the listeners serve reads
+ * from the database instead.
+ */
+@Slf4j
+@Component
+public class HoldingIndex {
+  private static final int LOAD_CHUNK_SIZE = 1000;
+  private final UserRepository userRepository;
+  private final ShareRepository shareRepository;
+  private final List<HoldingListener> listeners;
+  private final Executor loader;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Map<Long, Quote> quotes = new HashMap<>();
+  private final Map<Long, Set<Long>> holders = new HashMap<>();
+  private final Map<Long, Set<Long>> holdings = new HashMap<>();
+
+  @Autowired
+  public HoldingIndex(UserRepository userRepository, ShareRepository shareRepository,
+                      List<HoldingListener> listeners,
+                      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+    this(userRepository, shareRepository, listeners, command ->
+        ThreadFactories.named("holding-index-", virtualThreads).newThread(command).start());
+  }
+
+  public HoldingIndex(UserRepository userRepository, ShareRepository shareRepository,
+                      List<HoldingListener> listeners, Executor loader) {
+    this.userRepository = userRepository;
+    this.shareRepository = shareRepository;
+    this.listeners = List.copyOf(listeners);
+    this.loader = loader;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    loader.execute(() -> {
+      try {
+        rebuild();
+      } catch (RuntimeException e) {
+        log.error("Failed to load the holding index", e);
+      }
+    });
+  }
+
+  /**
+   * Loads the holdings chunk by chunk, taking the lock for one chunk at a time so committed
+   * changes keep being applied in between. A change to holdings not loaded yet is either applied
+   * before its chunk is read, which then skips it, or read with the chunk and repeated as a no-op.
+   */
+  public void rebuild() {
+    lock.lock();
+    try {
+      quotes.clear();
+      holders.clear();
+      holdings.clear();
+      listeners.forEach(HoldingListener::onReset);
+    } finally {
+      lock.unlock();
+    }
+    List<Long> ids = userRepository.findIdsByIdGreaterThan(0L, Limit.of(LOAD_CHUNK_SIZE));
+    while (!ids.isEmpty()) {
+      lock.lock();
+      try {
+        for (HoldingDto holding : userRepository.findHoldingsByUserIdIn(ids)) {
+          addHolding(holding.getUserId(), holding.getShareId(), new Quote(
+              holding.getCompanyId(), holding.getLastSalePrice(), holding.getPrevClosePrice()));
+        }
+      } finally {
+        lock.unlock();
+      }
+      ids = ids.size() < LOAD_CHUNK_SIZE ? List.of() : userRepository.findIdsByIdGreaterThan(
+          ids.get(ids.size() - 1), Limit.of(LOAD_CHUNK_SIZE));
+    }
+    lock.lock();
+    try {
+      listeners.forEach(HoldingListener::onLoaded);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPriceChanged(PriceChangedEvent event) {
+    lock.lock();
+    try {
+      Quote previous = quotes.get(event.shareId());
+      Quote current = new Quote(event.companyId(), event.lastSalePrice(),
+          event.prevClosePrice());
+      if (previous == null || previous.equals(current)) {
+        return;
+      }
+      quotes.put(event.shareId(), current);
+      Set<Long> shareHolders = Collections.unmodifiableSet(holders.get(event.shareId()));
+      listeners.forEach(listener ->
+          listener.onQuoteChanged(event.shareId(), previous, current, shareHolders));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onHoldingChanged(HoldingChangedEvent event) {
+    lock.lock();
+    try {
+      if (event.side() == TradeSide.SELL) {
+        removeHolding(event.userId(), event.shareId());
+      } else if (quotes.containsKey(event.shareId())) {
+        addHolding(event.userId(), event.shareId(), quotes.get(event.shareId()));
+      } else {
+        shareRepository.findById(event.shareId()).ifPresent(share ->
+            addHolding(event.userId(), share.getId(), quote(share)));
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onShareChanged(ShareChangedEvent event) {
+    lock.lock();
+    try {
+      if (event.type() == ChangeType.DELETED) {
+        removeShare(event.shareId());
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCompanyChanged(CompanyChangedEvent event) {
+    lock.lock();
+    try {
+      if (event.type() == ChangeType.DELETED) {
+        event.shareIds().forEach(this::removeShare);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserChanged(UserChangedEvent event) {
+    lock.lock();
+    try {
+      if (event.type() == ChangeType.DELETED) {
+        Set.copyOf(holdings.getOrDefault(event.userId(), Set.of()))
+            .forEach(shareId -> removeHolding(event.userId(), shareId));
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void addHolding(Long userId, Long shareId, Quote quote) {
+    if (!holdings.computeIfAbsent(userId, k -> new HashSet<>()).add(shareId)) {
+      return;
+    }
+    Quote held = quotes.computeIfAbsent(shareId, k -> quote);
+    Set<Long> shareHolders = holders.computeIfAbsent(shareId,
+        k -> ConcurrentHashMap.newKeySet());
+    shareHolders.add(userId);
+    Set<Long> view = Collections.unmodifiableSet(shareHolders);
+    listeners.forEach(listener -> listener.onHoldingAdded(userId, shareId, held, view));
+  }
+
+  private void removeHolding(Long userId, Long shareId) {
+    Set<Long> userShares = holdings.get(userId);
+    if (userShares == null || !userShares.remove(shareId)) {
+      return;
+    }
+    if (userShares.isEmpty()) {
+      holdings.remove(userId);
+    }
+    Set<Long> shareHolders = holders.get(shareId);
+    shareHolders.remove(userId);
+    Quote quote = shareHolders.isEmpty() ? quotes.remove(shareId) : quotes.get(shareId);
+    if (shareHolders.isEmpty()) {
+      holders.remove(shareId);
+    }
+    Set<Long> view = Collections.unmodifiableSet(shareHolders);
+    listeners.forEach(listener -> listener.onHoldingRemoved(userId, shareId, quote, view));
+  }
+
+  private void removeShare(Long shareId) {
+    Set.copyOf(holders.getOrDefault(shareId, Set.of()))
+        .forEach(userId -> removeHolding(userId, shareId));
+  }
+
+  private static Quote quote(Share share) {
+    return new Quote(share.getCompany() == null ? null : share.getCompany().getId(),
+        share.getLastSalePrice(), share.getPrevClosePrice());
+  }
+
+  /**
+   * The company and prices of a held share.
+   */
+  public record Quote(Long companyId, Float lastSalePrice, Float prevClosePrice) {
+  }
+}
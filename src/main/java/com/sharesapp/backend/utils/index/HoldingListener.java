@@ -0,0 +1,29 @@
+package com.sharesapp.backend.utils.index;
+
+import com.sharesapp.backend.utils.index.HoldingIndex.Quote;
+import java.util.Set;
+
+/**
+ * Receives the changes of the {@link HoldingIndex} one at a time, in order and under its lock, so
+ * implementations need no locking of their own for state only these callbacks write.
+ *
+ * <p>The {@code holders} sets are live read-only views of the users holding the share after the
+ * change. They are safe to keep and to read from other threads.
+ */
+public interface HoldingListener {
+  /**
+   * The index starts loading from scratch, so everything received before is dropped.
+   */
+  void onReset();
+
+  /**
+   * The index finished loading and from now on reflects every committed change.
+   */
+  void onLoaded();
+
+  void onHoldingAdded(Long userId, Long shareId, Quote quote, Set<Long> holders);
+
+  void onHoldingRemoved(Long userId, Long shareId, Quote quote, Set<Long> holders);
+
+  void onQuoteChanged(Long shareId, Quote previous, Quote current, Set<Long> holders);
+}
@@ -0,0 +1,77 @@
+package com.sharesapp.backend.utils.index;
+
+import com.sharesapp.backend.dto.SearchResultDto;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Case-insensitive sorted index of texts by id. Updates are serialized, while exact and prefix
+ * lookups walk the skip list without taking any lock.
+ */
+final class PrefixIndex {
+  private final ConcurrentSkipListMap<Key, String> entries = new ConcurrentSkipListMap<>();
+  private final Map<Long, Key> keys = new HashMap<>();
+
+  synchronized void put(Long id, String text) {
+    remove(id);
+    if (text != null) {
+      Key key = new Key(normalize(text), id);
+      keys.put(id, key);
+      entries.put(key, text);
+    }
+  }
+
+  synchronized void remove(Long id) {
+    Key key = keys.remove(id);
+    if (key != null) {
+      entries.remove(key);
+    }
+  }
+
+  synchronized void clear() {
+    keys.clear();
+    entries.clear();
+  }
+
+  /**
+   * Returns the ids, in order, of the entries whose text equals {@code text} ignoring case.
+   */
+  List<Long> exact(String text) {
+    String normalized = normalize(text);
+    return entries.subMap(new Key(normalized, Long.MIN_VALUE), true,
+        new Key(normalized, Long.MAX_VALUE), true).keySet().stream().map(Key::id).toList();
+  }
+
+  /**
+   * Returns at most {@code limit} entries starting with {@code prefix} ignoring case. Exact
+   * matches come first, followed by the longer texts in alphabetical order.
+   */
+  List<SearchResultDto> complete(String prefix, int limit) {
+    String normalized = normalize(prefix);
+    List<SearchResultDto> results = new ArrayList<>();
+    for (Map.Entry<Key, String> entry
+        : entries.tailMap(new Key(normalized, Long.MIN_VALUE)).entrySet()) {
+      if (results.size() >= limit || !entry.getKey().text().startsWith(normalized)) {
+        break;
+      }
+      results.add(new SearchResultDto(entry.getKey().id(), entry.getValue()));
+    }
+    return results;
+  }
+
+  private static String normalize(String text) {
+    return text.strip().toLowerCase(Locale.ROOT);
+  }
+
+  private record Key(String text, long id) implements Comparable<Key> {
+    @Override
+    public int compareTo(Key other) {
+      int byText = text.compareTo(other.text);
+      return byText != 0 ? byText : Long.compare(id, other.id);
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package com.sharesapp.backend.utils.index;
+
+import com.sharesapp.backend.dto.SearchResultDto;
+import com.sharesapp.backend.event.ChangeType;
+import com.sharesapp.backend.event.CompanyChangedEvent;
+import com.sharesapp.backend.event.ShareChangedEvent;
+import com.sharesapp.backend.repository.CompanyRepository;
+import com.sharesapp.backend.repository.ShareRepository;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Sorted in-memory indexes of share symbols and company names, resolving a symbol to its shares
+ * and completing a prefix without a database round trip.
+ *
+ * <p>The indexes are loaded when the application is ready and kept in sync by committed share
+ * and company changes. Until they are loaded every lookup returns nothing and callers fall back
+ * to SQL.
+ */
+@Component
+public class SymbolIndex {
+  private static final int LOAD_CHUNK_SIZE = 1000;
+  private final ShareRepository shareRepository;
+  private final CompanyRepository companyRepository;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final PrefixIndex shares = new PrefixIndex();
+  private final PrefixIndex companies = new PrefixIndex();
+  private volatile boolean ready;
+
+  public SymbolIndex(ShareRepository shareRepository, CompanyRepository companyRepository) {
+    this.shareRepository = shareRepository;
+    this.companyRepository = companyRepository;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    lock.lock();
+    try {
+      ready = false;
+      load(shares, shareRepository::findSymbolsByIdGreaterThan);
+      load(companies, companyRepository::findNamesByIdGreaterThan);
+      ready = true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the ids of the shares with the symbol ignoring case, or nothing while the index is
+   * not loaded.
+   */
+  public Optional<List<Long>> findShares(String symbol) {
+    return ready ? Optional.of(shares.exact(symbol)) : Optional.empty();
+  }
+
+  public Optional<List<SearchResultDto>> completeShares(String prefix, int limit) {
+    return ready ? Optional.of(shares.complete(prefix, limit)) : Optional.empty();
+  }
+
+  public Optional<List<SearchResultDto>> completeCompanies(String prefix, int limit) {
+    return ready ? Optional.of(companies.complete(prefix, limit)) : Optional.empty();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onShareChanged(ShareChangedEvent event) {
+    lock.lock();
+    try {
+      if (event.type() == ChangeType.DELETED) {
+        shares.remove(event.shareId());
+      } else {
+        shares.put(event.shareId(), event.symbol());
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCompanyChanged(CompanyChangedEvent event) {
+    lock.lock();
+    try {
+      if (event.type() == ChangeType.DELETED) {
+        companies.remove(event.companyId());
+        event.shareIds().forEach(shares::remove);
+      } else {
+        companies.put(event.companyId(), event.name());
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static void load(PrefixIndex index,
+                           BiFunction<Long, Limit, List<SearchResultDto>> findChunk) {
+    index.clear();
+    List<SearchResultDto> chunk = findChunk.apply(0L, Limit.of(LOAD_CHUNK_SIZE));
+    while (!chunk.isEmpty()) {
+      chunk.forEach(entry -> index.put(entry.getId(), entry.getName()));
+      chunk = chunk.size() < LOAD_CHUNK_SIZE ? List.of() : findChunk.apply(
+          chunk.get(chunk.size() - 1).getId(), Limit.of(LOAD_CHUNK_SIZE));
+    }
+  }
+}
@@ -0,0 +1,176 @@
+package com.sharesapp.backend.utils.journal;
+
+import com.sharesapp.backend.dto.user.TradeDto;
+import com.sharesapp.backend.model.TradeSide;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Durable log of accepted trades, written to numbered segment files of fixed
+ * {@value #RECORD_BYTES}-byte records of user id, share id and side.
+ *
+ * <p>{@link #append} returns once the trade is forced to disk. Callers appending at the same time
+ * share one force, so a burst of trades costs a few syncs rather than one each. Once the trades of
+ * a segment are stored elsewhere, the segment is closed by {@link #rotate} and then deleted.
+ * Segments left by a crash are read back in order on startup, skipping a partial last record.
+ */
+@Component
+public class TradeJournal {
+  static final int RECORD_BYTES = Long.BYTES + Long.BYTES + 1;
+  private static final String PREFIX = "trades-";
+  private static final String SUFFIX = ".bin";
+  private final Path directory;
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private final ReentrantLock syncLock = new ReentrantLock();
+  private FileChannel channel;
+  private Path segment;
+  private long written;
+  private long synced;
+
+  public TradeJournal(@Value("${trades.journal-dir:data/trades}") Path directory) {
+    this.directory = directory;
+  }
+
+  public void append(TradeDto trade) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES)
+        .putLong(trade.getUserId())
+        .putLong(trade.getShareId())
+        .put((byte) trade.getSide().ordinal())
+        .flip();
+    long end;
+    writeLock.lock();
+    try {
+      if (channel == null) {
+        open();
+      }
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      written += RECORD_BYTES;
+      end = written;
+    } finally {
+      writeLock.unlock();
+    }
+    sync(end);
+  }
+
+  /**
+   * Closes the segment trades are appended to, so that later trades go to a new one, and returns
+   * it, or nothing when no trade was appended since the last rotation.
+   */
+  public Optional<Path> rotate() throws IOException {
+    syncLock.lock();
+    writeLock.lock();
+    try {
+      if (channel == null) {
+        return Optional.empty();
+      }
+      channel.force(false);
+      channel.close();
+      synced = written;
+      Path closed = segment;
+      channel = null;
+      segment = null;
+      return Optional.of(closed);
+    } finally {
+      writeLock.unlock();
+      syncLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the closed segments in the order they were written.
+   */
+  public List<Path> segments() throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+    writeLock.lock();
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(TradeJournal::isSegment)
+          .filter(file -> !file.equals(segment))
+          .sorted(Comparator.comparingLong(TradeJournal::segmentNumber))
+          .toList();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public void read(Path closedSegment, Consumer<TradeDto> consumer) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(closedSegment));
+    TradeSide[] sides = TradeSide.values();
+    while (buffer.remaining() >= RECORD_BYTES) {
+      long userId = buffer.getLong();
+      long shareId = buffer.getLong();
+      consumer.accept(new TradeDto(userId, shareId, sides[buffer.get()]));
+    }
+  }
+
+  public void delete(Path closedSegment) throws IOException {
+    Files.deleteIfExists(closedSegment);
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    rotate();
+  }
+
+  private void sync(long end) throws IOException {
+    syncLock.lock();
+    try {
+      if (synced >= end) {
+        return;
+      }
+      FileChannel current;
+      long target;
+      writeLock.lock();
+      try {
+        current = channel;
+        target = written;
+      } finally {
+        writeLock.unlock();
+      }
+      current.force(false);
+      synced = target;
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  private void open() throws IOException {
+    Files.createDirectories(directory);
+    long next;
+    try (Stream<Path> files = Files.list(directory)) {
+      next = files.filter(TradeJournal::isSegment)
+          .mapToLong(TradeJournal::segmentNumber)
+          .max()
+          .orElse(0L) + 1;
+    }
+    segment = directory.resolve(PREFIX + next + SUFFIX);
+    channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+  }
+
+  private static boolean isSegment(Path file) {
+    String name = file.getFileName().toString();
+    return name.startsWith(PREFIX) && name.endsWith(SUFFIX)
+        && name.substring(PREFIX.length(), name.length() - SUFFIX.length()).matches("\\d+");
+  }
+
+  private static long segmentNumber(Path file) {
+    String name = file.getFileName().toString();
+    return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+  }
+}
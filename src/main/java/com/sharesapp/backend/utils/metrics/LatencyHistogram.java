@@ -0,0 +1,80 @@
+package com.sharesapp.backend.utils.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear histogram of latencies in microseconds. Values below 32 get a bucket each, and every
+ * following power of two is split into 16 buckets, so a percentile is reported within about 6% of
+ * the recorded value while the whole range up to an hour fits in a few hundred counters. Recording
+ * is a single lock-free increment.
+ */
+public final class LatencyHistogram {
+  public static final long MAX_VALUE = 3_600_000_000L;
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int LINEAR_BUCKETS = 2 * SUB_BUCKETS;
+  private final AtomicLongArray buckets = new AtomicLongArray(index(MAX_VALUE) + 1);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  public void record(long micros) {
+    long value = Math.min(Math.max(micros, 0), MAX_VALUE);
+    buckets.incrementAndGet(index(value));
+    count.increment();
+    sum.add(value);
+    max.accumulate(value);
+  }
+
+  public long count() {
+    return count.sum();
+  }
+
+  public long max() {
+    return max.get();
+  }
+
+  public double mean() {
+    long total = count.sum();
+    return total == 0 ? 0.0 : (double) sum.sum() / total;
+  }
+
+  /**
+   * Returns the highest value of the bucket holding the given percentile, at most the maximum
+   * recorded value, or 0 when nothing is recorded.
+   */
+  public long percentile(double percentile) {
+    long total = 0;
+    for (int i = 0; i < buckets.length(); i++) {
+      total += buckets.get(i);
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+    long seen = 0;
+    for (int i = 0; i < buckets.length(); i++) {
+      seen += buckets.get(i);
+      if (seen >= rank) {
+        return Math.min(highestValue(i), max.get());
+      }
+    }
+    return 0;
+  }
+
+  static int index(long value) {
+    if (value < LINEAR_BUCKETS) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return shift * SUB_BUCKETS + (int) (value >>> shift);
+  }
+
+  static long highestValue(int index) {
+    if (index < LINEAR_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,112 @@
+package com.sharesapp.backend.utils.web;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Bounds the requests handled at once when requests run on virtual threads, which Tomcat no
+ * longer caps by its thread pool. The limit is {@code web.concurrency.requests-per-connection}
+ * times the size of the connection pool, so thousands of slow clients queue here for at most
+ * {@code web.concurrency.acquire-timeout-millis} and are then answered with 503, instead of all
+ * waiting on the pool for a connection. A request that goes async, such as a price stream or a
+ * streamed export, keeps its permit until the async request completes, fails or times out.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+  private final Semaphore permits;
+  private final long acquireTimeoutMillis;
+
+  @Autowired
+  public ConcurrencyLimitFilter(
+      @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+      @Value("${web.concurrency.requests-per-connection:4}") int requestsPerConnection,
+      @Value("${web.concurrency.acquire-timeout-millis:1000}") long acquireTimeoutMillis) {
+    this(poolSize * requestsPerConnection, acquireTimeoutMillis);
+  }
+
+  public ConcurrencyLimitFilter(int maxRequests, long acquireTimeoutMillis) {
+    this.permits = new Semaphore(maxRequests);
+    this.acquireTimeoutMillis = acquireTimeoutMillis;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    boolean acquired;
+    try {
+      acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+      response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent requests");
+      return;
+    }
+    Release release = new Release();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      if (request.isAsyncStarted()) {
+        request.getAsyncContext().addListener(release);
+      } else {
+        release.run();
+      }
+    }
+  }
+
+  int availablePermits() {
+    return permits.availablePermits();
+  }
+
+  /**
+   * Gives the permit of one request back once, when the request ends or its async part does.
+   */
+  private class Release implements AsyncListener, Runnable {
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    @Override
+    public void run() {
+      if (released.compareAndSet(false, true)) {
+        permits.release();
+      }
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      run();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      run();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      run();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      event.getAsyncContext().addListener(this);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.sharesapp.backend.aspect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.sharesapp.backend.aspect.annotation.Logging;
+import com.sharesapp.backend.dto.user.UserDto;
+import com.sharesapp.backend.exceptions.NotFoundException;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LoggingAspectTests {
+  private final ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+  private LoggingAspect loggingAspect;
+
+  @BeforeEach
+  public void setUp() {
+    Signature signature = mock(Signature.class);
+    when(signature.getName()).thenReturn("getAll");
+    when(joinPoint.getSignature()).thenReturn(signature);
+    when(joinPoint.getArgs()).thenReturn(new Object[] {1L});
+    loggingAspect = new LoggingAspect(2, 20);
+  }
+
+  @Test
+  void testSampledCallsAreQueued() throws Throwable {
+    when(joinPoint.proceed()).thenReturn("result");
+
+    assertEquals("result", loggingAspect.logging(joinPoint, annotation("always")));
+    loggingAspect.logging(joinPoint, annotation("never"));
+
+    assertEquals(1, loggingAspect.pending());
+  }
+
+  @Test
+  void testFullQueueDropsCalls() throws Throwable {
+    when(joinPoint.proceed()).thenReturn("result");
+
+    for (int i = 0; i < 3; i++) {
+      loggingAspect.logging(joinPoint, annotation("always"));
+    }
+
+    assertEquals(2, loggingAspect.pending());
+    assertEquals(1, loggingAspect.dropped());
+  }
+
+  @Test
+  void testFailedCallsAreRethrownNotQueued() throws Throwable {
+    when(joinPoint.proceed()).thenThrow(new NotFoundException("There is no user with id = ", 1L));
+
+    Logging logging = annotation("never");
+    assertThrows(NotFoundException.class, () -> loggingAspect.logging(joinPoint, logging));
+    assertEquals(0, loggingAspect.pending());
+  }
+
+  @Test
+  void testUnprintableCallIsRenderedByTheWriter() throws Throwable {
+    Object unprintable = new Object() {
+      @Override
+      public String toString() {
+        throw new IllegalStateException("Concurrent change");
+      }
+    };
+    when(joinPoint.getArgs()).thenReturn(new Object[] {unprintable});
+    when(joinPoint.proceed()).thenReturn("result");
+
+    assertEquals("result", loggingAspect.logging(joinPoint, annotation("always")));
+    assertEquals(1, loggingAspect.pending());
+    loggingAspect.destroyAspect();
+    assertEquals(0, loggingAspect.pending());
+  }
+
+  @Test
+  void testFormatCutsDtosWhileRendering() {
+    UserDto user = new UserDto();
+    user.setId(1L);
+    user.setFirstName("Name");
+
+    String formatted = LoggingAspect.format(List.of(user, user), 20);
+
+    assertEquals("[UserDto(id=1, firstName=..., ...), ... 1 more]", formatted);
+  }
+
+  @Test
+  void testFormatCutsLongValues() {
+    assertEquals("null", LoggingAspect.format(null, 20));
+    assertEquals("Optional.empty", LoggingAspect.format(Optional.empty(), 20));
+    assertEquals("[1, 2]", LoggingAspect.format(new Object[] {1, 2}, 20));
+    assertEquals("abcde...", LoggingAspect.format("abcdefgh", 5));
+    assertEquals("Optional[[0, 1, 2, 3, 4, 5, 6, ... 93 more]]", LoggingAspect.format(
+        Optional.of(IntStream.range(0, 100).boxed().toList()), 30));
+    assertEquals("[abc..., ... 1 more]", LoggingAspect.format(List.of("abcdef", "x"), 4));
+  }
+
+  @Logging
+  private static void always() {
+  }
+
+  @Logging(sampleRate = 0.0)
+  private static void never() {
+  }
+
+  private static Logging annotation(String methodName) throws NoSuchMethodException {
+    return LoggingAspectTests.class.getDeclaredMethod(methodName).getAnnotation(Logging.class);
+  }
+}
@@ -0,0 +1,89 @@
+package com.sharesapp.backend.benchmark;
+
+import com.sharesapp.backend.dto.share.ShareDto;
+import com.sharesapp.backend.utils.cache.GenericCache;
+import com.sharesapp.backend.utils.cache.OffHeapCache;
+import com.sharesapp.backend.utils.cache.SegmentedLruCache;
+import com.sharesapp.backend.utils.cache.ShareDtoCodec;
+import com.sharesapp.backend.utils.cache.TieredCache;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs a skewed 90% read / 10% write workload from eight threads against every
+ * {@link GenericCache} implementation. The key space is five times the on-heap capacity and fits
+ * the off-heap tier, so misses, evictions and second-tier hits are all exercised.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CacheBenchmark {
+  private static final int CAPACITY = 10_000;
+  private static final int KEYS = 50_000;
+  @Param({"segmentedLru", "offHeap", "tiered"})
+  private String implementation;
+  private GenericCache<Long, ShareDto> cache;
+
+  @Setup
+  public void setUp() {
+    ShareDtoCodec codec = new ShareDtoCodec();
+    cache = switch (implementation) {
+      case "segmentedLru" -> new SegmentedLruCache<>(CAPACITY);
+      case "offHeap" -> new OffHeapCache<>(KEYS, codec);
+      case "tiered" ->
+          new TieredCache<>(new SegmentedLruCache<>(CAPACITY), new OffHeapCache<>(KEYS, codec));
+      default -> throw new IllegalArgumentException(implementation);
+    };
+    for (long key = 0; key < KEYS; key++) {
+      cache.put(key, share(key));
+    }
+  }
+
+  @Benchmark
+  public Optional<ShareDto> readMostly(KeyGenerator keys) {
+    long key = keys.next();
+    if (keys.random.nextInt(10) == 0) {
+      cache.put(key, share(key));
+      return Optional.empty();
+    }
+    return cache.get(key, CacheBenchmark::load);
+  }
+
+  private static Optional<ShareDto> load(long key) {
+    return Optional.of(share(key));
+  }
+
+  private static ShareDto share(long key) {
+    return new ShareDto(key, 1.0f, 2.0f, 0.5f, 1.5f, 1.25f, Instant.EPOCH, "SYM" + key);
+  }
+
+  /**
+   * Per-thread key source skewed towards low keys, so a small set of hot quotes dominates.
+   */
+  @State(Scope.Thread)
+  public static class KeyGenerator {
+    private final SplittableRandom random = new SplittableRandom();
+
+    long next() {
+      return (long) (KEYS * Math.pow(random.nextDouble(), 3));
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package com.sharesapp.backend.benchmark;
+
+import com.sharesapp.backend.event.ChangeType;
+import com.sharesapp.backend.event.CompanyChangedEvent;
+import com.sharesapp.backend.utils.cache.CacheInvalidationListener;
+import com.sharesapp.backend.utils.cache.CacheRegistry;
+import com.sharesapp.backend.utils.cache.SegmentedLruCache;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Replays a skewed workload of 90% reads, 9% share creates and 1% company deletes against the
+ * share and company caches. With {@code targeted} invalidation a create only caches the new share
+ * and a delete goes through {@link CacheInvalidationListener}, which evicts the shares of the
+ * deleted company; with {@code clearing} every write clears both caches. The {@code hits} and
+ * {@code misses} counters give the read hit rate of each.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CacheInvalidationBenchmark {
+  private static final int CAPACITY = 1000;
+  private static final int COMPANIES = 200;
+  private static final int INITIAL_SHARES = 2000;
+  @Param({"targeted", "clearing"})
+  private String invalidation;
+  private final SplittableRandom random = new SplittableRandom(42);
+  private SegmentedLruCache<Long, Object> shareCache;
+  private SegmentedLruCache<Long, Object> companyCache;
+  private CacheInvalidationListener listener;
+  private List<List<Long>> companyShares;
+  private long nextShareId;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    shareCache = new SegmentedLruCache<>(CAPACITY);
+    companyCache = new SegmentedLruCache<>(CAPACITY);
+    CacheRegistry cacheRegistry = new CacheRegistry();
+    cacheRegistry.register("share", shareCache);
+    cacheRegistry.register("company", companyCache);
+    listener = new CacheInvalidationListener(cacheRegistry);
+    companyShares = new ArrayList<>();
+    for (int company = 0; company < COMPANIES; company++) {
+      companyShares.add(new ArrayList<>());
+    }
+    for (long shareId = 1; shareId <= INITIAL_SHARES; shareId++) {
+      companyShares.get((int) (shareId % COMPANIES)).add(shareId);
+    }
+    nextShareId = INITIAL_SHARES + 1L;
+  }
+
+  @Benchmark
+  public Optional<Object> mixedWorkload(HitCounters counters) {
+    int operation = random.nextInt(100);
+    if (operation == 0) {
+      deleteCompany(skewed(COMPANIES) - 1);
+      return Optional.empty();
+    }
+    if (operation < 10) {
+      createShare();
+      return Optional.empty();
+    }
+    boolean shareRead = random.nextBoolean();
+    SegmentedLruCache<Long, Object> cache = shareRead ? shareCache : companyCache;
+    long id = skewed(shareRead ? nextShareId - 1 : COMPANIES);
+    boolean[] loaded = new boolean[1];
+    Optional<Object> value = cache.get(id, key -> {
+      loaded[0] = true;
+      return Optional.of("Entity " + key);
+    });
+    if (loaded[0]) {
+      counters.misses++;
+    } else {
+      counters.hits++;
+    }
+    return value;
+  }
+
+  private void createShare() {
+    long shareId = nextShareId++;
+    if (invalidation.equals("clearing")) {
+      shareCache.clear();
+      companyCache.clear();
+    }
+    companyShares.get((int) (shareId % COMPANIES)).add(shareId);
+    shareCache.put(shareId, "Share " + shareId);
+  }
+
+  private void deleteCompany(long companyId) {
+    List<Long> shareIds = companyShares.get((int) companyId);
+    if (invalidation.equals("clearing")) {
+      shareCache.clear();
+      companyCache.clear();
+    } else {
+      companyCache.remove(companyId);
+      listener.onCompanyChanged(new CompanyChangedEvent(companyId, "Company " + companyId,
+          List.copyOf(shareIds), ChangeType.DELETED));
+    }
+    shareIds.clear();
+  }
+
+  private long skewed(long size) {
+    return 1 + (long) (size * Math.pow(random.nextDouble(), 3));
+  }
+
+  /**
+   * Read hits and misses, reported next to the throughput of every run.
+   */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class HitCounters {
+    public long hits;
+    public long misses;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      hits = 0;
+      misses = 0;
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.sharesapp.backend.benchmark;
+
+import com.sharesapp.backend.dto.share.ShareDto;
+import com.sharesapp.backend.dto.user.UserShareDto;
+import com.sharesapp.backend.mapper.CompanyMapper;
+import com.sharesapp.backend.mapper.ShareMapper;
+import com.sharesapp.backend.mapper.UserMapper;
+import com.sharesapp.backend.model.Company;
+import com.sharesapp.backend.model.Share;
+import com.sharesapp.backend.model.User;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the reflective ModelMapper path with the hand-written mappers on the conversions
+ * the controllers run most: a list of shares and users with their shares and companies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapperBenchmark {
+  @Param({"1", "1000"})
+  private int size;
+  private List<Share> shares;
+  private List<User> users;
+  private ModelMapper modelMapper;
+  private ShareMapper shareMapper;
+  private UserMapper userMapper;
+
+  @Setup
+  public void setUp() {
+    modelMapper = new ModelMapper();
+    modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+    shareMapper = new ShareMapper(new CompanyMapper());
+    userMapper = new UserMapper(shareMapper);
+    Company company = new Company(1L, "Company", 1D, "Adress", "Website", new HashSet<>());
+    shares = new ArrayList<>();
+    users = new ArrayList<>();
+    for (long id = 1; id <= size; id++) {
+      Share share = new Share(id, 1.0f, 2.0f, 0.5f, 1.5f, 1.25f, Instant.now(), "SYM" + id,
+          new HashSet<>(), null);
+      company.addShare(share);
+      shares.add(share);
+      User user = new User(id, "First", "Last", "user" + id + "@mail.com", "123", "Password",
+          new HashSet<>());
+      for (int i = 0; i < 5; i++) {
+        user.addShare(shares.get((int) ((id + i * 7) % shares.size())));
+      }
+      users.add(user);
+    }
+  }
+
+  @Benchmark
+  public List<ShareDto> modelMapperShares() {
+    return Arrays.asList(modelMapper.map(shares, ShareDto[].class));
+  }
+
+  @Benchmark
+  public List<ShareDto> handWrittenShares() {
+    return shareMapper.toDtos(shares);
+  }
+
+  @Benchmark
+  public List<UserShareDto> modelMapperUserShares() {
+    return Arrays.asList(modelMapper.map(users, UserShareDto[].class));
+  }
+
+  @Benchmark
+  public List<UserShareDto> handWrittenUserShares() {
+    return userMapper.toUserShareDtos(users);
+  }
+}
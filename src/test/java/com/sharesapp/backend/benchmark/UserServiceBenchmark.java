@@ -0,0 +1,133 @@
+package com.sharesapp.backend.benchmark;
+
+import com.sharesapp.backend.SharesappApplication;
+import com.sharesapp.backend.dto.CompanyDto;
+import com.sharesapp.backend.dto.share.CreateShare;
+import com.sharesapp.backend.dto.share.ShareDto;
+import com.sharesapp.backend.dto.user.CreateUser;
+import com.sharesapp.backend.dto.user.UserDto;
+import com.sharesapp.backend.service.impl.CompanyServiceImpl;
+import com.sharesapp.backend.service.impl.ShareServiceImpl;
+import com.sharesapp.backend.service.impl.UserServiceImpl;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Calls {@link UserServiceImpl} through the Spring proxies, so transactions, caches and aspects
+ * are included, against an in-memory H2 database seeded with {@value #COMPANIES} companies,
+ * {@value #SHARES} shares and {@value #USERS} users holding {@value #HOLDINGS} shares each.
+ * Service call logging is turned off to keep log output out of the measurement.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserServiceBenchmark {
+  private static final int COMPANIES = 20;
+  private static final int SHARES = 1000;
+  private static final int USERS = 200;
+  private static final int HOLDINGS = 10;
+  private ConfigurableApplicationContext context;
+  private UserServiceImpl userService;
+  private final List<Long> userIds = new ArrayList<>();
+  private final List<Long> shareIds = new ArrayList<>();
+
+  @Setup
+  public void setUp() {
+    context = new SpringApplicationBuilder(SharesappApplication.class)
+        .web(WebApplicationType.NONE)
+        .run("--spring.datasource.url="
+                + "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.hibernate.ddl-auto=create-drop",
+            "--spring.jpa.show-sql=false",
+            "--spring.docker.compose.enabled=false",
+            "--spring.devtools.restart.enabled=false",
+            "--logging.level.root=WARN",
+            "--logging.level.com.sharesapp.backend.aspect.LoggingAspect=WARN");
+    userService = context.getBean(UserServiceImpl.class);
+    seed(context.getBean(CompanyServiceImpl.class), context.getBean(ShareServiceImpl.class));
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Optional<UserDto> getById() {
+    return userService.getById(randomUser());
+  }
+
+  @Benchmark
+  public Optional<List<ShareDto>> getShares() {
+    return userService.getShares(randomUser());
+  }
+
+  @Benchmark
+  public Optional<List<ShareDto>> getNotPurchasedShares() {
+    return userService.getNotPurchasedShares(randomUser(), null, null);
+  }
+
+  @Benchmark
+  public Optional<ShareDto> buyAndSellShare() {
+    Long userId = randomUser();
+    Long shareId = shareIds.get(ThreadLocalRandom.current().nextInt(shareIds.size()));
+    userService.buyShare(userId, shareId);
+    return userService.sellShare(userId, shareId);
+  }
+
+  private Long randomUser() {
+    return userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+  }
+
+  private void seed(CompanyServiceImpl companyService, ShareServiceImpl shareService) {
+    List<Long> companyIds = new ArrayList<>();
+    for (int i = 0; i < COMPANIES; i++) {
+      CompanyDto company = new CompanyDto(null, "Company " + i, 1D, "Adress", "Website");
+      companyIds.add(companyService.createCompany(company).orElseThrow().getId());
+    }
+    for (int i = 0; i < SHARES; i++) {
+      CreateShare share = new CreateShare();
+      share.setSymbol("SYM" + i);
+      share.setLastSalePrice(1.0f + i);
+      share.setLastTimeUpdated(Instant.now());
+      share.setCompanyId(companyIds.get(i % COMPANIES));
+      shareIds.add(shareService.createShare(share).orElseThrow().getId());
+    }
+    for (int i = 0; i < USERS; i++) {
+      CreateUser user = new CreateUser();
+      user.setFirstName("First " + i);
+      user.setLastName("Last " + i);
+      user.setEmail("user" + i + "@mail.com");
+      user.setPassword("password");
+      Long userId = userService.createUser(user).orElseThrow().getId();
+      userIds.add(userId);
+      for (int j = 0; j < HOLDINGS; j++) {
+        userService.buyShare(userId, shareIds.get((i * HOLDINGS + j) % SHARES));
+      }
+    }
+  }
+}
@@ -6,6 +6,7 @@ import static org.mockito.Mockito.when;
 import com.sharesapp.backend.dto.CompanyDto;
 import com.sharesapp.backend.dto.share.ShareDto;
 import com.sharesapp.backend.service.impl.CompanyServiceImpl;
+import com.sharesapp.backend.service.impl.IngestServiceImpl;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
@@ -26,6 +27,8 @@ class CompanyControllerTests {
 
   @Mock
   private CompanyServiceImpl companyService;
+  @Mock
+  private IngestServiceImpl ingestService;
   @InjectMocks
   private CompanyController companyController;
 
@@ -46,10 +49,10 @@ class CompanyControllerTests {
 
   @Test
   void testGetAllCompanies() {
-    when(companyService.getAllCompanies()).thenReturn(
+    when(companyService.getAllCompanies(null, null)).thenReturn(
         Optional.of(Arrays.asList(company, company, company)));
 
-    ResponseEntity<List<CompanyDto>> result = companyController.getAllCompanies();
+    ResponseEntity<List<CompanyDto>> result = companyController.getAllCompanies(null, null);
 
     assertEquals(3, Objects.requireNonNull(result.getBody()).size());
     assertEquals(company, result.getBody().get(1));
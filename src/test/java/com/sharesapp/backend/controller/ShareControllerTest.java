@@ -1,24 +1,45 @@
 package com.sharesapp.backend.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.sharesapp.backend.dto.CompanyDto;
+import com.sharesapp.backend.dto.SearchResultDto;
+import com.sharesapp.backend.dto.share.CandleDto;
+import com.sharesapp.backend.dto.share.PricePointDto;
 import com.sharesapp.backend.dto.share.CreateShare;
 import com.sharesapp.backend.dto.share.ShareDto;
+import com.sharesapp.backend.dto.share.TickDto;
+import com.sharesapp.backend.service.impl.CandleServiceImpl;
+import com.sharesapp.backend.service.impl.IngestServiceImpl;
+import com.sharesapp.backend.service.impl.PriceStreamServiceImpl;
 import com.sharesapp.backend.service.impl.ShareServiceImpl;
+import com.sharesapp.backend.service.impl.TickServiceImpl;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @ExtendWith(MockitoExtension.class)
 class ShareControllerTest {
@@ -27,6 +48,14 @@ class ShareControllerTest {
   private final CompanyDto company = new CompanyDto();
   @Mock
   private ShareServiceImpl shareService;
+  @Mock
+  private IngestServiceImpl ingestService;
+  @Mock
+  private TickServiceImpl tickService;
+  @Mock
+  private PriceStreamServiceImpl priceStreamService;
+  @Mock
+  private CandleServiceImpl candleService;
   @InjectMocks
   private ShareController shareController;
 
@@ -47,9 +76,9 @@ class ShareControllerTest {
 
   @Test
   void testGetAllShares() {
-    when(shareService.getAllShares()).thenReturn(Optional.of(Arrays.asList(share, share, share)));
+    when(shareService.getAllShares(null, null)).thenReturn(Optional.of(Arrays.asList(share, share, share)));
 
-    ResponseEntity<List<ShareDto>> result = shareController.getAllShares();
+    ResponseEntity<List<ShareDto>> result = shareController.getAllShares(null, null);
 
     assertEquals(3, Objects.requireNonNull(result.getBody()).size());
     assertEquals(share, result.getBody().get(1));
@@ -64,6 +93,25 @@ class ShareControllerTest {
     assertEquals(share, result.getBody());
   }
 
+  @Test
+  void testGetShareBySymbol() {
+    when(shareService.getBySymbol("Test Symbol")).thenReturn(Optional.of(share));
+
+    ResponseEntity<ShareDto> result = shareController.getShareBySymbol("Test Symbol");
+
+    assertEquals(share, result.getBody());
+  }
+
+  @Test
+  void testSearchShares() {
+    List<SearchResultDto> results = List.of(new SearchResultDto(1L, "Test Symbol"));
+    when(shareService.searchShares("test", 10)).thenReturn(Optional.of(results));
+
+    ResponseEntity<List<SearchResultDto>> result = shareController.searchShares("test", 10);
+
+    assertEquals(results, result.getBody());
+  }
+
   @Test
   void createShare() {
     when(shareService.createShare(createShare)).thenReturn(Optional.of(share));
@@ -111,4 +159,60 @@ class ShareControllerTest {
 
     assertEquals(company, result.getBody());
   }
+  
+  @Test
+  void testCreateManySharesStream() throws IOException {
+    InputStream body = new ByteArrayInputStream(new byte[0]);
+    OutputStream out = new ByteArrayOutputStream();
+
+    ResponseEntity<StreamingResponseBody> result = shareController.createManySharesStream(body);
+    Objects.requireNonNull(result.getBody()).writeTo(out);
+
+    assertEquals(MediaType.APPLICATION_NDJSON, result.getHeaders().getContentType());
+    verify(ingestService).ingest(eq(body), eq(out), eq(CreateShare.class), any());
+  }
+
+  @Test
+  void testSubmitTicks() {
+    List<TickDto> ticks = List.of(new TickDto("AAA", 1.0f, null, null, null));
+    when(tickService.submitTicks(ticks)).thenReturn(1);
+
+    ResponseEntity<Integer> result = shareController.submitTicks(ticks);
+
+    assertEquals(HttpStatus.ACCEPTED, result.getStatusCode());
+    assertEquals(1, result.getBody());
+  }
+
+  @Test
+  void testStreamPrices() {
+    SseEmitter emitter = new SseEmitter();
+    when(priceStreamService.subscribe(Set.of("AAA"), Set.of(1L))).thenReturn(emitter);
+
+    SseEmitter result = shareController.streamPrices(Set.of("AAA"), Set.of(1L));
+
+    assertEquals(emitter, result);
+  }
+
+  @Test
+  void testGetCandles() {
+    Instant start = Instant.parse("2021-01-01T00:00:00Z");
+    List<CandleDto> candles = List.of(new CandleDto(start, 1.0f, 2.0f, 0.5f, 1.5f, 4));
+    when(candleService.getCandles(1L, "1h", start, null, null)).thenReturn(Optional.of(candles));
+
+    ResponseEntity<List<CandleDto>> result =
+        shareController.getCandles(1L, "1h", start, null, null);
+
+    assertEquals(candles, result.getBody());
+  }
+
+  @Test
+  void testGetPrices() {
+    Instant start = Instant.parse("2021-01-01T00:00:00Z");
+    List<PricePointDto> prices = List.of(new PricePointDto(start, 1.0f));
+    when(candleService.getPrices(1L, start, null, null)).thenReturn(Optional.of(prices));
+
+    ResponseEntity<List<PricePointDto>> result = shareController.getPrices(1L, start, null, null);
+
+    assertEquals(prices, result.getBody());
   }
+}
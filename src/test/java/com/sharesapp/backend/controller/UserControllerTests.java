@@ -1,13 +1,24 @@
 package com.sharesapp.backend.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.sharesapp.backend.dto.share.ShareDto;
 import com.sharesapp.backend.dto.user.CreateUser;
+import com.sharesapp.backend.dto.user.PortfolioDto;
+import com.sharesapp.backend.dto.user.TradeDto;
+import com.sharesapp.backend.dto.user.TradeResultDto;
 import com.sharesapp.backend.dto.user.UserDto;
 import com.sharesapp.backend.dto.user.UserShareDto;
+import com.sharesapp.backend.model.TradeSide;
+import com.sharesapp.backend.service.impl.IngestServiceImpl;
+import com.sharesapp.backend.service.impl.PortfolioServiceImpl;
 import com.sharesapp.backend.service.impl.UserServiceImpl;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
@@ -19,7 +30,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @ExtendWith(MockitoExtension.class)
 class UserControllerTests {
@@ -28,6 +41,10 @@ class UserControllerTests {
   private final ShareDto share = new ShareDto();
   @Mock
   private UserServiceImpl userService;
+  @Mock
+  private IngestServiceImpl ingestService;
+  @Mock
+  private PortfolioServiceImpl portfolioService;
   @InjectMocks
   private UserController userController;
 
@@ -49,9 +66,10 @@ class UserControllerTests {
 
   @Test
   void testGetAllUsers() {
-    when(userService.getAllUsers()).thenReturn(Optional.of(Arrays.asList(user, user, user)));
+    when(userService.getAllUsers(null, null))
+        .thenReturn(Optional.of(Arrays.asList(user, user, user)));
 
-    ResponseEntity<List<UserDto>> result = userController.getAllUsers();
+    ResponseEntity<List<UserDto>> result = userController.getAllUsers(null, null);
 
     assertEquals(3, Objects.requireNonNull(result.getBody()).size());
     assertEquals(user, result.getBody().get(1));
@@ -117,6 +135,18 @@ class UserControllerTests {
     assertEquals(share, result.getBody());
   }
 
+  @Test
+  void testTrade() {
+    List<TradeDto> trades = List.of(new TradeDto(1L, 1L, TradeSide.BUY));
+    List<TradeResultDto> results =
+        List.of(new TradeResultDto(1L, 1L, TradeSide.BUY, true, false, null));
+    when(userService.trade(trades)).thenReturn(Optional.of(results));
+
+    ResponseEntity<List<TradeResultDto>> result = userController.trade(trades);
+
+    assertEquals(results, result.getBody());
+  }
+
   @Test
   void testGetShares() {
     when(userService.getShares(1L)).thenReturn(Optional.of(Arrays.asList(share, share, share)));
@@ -138,11 +168,12 @@ class UserControllerTests {
 
   @Test
   void testGetUsersSharesAndCompanies() {
-    when(userService.getUsersSharesAndCompanies())
+    when(userService.getUsersSharesAndCompanies(null, null))
         .thenReturn(
             Optional.of(Arrays.asList(new UserShareDto(), new UserShareDto(), new UserShareDto())));
 
-    ResponseEntity<List<UserShareDto>> result = userController.getAllUsersSharesAndCompanies();
+    ResponseEntity<List<UserShareDto>> result =
+        userController.getAllUsersSharesAndCompanies(null, null);
 
     assertEquals(3, Objects.requireNonNull(result.getBody()).size());
   }
@@ -158,4 +189,34 @@ class UserControllerTests {
 
     assertEquals(3, Objects.requireNonNull(result.getBody()).size());
   }
-}
\ No newline at end of file
+
+  @Test
+  void testStreamAllUsersSharesAndCompanies() throws IOException {
+    ResponseEntity<StreamingResponseBody> result =
+        userController.streamAllUsersSharesAndCompanies();
+    Objects.requireNonNull(result.getBody()).writeTo(new ByteArrayOutputStream());
+
+    assertEquals(MediaType.APPLICATION_NDJSON, result.getHeaders().getContentType());
+    verify(userService).exportUsersSharesAndCompanies(any(OutputStream.class));
+  }
+
+  @Test
+  void testGetPortfolio() {
+    PortfolioDto portfolio = new PortfolioDto(1L, 150.0, 10.0, 2);
+    when(portfolioService.getPortfolio(1L)).thenReturn(Optional.of(portfolio));
+
+    ResponseEntity<PortfolioDto> result = userController.getPortfolio(1L);
+
+    assertEquals(portfolio, result.getBody());
+  }
+
+  @Test
+  void testGetTopPortfolios() {
+    List<PortfolioDto> portfolios = List.of(new PortfolioDto(1L, 150.0, 10.0, 2));
+    when(portfolioService.getTopPortfolios(10)).thenReturn(Optional.of(portfolios));
+
+    ResponseEntity<List<PortfolioDto>> result = userController.getTopPortfolios(10);
+
+    assertEquals(portfolios, result.getBody());
+  }
+}
@@ -0,0 +1,103 @@
+package com.sharesapp.backend.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.sharesapp.backend.dto.CompanyDto;
+import com.sharesapp.backend.dto.share.CreateShare;
+import com.sharesapp.backend.dto.share.ShareCompanyDto;
+import com.sharesapp.backend.dto.share.ShareDto;
+import com.sharesapp.backend.dto.user.CreateUser;
+import com.sharesapp.backend.dto.user.UserDto;
+import com.sharesapp.backend.dto.user.UserShareDto;
+import com.sharesapp.backend.model.Company;
+import com.sharesapp.backend.model.Share;
+import com.sharesapp.backend.model.User;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+class MapperTests {
+  private final ModelMapper modelMapper = new ModelMapper();
+  private final CompanyMapper companyMapper = new CompanyMapper();
+  private final ShareMapper shareMapper = new ShareMapper(companyMapper);
+  private final UserMapper userMapper = new UserMapper(shareMapper);
+  private Company company;
+  private Share share;
+  private User user;
+
+  @BeforeEach
+  public void setUp() {
+    modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+    company = new Company(1L, "Company Name", 1D, "Adress", "Website", new HashSet<>());
+    share = new Share(1L, 1.0f, 2.0f, 0.5f, 1.5f, 1.25f,
+        Instant.parse("2007-12-03T10:15:30.00Z"), "Symbol", new HashSet<>(), null);
+    company.addShare(share);
+    user = new User(1L, "First Name", "Last Name", "Email", "Phone Number", "Password",
+        new HashSet<>());
+    user.addShare(share);
+  }
+
+  @Test
+  void companyMatchesModelMapper() {
+    assertEquals(modelMapper.map(company, CompanyDto.class), companyMapper.toDto(company));
+    CompanyDto companyDto = companyMapper.toDto(company);
+    assertEquals(modelMapper.map(companyDto, Company.class), companyMapper.toEntity(companyDto));
+    assertEquals(Arrays.asList(modelMapper.map(List.of(company), CompanyDto[].class)),
+        companyMapper.toDtos(List.of(company)));
+  }
+
+  @Test
+  void shareMatchesModelMapper() {
+    assertEquals(modelMapper.map(share, ShareDto.class), shareMapper.toDto(share));
+    assertEquals(modelMapper.map(share, ShareCompanyDto.class),
+        shareMapper.toShareCompanyDto(share));
+    assertEquals(Arrays.asList(modelMapper.map(List.of(share), ShareDto[].class)),
+        shareMapper.toDtos(List.of(share)));
+  }
+
+  @Test
+  void shareEntityMatchesModelMapper() {
+    ShareDto shareDto = shareMapper.toDto(share);
+    Share expected = modelMapper.map(shareDto, Share.class);
+    Share actual = shareMapper.toEntity(shareDto);
+    assertEquals(expected.getId(), actual.getId());
+    assertEquals(expected.getSymbol(), actual.getSymbol());
+    assertEquals(expected.getLastSalePrice(), actual.getLastSalePrice());
+    assertEquals(expected.getLastTimeUpdated(), actual.getLastTimeUpdated());
+
+    CreateShare createShare = modelMapper.map(share, CreateShare.class);
+    createShare.setCompanyId(1L);
+    expected = modelMapper.map(createShare, Share.class);
+    actual = shareMapper.toEntity(createShare);
+    assertEquals(expected.getSymbol(), actual.getSymbol());
+    assertEquals(expected.getCompany().getId(), actual.getCompany().getId());
+  }
+
+  @Test
+  void shareWithoutCompany() {
+    share.setCompany(null);
+    assertNull(shareMapper.toShareCompanyDto(share).getCompany());
+  }
+
+  @Test
+  void userMatchesModelMapper() {
+    assertEquals(modelMapper.map(user, UserDto.class), userMapper.toDto(user));
+    assertEquals(modelMapper.map(user, UserShareDto.class), userMapper.toUserShareDto(user));
+    assertEquals(Arrays.asList(modelMapper.map(List.of(user), UserShareDto[].class)),
+        userMapper.toUserShareDtos(List.of(user)));
+  }
+
+  @Test
+  void userEntityMatchesModelMapper() {
+    CreateUser createUser = modelMapper.map(user, CreateUser.class);
+    assertEquals(modelMapper.map(createUser, User.class), userMapper.toEntity(createUser));
+    UserDto userDto = userMapper.toDto(user);
+    assertEquals(modelMapper.map(userDto, User.class), userMapper.toEntity(userDto));
+  }
+}
@@ -0,0 +1,52 @@
+package com.sharesapp.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sharesapp.backend.model.Company;
+import com.sharesapp.backend.model.Share;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false"})
+class BatchInsertTests {
+  private static final int SHARES = 500;
+  @Autowired
+  private EntityManager entityManager;
+  @Autowired
+  private ShareRepository shareRepository;
+  @Autowired
+  private CompanyRepository companyRepository;
+
+  @Test
+  void saveAllInsertsInBatches() {
+    Company company = companyRepository.saveAndFlush(
+        new Company(null, "Company", 1D, "Adress", "Website", new HashSet<>()));
+    Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class)
+        .getStatistics();
+    statistics.clear();
+
+    List<Share> shares = IntStream.range(0, SHARES).mapToObj(i -> {
+      Share share = new Share(null, 1.0f, 2.0f, 0.5f, 1.5f, 1.25f, Instant.now(), "SYM" + i,
+          new HashSet<>(), null);
+      share.setCompany(company);
+      return share;
+    }).toList();
+    shareRepository.saveAll(shares);
+    entityManager.flush();
+
+    assertEquals(SHARES, statistics.getEntityInsertCount());
+    // One sequence call per 50 ids plus one statement per JDBC batch of 50 rows.
+    assertTrue(statistics.getPrepareStatementCount() <= 2 * (SHARES / 50) + 2,
+        "statements: " + statistics.getPrepareStatementCount());
+  }
+}
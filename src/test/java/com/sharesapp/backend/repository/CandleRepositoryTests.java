@@ -0,0 +1,47 @@
+package com.sharesapp.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.sharesapp.backend.model.Candle;
+import com.sharesapp.backend.model.CandleResolution;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+class CandleRepositoryTests {
+  private static final Instant TIME = Instant.parse("2007-12-03T10:15:00.00Z");
+  @Autowired
+  private CandleRepository candleRepository;
+
+  @Test
+  void mergeCandlesInsertsNewCandles() {
+    candleRepository.mergeCandles(List.of(candle(TIME, 2.0f, 3.0f, 1.0f, 1.5f, 3),
+        candle(TIME.plusSeconds(60), 1.5f, 1.5f, 1.5f, 1.5f, 1)));
+
+    assertEquals(List.of(candle(TIME, 2.0f, 3.0f, 1.0f, 1.5f, 3),
+        candle(TIME.plusSeconds(60), 1.5f, 1.5f, 1.5f, 1.5f, 1)), findCandles());
+  }
+
+  @Test
+  void mergeCandlesFoldsIntoStoredCandle() {
+    candleRepository.mergeCandles(List.of(candle(TIME, 2.0f, 3.0f, 1.0f, 1.5f, 3)));
+
+    candleRepository.mergeCandles(List.of(candle(TIME, 2.5f, 4.0f, 2.0f, 2.0f, 2)));
+
+    assertEquals(List.of(candle(TIME, 2.0f, 4.0f, 1.0f, 2.0f, 5)), findCandles());
+  }
+
+  private List<Candle> findCandles() {
+    return candleRepository.findByShareIdAndResolutionAndBucketStartBetweenOrderByBucketStartAsc(
+        1L, CandleResolution.M1, TIME, TIME.plusSeconds(600), Limit.of(100));
+  }
+
+  private static Candle candle(Instant bucketStart, Float open, Float high, Float low,
+                               Float close, Integer ticks) {
+    return new Candle(1L, CandleResolution.M1, bucketStart, open, high, low, close, ticks);
+  }
+}
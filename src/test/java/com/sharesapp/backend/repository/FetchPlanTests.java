@@ -0,0 +1,140 @@
+package com.sharesapp.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sharesapp.backend.dto.user.UserShareDto;
+import com.sharesapp.backend.mapper.CompanyMapper;
+import com.sharesapp.backend.mapper.ShareMapper;
+import com.sharesapp.backend.mapper.UserMapper;
+import com.sharesapp.backend.model.Company;
+import com.sharesapp.backend.model.Share;
+import com.sharesapp.backend.model.User;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false"})
+class FetchPlanTests {
+  private static final int COMPANIES = 3;
+  private static final int SHARES = 12;
+  private static final int USERS = 8;
+  private final ShareMapper shareMapper = new ShareMapper(new CompanyMapper());
+  private final UserMapper userMapper = new UserMapper(shareMapper);
+  @Autowired
+  private EntityManager entityManager;
+  @Autowired
+  private UserRepository userRepository;
+  @Autowired
+  private ShareRepository shareRepository;
+  @Autowired
+  private CompanyRepository companyRepository;
+  private Statistics statistics;
+  private Long companyId;
+  private Long shareId;
+  private Long userId;
+
+  @BeforeEach
+  public void setUp() {
+    List<Company> companies = new ArrayList<>();
+    for (int i = 0; i < COMPANIES; i++) {
+      Company company = new Company(null, "Company " + i, 1D, "Adress", "Website",
+          new HashSet<>());
+      entityManager.persist(company);
+      companies.add(company);
+    }
+    List<Share> shares = new ArrayList<>();
+    for (int i = 0; i < SHARES; i++) {
+      Share share = new Share(null, 1.0f, 2.0f, 0.5f, 1.5f, 1.0f + i, Instant.now(), "SYM" + i,
+          new HashSet<>(), null);
+      companies.get(i % COMPANIES).addShare(share);
+      entityManager.persist(share);
+      shares.add(share);
+    }
+    for (int i = 0; i < USERS; i++) {
+      User user = new User(null, "First", "Last", "user" + i + "@mail.com", "123", "Password",
+          new HashSet<>());
+      for (int j = 0; j < 4; j++) {
+        user.addShare(shares.get((i + j * 3) % SHARES));
+      }
+      entityManager.persist(user);
+      if (userId == null) {
+        userId = user.getId();
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+    companyId = companies.get(0).getId();
+    shareId = shares.get(0).getId();
+    statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class)
+        .getStatistics();
+    statistics.clear();
+  }
+
+  @Test
+  void usersWithSharesAndCompaniesPage() {
+    List<Long> ids = userRepository.findIdsByIdGreaterThan(0L, Limit.of(USERS));
+    List<UserShareDto> users =
+        userMapper.toUserShareDtos(userRepository.findByIdInOrderByIdAsc(ids));
+
+    assertEquals(USERS, users.size());
+    assertEquals(4, users.get(0).getShares().size());
+    users.forEach(user -> user.getShares().forEach(share -> share.getCompany().getName()));
+    assertEquals(2, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void usersByCompanyAndSharePriceRange() {
+    List<UserShareDto> users = userMapper.toUserShareDtos(
+        userRepository.findUsersByCompanyAndSharePriceRange(companyId, 0f, 100f));
+
+    assertEquals(3, users.size());
+    assertEquals(4, users.get(0).getShares().size());
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void notPurchasedShares() {
+    List<Share> shares = shareRepository.findNotPurchasedByUser(userId, 0L, Limit.of(SHARES));
+
+    assertEquals(SHARES - 4, shares.size());
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void notPurchasedSharesPages() {
+    List<Share> first = shareRepository.findNotPurchasedByUser(userId, 0L, Limit.of(5));
+    List<Share> second =
+        shareRepository.findNotPurchasedByUser(userId, first.get(4).getId(), Limit.of(5));
+
+    assertEquals(5, first.size());
+    assertEquals(3, second.size());
+    assertTrue(first.get(4).getId() < second.get(0).getId());
+  }
+
+  @Test
+  void companyShares() {
+    Company company = companyRepository.findWithSharesById(companyId).orElseThrow();
+
+    assertEquals(SHARES / COMPANIES, shareMapper.toDtos(company.getShares()).size());
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void shareCompany() {
+    Share share = shareRepository.findWithCompanyById(shareId).orElseThrow();
+
+    assertEquals("Company 0", share.getCompany().getName());
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+}
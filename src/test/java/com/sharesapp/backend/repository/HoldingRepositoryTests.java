@@ -0,0 +1,120 @@
+package com.sharesapp.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sharesapp.backend.dto.user.TradeDto;
+import com.sharesapp.backend.model.Company;
+import com.sharesapp.backend.model.Share;
+import com.sharesapp.backend.model.TradeSide;
+import com.sharesapp.backend.model.User;
+import jakarta.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+class HoldingRepositoryTests {
+  private static final Instant TIME = Instant.parse("2007-12-03T10:15:30.00Z");
+  @Autowired
+  private EntityManager entityManager;
+  @Autowired
+  private UserRepository userRepository;
+  private Long userId;
+  private Long firstShareId;
+  private Long secondShareId;
+
+  @BeforeEach
+  public void setUp() {
+    Company company = new Company(null, "Company", 1D, "Adress", "Website", new HashSet<>());
+    entityManager.persist(company);
+    Share first = share("AAA", company);
+    Share second = share("BBB", company);
+    User user = new User(null, "First", "Last", "Email", "Phone", "Password", new HashSet<>());
+    user.addShare(first);
+    entityManager.persist(user);
+    entityManager.flush();
+    entityManager.clear();
+    userId = user.getId();
+    firstShareId = first.getId();
+    secondShareId = second.getId();
+  }
+
+  @Test
+  void applyTradesAddsAndRemovesHoldings() {
+    List<Boolean> changed = userRepository.applyTrades(List.of(
+        new TradeDto(userId, firstShareId, TradeSide.SELL),
+        new TradeDto(userId, secondShareId, TradeSide.BUY)));
+
+    assertEquals(List.of(true, true), changed);
+
+    assertEquals(Set.of(secondShareId), holdings());
+  }
+
+  @Test
+  void applyTradesIgnoresRepeatedAndMissingRows() {
+    List<Boolean> changed = userRepository.applyTrades(List.of(
+        new TradeDto(userId, firstShareId, TradeSide.BUY),
+        new TradeDto(userId, secondShareId, TradeSide.SELL),
+        new TradeDto(userId, -1L, TradeSide.BUY), new TradeDto(-1L, secondShareId, TradeSide.BUY)));
+
+    assertEquals(List.of(false, false, false, false), changed);
+
+    assertEquals(Set.of(firstShareId), holdings());
+  }
+
+  @Test
+  void applyTradesRechecksBatchesWithoutUpdateCounts() throws SQLException {
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    Savepoint savepoint = mock(Savepoint.class);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(connection.setSavepoint()).thenReturn(savepoint);
+    when(statement.executeBatch())
+        .thenReturn(new int[] {Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+    when(statement.executeUpdate()).thenReturn(1, 0);
+    HoldingRepositoryImpl repository = new HoldingRepositoryImpl(
+        new JdbcTemplate(new SingleConnectionDataSource(connection, true)));
+
+    List<Boolean> changed = repository.applyTrades(List.of(
+        new TradeDto(1L, 1L, TradeSide.BUY), new TradeDto(1L, 2L, TradeSide.BUY)));
+
+    assertEquals(List.of(true, false), changed);
+    verify(connection).rollback(savepoint);
+  }
+
+  @Test
+  void findIdsByIdInReturnsExistingIds() {
+    assertEquals(List.of(userId), userRepository.findIdsByIdIn(List.of(userId, -1L)));
+  }
+
+  private Set<Long> holdings() {
+    entityManager.clear();
+    return userRepository.findById(userId).orElseThrow().getShares().stream()
+        .map(Share::getId)
+        .collect(Collectors.toSet());
+  }
+
+  private Share share(String symbol, Company company) {
+    Share share = new Share(null, 1.0f, 2.0f, 0.5f, 1.5f, 1.25f, TIME, symbol, new HashSet<>(),
+        company);
+    entityManager.persist(share);
+    return share;
+  }
+}
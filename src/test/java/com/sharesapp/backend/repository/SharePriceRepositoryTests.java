@@ -0,0 +1,58 @@
+package com.sharesapp.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.sharesapp.backend.dto.share.TickDto;
+import com.sharesapp.backend.model.Company;
+import com.sharesapp.backend.model.Share;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+class SharePriceRepositoryTests {
+  private static final Instant TIME = Instant.parse("2007-12-03T10:15:30.00Z");
+  @Autowired
+  private EntityManager entityManager;
+  @Autowired
+  private ShareRepository shareRepository;
+  private Long shareId;
+
+  @BeforeEach
+  public void setUp() {
+    Company company = new Company(null, "Company", 1D, "Adress", "Website", new HashSet<>());
+    entityManager.persist(company);
+    Share share = new Share(null, 1.0f, 2.0f, 0.5f, 1.5f, 1.25f, TIME, "AAA", new HashSet<>(),
+        company);
+    entityManager.persist(share);
+    entityManager.flush();
+    entityManager.clear();
+    shareId = share.getId();
+  }
+
+  @Test
+  void updatePrices() {
+    shareRepository.updatePrices(List.of(new TickDto("AAA", 3.0f, 4.0f, null, TIME.plusSeconds(1)),
+        new TickDto("BBB", 3.0f, 4.0f, null, TIME.plusSeconds(1))));
+
+    Share share = shareRepository.findById(shareId).orElseThrow();
+    assertEquals(3.0f, share.getLastSalePrice());
+    assertEquals(4.0f, share.getHighPrice());
+    assertEquals(0.5f, share.getLowPrice());
+    assertEquals(TIME.plusSeconds(1), share.getLastTimeUpdated());
+  }
+
+  @Test
+  void updatePricesSkipsOlderTicks() {
+    shareRepository.updatePrices(List.of(new TickDto("AAA", 3.0f, 4.0f, 0.1f, TIME.minusSeconds(1))));
+
+    Share share = shareRepository.findById(shareId).orElseThrow();
+    assertEquals(1.25f, share.getLastSalePrice());
+    assertEquals(TIME, share.getLastTimeUpdated());
+  }
+}
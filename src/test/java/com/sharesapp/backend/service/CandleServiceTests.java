@@ -0,0 +1,218 @@
+package com.sharesapp.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sharesapp.backend.dto.share.CandleDto;
+import com.sharesapp.backend.dto.share.PricePointDto;
+import com.sharesapp.backend.event.PriceChangedEvent;
+import com.sharesapp.backend.exceptions.BadRequestException;
+import com.sharesapp.backend.exceptions.NotFoundException;
+import com.sharesapp.backend.model.Candle;
+import com.sharesapp.backend.model.CandleResolution;
+import com.sharesapp.backend.repository.CandleRepository;
+import com.sharesapp.backend.repository.ShareRepository;
+import com.sharesapp.backend.service.impl.CandleServiceImpl;
+import com.sharesapp.backend.utils.history.PriceLog;
+import com.sharesapp.backend.utils.history.PriceRecord;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CandleServiceTests {
+  private static final Instant TIME = Instant.parse("2007-12-03T10:15:30.00Z");
+  @Mock
+  private CandleRepository candleRepository;
+  @Mock
+  private ShareRepository shareRepository;
+  @Mock
+  private PriceLog priceLog;
+  @Mock
+  private PlatformTransactionManager transactionManager;
+  @InjectMocks
+  private CandleServiceImpl candleService;
+
+  @Test
+  void testFlushMergesCandlePerResolution() {
+    candleService.onPriceChanged(price(2.0f, TIME));
+    candleService.onPriceChanged(price(3.0f, TIME.plusSeconds(10)));
+    candleService.onPriceChanged(price(1.0f, TIME.plusSeconds(20)));
+
+    candleService.flush();
+
+    List<Candle> candles = captureCandles();
+    assertEquals(4, candles.size());
+    Candle minute = candles.stream()
+        .filter(c -> c.getResolution() == CandleResolution.M1).findFirst().orElseThrow();
+    assertEquals(new Candle(1L, CandleResolution.M1, Instant.parse("2007-12-03T10:15:00.00Z"),
+        2.0f, 3.0f, 1.0f, 1.0f, 3), minute);
+  }
+
+  @Test
+  void testFlushSplitsCandlesAtBucketBoundary() {
+    candleService.onPriceChanged(price(2.0f, TIME));
+    candleService.onPriceChanged(price(3.0f, TIME.plusSeconds(60)));
+
+    candleService.flush();
+
+    List<Candle> candles = captureCandles();
+    assertEquals(Set.of(Instant.parse("2007-12-03T10:15:00.00Z"),
+            Instant.parse("2007-12-03T10:16:00.00Z")),
+        candles.stream().filter(c -> c.getResolution() == CandleResolution.M1)
+            .map(Candle::getBucketStart).collect(Collectors.toSet()));
+    assertEquals(5, candles.size());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testFlushAppendsPrices() throws IOException {
+    candleService.onPriceChanged(price(2.0f, TIME));
+
+    candleService.flush();
+
+    ArgumentCaptor<Collection<PriceRecord>> records = ArgumentCaptor.forClass(Collection.class);
+    verify(priceLog).append(records.capture());
+    assertEquals(List.of(new PriceRecord(1L, TIME.toEpochMilli(), 2.0f)),
+        List.copyOf(records.getValue()));
+  }
+
+  @Test
+  void testFlushDrainsPendingCandles() {
+    candleService.onPriceChanged(price(2.0f, TIME));
+    candleService.flush();
+
+    candleService.flush();
+
+    verify(candleRepository).mergeCandles(anyCollection());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testFailedFlushKeepsCandlesAndPrices() throws IOException {
+    doThrow(new QueryTimeoutException("Timeout")).when(candleRepository)
+        .mergeCandles(anyCollection());
+    doThrow(new IOException("Disk full")).when(priceLog).append(anyCollection());
+    candleService.onPriceChanged(price(2.0f, TIME));
+    assertThrows(QueryTimeoutException.class, () -> candleService.flush());
+
+    candleService.onPriceChanged(price(1.0f, TIME.plusSeconds(10)));
+    assertThrows(QueryTimeoutException.class, () -> candleService.flush());
+
+    ArgumentCaptor<Collection<Candle>> candles = ArgumentCaptor.forClass(Collection.class);
+    verify(candleRepository, times(2)).mergeCandles(candles.capture());
+    assertEquals(new Candle(1L, CandleResolution.M1, Instant.parse("2007-12-03T10:15:00.00Z"),
+            2.0f, 2.0f, 1.0f, 1.0f, 2),
+        candles.getValue().stream().filter(c -> c.getResolution() == CandleResolution.M1)
+            .findFirst().orElseThrow());
+    ArgumentCaptor<Collection<PriceRecord>> records = ArgumentCaptor.forClass(Collection.class);
+    verify(priceLog, times(2)).append(records.capture());
+    assertEquals(2, records.getValue().size());
+  }
+
+  @Test
+  void testPriceWithoutTimestampIsIgnored() {
+    candleService.onPriceChanged(price(2.0f, null));
+
+    candleService.flush();
+
+    verify(candleRepository, never()).mergeCandles(anyCollection());
+  }
+
+  @Test
+  void testGetCandles() {
+    Candle candle = new Candle(1L, CandleResolution.M5, TIME, 1.0f, 2.0f, 0.5f, 1.5f, 4);
+    when(shareRepository.existsById(1L)).thenReturn(true);
+    when(candleRepository.findByShareIdAndResolutionAndBucketStartBetweenOrderByBucketStartAsc(
+        1L, CandleResolution.M5, Instant.parse("2007-12-03T10:15:00.00Z"), TIME.plusSeconds(600),
+        Limit.of(100))).thenReturn(List.of(candle));
+
+    Optional<List<CandleDto>> result =
+        candleService.getCandles(1L, "5m", TIME, TIME.plusSeconds(600), null);
+
+    assertEquals(Optional.of(List.of(new CandleDto(TIME, 1.0f, 2.0f, 0.5f, 1.5f, 4))), result);
+  }
+
+  @Test
+  void testGetCandlesThrowResolution() {
+    assertThrows(BadRequestException.class,
+        () -> candleService.getCandles(1L, "2m", null, null, null));
+  }
+
+  @Test
+  void testGetCandlesThrowRange() {
+    Instant to = TIME.minusSeconds(600);
+
+    assertThrows(BadRequestException.class,
+        () -> candleService.getCandles(1L, "1m", TIME, to, null));
+  }
+
+  @Test
+  void testGetCandlesThrowShare() {
+    when(shareRepository.existsById(1L)).thenReturn(false);
+
+    assertThrows(NotFoundException.class,
+        () -> candleService.getCandles(1L, "1m", null, null, null));
+    verify(candleRepository, never())
+        .findByShareIdAndResolutionAndBucketStartBetweenOrderByBucketStartAsc(any(), any(),
+            any(), any(), any());
+  }
+
+  @Test
+  void testGetPricesReadsMinuteCandles() {
+    Instant minute = Instant.parse("2007-12-03T10:15:00.00Z");
+    when(shareRepository.existsById(1L)).thenReturn(true);
+    when(candleRepository.findByShareIdAndResolutionAndBucketStartBetweenOrderByBucketStartAsc(
+        1L, CandleResolution.M1, minute, TIME.plusSeconds(600), Limit.of(1)))
+        .thenReturn(List.of(new Candle(1L, CandleResolution.M1, minute, 1.0f, 2.0f, 0.5f, 1.5f,
+            3)));
+
+    Optional<List<PricePointDto>> result =
+        candleService.getPrices(1L, TIME, TIME.plusSeconds(600), 1);
+
+    assertEquals(Optional.of(List.of(new PricePointDto(minute, 1.5f))), result);
+  }
+
+  @Test
+  void testGetPricesThrowRange() {
+    Instant to = TIME.plus(Duration.ofDays(2));
+
+    assertThrows(BadRequestException.class,
+        () -> candleService.getPrices(1L, TIME, to, null));
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Candle> captureCandles() {
+    ArgumentCaptor<Collection<Candle>> candles = ArgumentCaptor.forClass(Collection.class);
+    verify(candleRepository).mergeCandles(candles.capture());
+    return List.copyOf(candles.getValue());
+  }
+
+  private static PriceChangedEvent price(Float lastSalePrice, Instant timestamp) {
+    return new PriceChangedEvent(1L, 1L, "AAA", lastSalePrice, null, null, null, timestamp);
+  }
+}
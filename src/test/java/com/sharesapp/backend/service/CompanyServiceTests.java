@@ -4,28 +4,38 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.sharesapp.backend.dto.CompanyDto;
+import com.sharesapp.backend.dto.SearchResultDto;
 import com.sharesapp.backend.dto.share.CreateShare;
 import com.sharesapp.backend.dto.share.ShareDto;
 import com.sharesapp.backend.exceptions.BadRequestException;
 import com.sharesapp.backend.exceptions.NotFoundException;
+import com.sharesapp.backend.mapper.CompanyMapper;
+import com.sharesapp.backend.mapper.ShareMapper;
 import com.sharesapp.backend.model.Company;
 import com.sharesapp.backend.model.Share;
 import com.sharesapp.backend.repository.CompanyRepository;
 import com.sharesapp.backend.repository.ShareRepository;
 import com.sharesapp.backend.service.impl.CompanyServiceImpl;
 import com.sharesapp.backend.utils.cache.GenericCache;
+import com.sharesapp.backend.utils.index.SymbolIndex;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import org.assertj.core.util.Arrays;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -38,6 +48,8 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -50,11 +62,18 @@ class CompanyServiceTests {
   @Mock
   private CompanyRepository companyRepository;
   @Mock
-  private GenericCache<Long, Company> cache;
+  private GenericCache<Long, CompanyDto> cache;
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+  @Mock
+  private SymbolIndex symbolIndex;
   @InjectMocks
   private CompanyServiceImpl companyService;
   @Spy
-  private ModelMapper modelMapper = new ModelMapper();
+  private CompanyMapper companyMapper = new CompanyMapper();
+  @Spy
+  private ShareMapper shareMapper = new ShareMapper(new CompanyMapper());
+  private final ModelMapper modelMapper = new ModelMapper();
 
   @BeforeEach
   public void setUp() {
@@ -63,11 +82,15 @@ class CompanyServiceTests {
     share = new Share(1L, 1.0f, 1.0f, 1.0f, 1.0f, 1.0f,
         Instant.parse("2007-12-03T10:15:30.00Z"), "Symbol", new HashSet<>(), null);
     companyDto = modelMapper.map(company, CompanyDto.class);
+    doAnswer(invocation -> {
+      Function<Long, Optional<CompanyDto>> loader = invocation.getArgument(1);
+      return loader.apply(invocation.getArgument(0));
+    }).when(cache).get(anyLong(), any());
   }
 
   @Test
   void testCreateCompany() {
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(company));
+    when(cache.get(1L)).thenReturn(Optional.ofNullable(companyDto));
     when(companyRepository.save(any(Company.class))).thenReturn(company);
 
     Optional<CompanyDto> result = companyService.createCompany(companyDto);
@@ -75,12 +98,12 @@ class CompanyServiceTests {
     assertTrue(result.isPresent());
     assertEquals(modelMapper.map(company, CompanyDto.class), result.get());
     verify(companyRepository, times(1)).save(any(Company.class));
-    verify(cache, times(1)).put(1L, company);
+    verify(cache, times(1)).put(1L, companyDto);
 
-    Optional<Company> cacheCompany = cache.get(company.getId());
+    Optional<CompanyDto> cacheCompany = cache.get(company.getId());
     assertTrue(cacheCompany.isPresent());
-    assertEquals(company, cacheCompany.get());
-    verify(cache, times(1)).clear();
+    assertEquals(companyDto, cacheCompany.get());
+    verify(cache, never()).clear();
   }
 
   @Test
@@ -91,21 +114,22 @@ class CompanyServiceTests {
 
   @Test
   void testCreateManyCompany() {
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(company));
-    when(companyRepository.save(any(Company.class))).thenReturn(company);
+    when(cache.get(1L)).thenReturn(Optional.ofNullable(companyDto));
+    when(companyRepository.saveAll(anyList())).thenReturn(List.of(company, company, company));
 
     List<CompanyDto> companies = List.of(companyDto, companyDto, companyDto);
     Optional<List<CompanyDto>> result = companyService.createManyCompanies(companies);
 
     assertTrue(result.isPresent());
     assertEquals(companies, result.get());
-    verify(companyRepository, times(3)).save(any(Company.class));
-    verify(cache, times(3)).put(1L, company);
+    verify(companyRepository, times(1)).saveAll(anyList());
+    verify(companyRepository, never()).save(any(Company.class));
+    verify(cache, times(3)).put(1L, companyDto);
 
-    Optional<Company> cacheCompany = cache.get(company.getId());
+    Optional<CompanyDto> cacheCompany = cache.get(company.getId());
     assertTrue(cacheCompany.isPresent());
-    assertEquals(company, cacheCompany.get());
-    verify(cache, times(1)).clear();
+    assertEquals(companyDto, cacheCompany.get());
+    verify(cache, never()).clear();
   }
 
   @Test
@@ -115,17 +139,35 @@ class CompanyServiceTests {
     assertThrows(BadRequestException.class, () -> companyService.createManyCompanies(companies));
   }
 
+  @Test
+  void testCreateManyCompanyThrowNullName() {
+    companyDto.setName(null);
+    List<CompanyDto> companies = List.of(companyDto);
+    assertThrows(BadRequestException.class, () -> companyService.createManyCompanies(companies));
+  }
+
   @Test
   void testGetCompanyById() {
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(company));
+    doReturn(Optional.ofNullable(companyDto)).when(cache).get(eq(1L), any());
+    when(companyRepository.findById(1L)).thenReturn(Optional.ofNullable(company));
+
+    Optional<CompanyDto> result = companyService.getById(1L);
+
+    assertTrue(result.isPresent());
+    assertEquals(companyDto, result.get());
+    verify(cache, times(1)).get(eq(1L), any());
+    verify(companyRepository, never()).findById(anyLong());
+  }
+
+  @Test
+  void testGetCompanyByIdLoadsDtoOnMiss() {
     when(companyRepository.findById(1L)).thenReturn(Optional.ofNullable(company));
 
     Optional<CompanyDto> result = companyService.getById(1L);
 
     assertTrue(result.isPresent());
     assertEquals(companyDto, result.get());
-    verify(cache, times(1)).get(1L);
-    verify(cache, times(1)).put(1L, company);
+    verify(companyRepository, times(1)).findById(1L);
   }
 
   @Test
@@ -138,24 +180,25 @@ class CompanyServiceTests {
   void testGetAllCompanies() {
     List<Company> companies = new ArrayList<>();
     companies.add(company);
-    when(companyRepository.findAll()).thenReturn(companies);
+    when(companyRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(100)))
+        .thenReturn(companies);
 
-    Optional<List<CompanyDto>> result = companyService.getAllCompanies();
+    Optional<List<CompanyDto>> result = companyService.getAllCompanies(null, null);
 
     assertTrue(result.isPresent());
     assertEquals(List.of(companyDto), result.get());
-    verify(companyRepository, times(1)).findAll();
+    verify(companyRepository, never()).findAll();
   }
 
   @Test
   void testGetAllCompaniesThrow() {
     when(companyRepository.findById(1L)).thenReturn(Optional.empty());
-    assertThrows(NotFoundException.class, () -> companyService.getAllCompanies());
+    assertThrows(NotFoundException.class, () -> companyService.getAllCompanies(null, null));
   }
 
   @Test
   void testUpdateCompany() {
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(company));
+    doReturn(Optional.ofNullable(companyDto)).when(cache).get(eq(1L), any());
     when(companyRepository.save(any(Company.class))).thenReturn(company);
 
     Optional<CompanyDto> result = companyService.updateCompany(1L, companyDto);
@@ -164,13 +207,13 @@ class CompanyServiceTests {
     assertEquals(companyDto, result.get());
     verify(companyRepository, times(1)).save(any(Company.class));
     verify(cache, times(1)).remove(1L);
-    verify(cache, times(1)).put(1L, company);
+    verify(cache, times(1)).put(1L, companyDto);
   }
 
   @Test
   void testUpdateCompanyThrowName() {
     when(companyRepository.findById(1L)).thenReturn(Optional.empty());
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(company));
+    doReturn(Optional.ofNullable(companyDto)).when(cache).get(eq(1L), any());
 
     Long id = company.getId();
     companyDto.setName("");
@@ -180,7 +223,7 @@ class CompanyServiceTests {
   @Test
   void testUpdateCompanyThrowCompany() {
     when(companyRepository.findById(1L)).thenReturn(Optional.empty());
-    when(cache.get(1L)).thenReturn(Optional.empty());
+    doReturn(Optional.empty()).when(cache).get(eq(1L), any());
 
     Long id = company.getId();
     assertThrows(BadRequestException.class, () -> companyService.updateCompany(id, companyDto));
@@ -189,7 +232,6 @@ class CompanyServiceTests {
   @Test
   void testDeleteCompany() {
     when(companyRepository.findById(1L)).thenReturn(Optional.ofNullable(company));
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(company));
     doNothing().when(companyRepository).deleteById(anyLong());
     doNothing().when(cache).remove(anyLong());
 
@@ -203,31 +245,27 @@ class CompanyServiceTests {
   @Test
   void testDeleteShareThrowCompany() {
     when(companyRepository.findById(anyLong())).thenReturn(Optional.empty());
-    when(cache.get(anyLong())).thenReturn(Optional.empty());
 
     assertThrows(NotFoundException.class, () -> companyService.deleteCompany(1L));
 
     verify(companyRepository, times(1)).findById(1L);
-    verify(cache, times(1)).get(1L);
   }
 
   @Test
   void testGetShares() {
-    when(companyRepository.findById(anyLong())).thenReturn(Optional.ofNullable(company));
-    when(cache.get(anyLong())).thenReturn(Optional.ofNullable(company));
+    when(companyRepository.findWithSharesById(anyLong())).thenReturn(Optional.ofNullable(company));
 
     company.addShare(share);
     Optional<List<ShareDto>> result = companyService.getShares(company.getId());
 
     assertTrue(result.isPresent());
     assertEquals(List.of(modelMapper.map(share, ShareDto.class)), result.get());
-    verify(cache, times(1)).put(1L, company);
+    verify(cache, never()).put(anyLong(), any());
   }
 
   @Test
   void testGetSharesThrowCompany() {
     when(companyRepository.findById(anyLong())).thenReturn(Optional.empty());
-    when(cache.get(anyLong())).thenReturn(Optional.empty());
 
     Long id = company.getId();
     assertThrows(NotFoundException.class, () -> companyService.getShares(id));
@@ -236,9 +274,31 @@ class CompanyServiceTests {
   @Test
   void testGetCompanyThrowShares() {
     when(companyRepository.findById(anyLong())).thenReturn(Optional.ofNullable(company));
-    when(cache.get(anyLong())).thenReturn(Optional.ofNullable(company));
 
     Long id = company.getId();
     assertThrows(NotFoundException.class, () -> companyService.getShares(id));
   }
+
+  @Test
+  void testSearchCompanies() {
+    List<SearchResultDto> results = List.of(new SearchResultDto(1L, "Company Name"));
+    when(symbolIndex.completeCompanies("comp", 10)).thenReturn(Optional.of(results));
+
+    assertEquals(Optional.of(results), companyService.searchCompanies("comp", 10));
+  }
+
+  @Test
+  void testSearchCompaniesBeforeIndexIsLoaded() {
+    when(symbolIndex.completeCompanies("comp", 10)).thenReturn(Optional.empty());
+    when(companyRepository.findByNameStartingWithIgnoreCaseOrderByNameAscIdAsc("comp",
+        Limit.of(10))).thenReturn(List.of(company));
+
+    assertEquals(Optional.of(List.of(new SearchResultDto(1L, "Company Name"))),
+        companyService.searchCompanies("comp", 10));
+  }
+
+  @Test
+  void testSearchCompaniesThrowLimit() {
+    assertThrows(BadRequestException.class, () -> companyService.searchCompanies("comp", 0));
+  }
 }
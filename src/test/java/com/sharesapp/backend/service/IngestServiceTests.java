@@ -0,0 +1,116 @@
+package com.sharesapp.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sharesapp.backend.dto.IngestChunkDto;
+import com.sharesapp.backend.dto.share.CreateShare;
+import com.sharesapp.backend.exceptions.BadRequestException;
+import com.sharesapp.backend.service.impl.IngestServiceImpl;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+class IngestServiceTests {
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+  private final IngestServiceImpl ingestService = new IngestServiceImpl(objectMapper, 2);
+  private final List<List<CreateShare>> chunks = new ArrayList<>();
+
+  @Test
+  void ingestCommitsInChunks() throws IOException {
+    List<IngestChunkDto> results = ingest(records(1, 5), chunk -> chunks.add(List.copyOf(chunk)));
+
+    assertEquals(List.of(2, 2, 1), chunks.stream().map(List::size).toList());
+    assertEquals("SYM5", chunks.get(2).get(0).getSymbol());
+    assertEquals(List.of(new IngestChunkDto(1, 1L, 2, 2, null),
+        new IngestChunkDto(2, 3L, 2, 2, null),
+        new IngestChunkDto(3, 5L, 1, 1, null)), results);
+  }
+
+  @Test
+  void ingestExactMultipleOfChunkSize() throws IOException {
+    List<IngestChunkDto> results = ingest(records(1, 4), chunk -> chunks.add(List.copyOf(chunk)));
+
+    assertEquals(2, chunks.size());
+    assertEquals(2, results.size());
+  }
+
+  @Test
+  void ingestEmptyBody() throws IOException {
+    List<IngestChunkDto> results = ingest("", chunk -> chunks.add(List.copyOf(chunk)));
+
+    assertTrue(chunks.isEmpty());
+    assertTrue(results.isEmpty());
+  }
+
+  @Test
+  void rejectedChunkIsReportedAndIngestContinues() throws IOException {
+    List<IngestChunkDto> results = ingest(records(1, 6), chunk -> {
+      if (chunk.stream().anyMatch(share -> share.getSymbol().equals("SYM3"))) {
+        throw new BadRequestException("Wrong shares or its name");
+      }
+      chunks.add(List.copyOf(chunk));
+    });
+
+    assertEquals(2, chunks.size());
+    assertEquals(List.of(new IngestChunkDto(1, 1L, 2, 2, null),
+        new IngestChunkDto(2, 3L, 2, 0, "Wrong shares or its name"),
+        new IngestChunkDto(3, 5L, 2, 2, null)), results);
+  }
+
+  @Test
+  void failedChunkIsReportedAndIngestContinues() throws IOException {
+    List<IngestChunkDto> results = ingest(records(1, 4), chunk -> {
+      if (chunks.isEmpty()) {
+        chunks.add(List.of());
+        throw new DataIntegrityViolationException("Duplicate key");
+      }
+      chunks.add(List.copyOf(chunk));
+    });
+
+    assertEquals(List.of(new IngestChunkDto(1, 1L, 2, 0, "Failed to create the chunk: Duplicate key"),
+        new IngestChunkDto(2, 3L, 2, 2, null)), results);
+  }
+
+  @Test
+  void malformedRecordStopsIngest() throws IOException {
+    String body = records(1, 2) + "{\"symbol\": \n" + records(4, 4);
+
+    List<IngestChunkDto> results = ingest(body, chunk -> chunks.add(List.copyOf(chunk)));
+
+    assertEquals(1, chunks.size());
+    assertEquals(2, results.size());
+    assertEquals(0, results.get(1).getCreated());
+    assertTrue(results.get(1).getError().startsWith("Malformed record 3"));
+  }
+
+  @Test
+  void wrongChunkSize() {
+    assertThrows(IllegalArgumentException.class, () -> new IngestServiceImpl(objectMapper, 0));
+  }
+
+  private List<IngestChunkDto> ingest(String body, Consumer<List<CreateShare>> createMany)
+      throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ingestService.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out,
+        CreateShare.class, createMany);
+    return objectMapper.readerFor(IngestChunkDto.class)
+        .<IngestChunkDto>readValues(out.toByteArray()).readAll();
+  }
+
+  private static String records(int from, int to) {
+    return IntStream.rangeClosed(from, to)
+        .mapToObj(i -> "{\"symbol\":\"SYM" + i + "\",\"lastSalePrice\":1.0,\"companyId\":1}\n")
+        .collect(Collectors.joining());
+  }
+}
@@ -0,0 +1,200 @@
+package com.sharesapp.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import com.sharesapp.backend.dto.user.HoldingDto;
+import com.sharesapp.backend.dto.user.PortfolioDto;
+import com.sharesapp.backend.event.ChangeType;
+import com.sharesapp.backend.event.CompanyChangedEvent;
+import com.sharesapp.backend.event.HoldingChangedEvent;
+import com.sharesapp.backend.event.PriceChangedEvent;
+import com.sharesapp.backend.event.ShareChangedEvent;
+import com.sharesapp.backend.event.UserChangedEvent;
+import com.sharesapp.backend.exceptions.NotFoundException;
+import com.sharesapp.backend.model.Share;
+import com.sharesapp.backend.model.TradeSide;
+import com.sharesapp.backend.repository.ShareRepository;
+import com.sharesapp.backend.repository.UserRepository;
+import com.sharesapp.backend.service.impl.PortfolioServiceImpl;
+import com.sharesapp.backend.utils.index.HoldingIndex;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Limit;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PortfolioServiceTests {
+  private static final Instant TIME = Instant.parse("2007-12-03T10:15:30.00Z");
+  @Mock
+  private UserRepository userRepository;
+  @Mock
+  private ShareRepository shareRepository;
+  @InjectMocks
+  private PortfolioServiceImpl portfolioService;
+  private HoldingIndex holdingIndex;
+
+  @BeforeEach
+  public void setUp() {
+    when(userRepository.findIdsByIdGreaterThan(0L, Limit.of(1000))).thenReturn(List.of(1L, 2L));
+    when(userRepository.findHoldingsByUserIdIn(List.of(1L, 2L))).thenReturn(List.of(
+        new HoldingDto(1L, 10L, 1L, 100.0f, 90.0f),
+        new HoldingDto(1L, 20L, 1L, 50.0f, 50.0f),
+        new HoldingDto(2L, 10L, 1L, 100.0f, 90.0f)));
+    holdingIndex = new HoldingIndex(userRepository, shareRepository, List.of(portfolioService),
+        Runnable::run);
+    holdingIndex.rebuild();
+  }
+
+  @Test
+  void testRebuildValuesHoldings() {
+    assertEquals(Optional.of(new PortfolioDto(1L, 150.0, 10.0, 2)),
+        portfolioService.getPortfolio(1L));
+    assertEquals(Optional.of(new PortfolioDto(2L, 100.0, 10.0, 1)),
+        portfolioService.getPortfolio(2L));
+  }
+
+  @Test
+  void testPriceChangeAdjustsHolders() {
+    holdingIndex.onPriceChanged(price(10L, 80.0f, 90.0f));
+
+    assertEquals(Optional.of(new PortfolioDto(1L, 130.0, -10.0, 2)),
+        portfolioService.getPortfolio(1L));
+    assertEquals(Optional.of(new PortfolioDto(2L, 80.0, -10.0, 1)),
+        portfolioService.getPortfolio(2L));
+  }
+
+  @Test
+  void testPriceChangeOfUnheldShareIsIgnored() {
+    holdingIndex.onPriceChanged(price(30L, 80.0f, 90.0f));
+
+    assertEquals(Optional.of(new PortfolioDto(1L, 150.0, 10.0, 2)),
+        portfolioService.getPortfolio(1L));
+  }
+
+  @Test
+  void testBuyLoadsSharePrice() {
+    Share share = new Share(30L, 20.0f, 30.0f, 10.0f, 20.0f, 25.0f, TIME, "CCC", new HashSet<>(),
+        null);
+    when(shareRepository.findById(30L)).thenReturn(Optional.of(share));
+
+    holdingIndex.onHoldingChanged(new HoldingChangedEvent(2L, 30L, TradeSide.BUY));
+    holdingIndex.onHoldingChanged(new HoldingChangedEvent(2L, 30L, TradeSide.BUY));
+
+    assertEquals(Optional.of(new PortfolioDto(2L, 125.0, 15.0, 2)),
+        portfolioService.getPortfolio(2L));
+  }
+
+  @Test
+  void testSellRemovesHolding() {
+    when(userRepository.existsById(2L)).thenReturn(true);
+
+    holdingIndex.onHoldingChanged(new HoldingChangedEvent(1L, 20L, TradeSide.SELL));
+    holdingIndex.onHoldingChanged(new HoldingChangedEvent(2L, 10L, TradeSide.SELL));
+
+    assertEquals(Optional.of(new PortfolioDto(1L, 100.0, 10.0, 1)),
+        portfolioService.getPortfolio(1L));
+    assertEquals(Optional.of(new PortfolioDto(2L, 0.0, 0.0, 0)),
+        portfolioService.getPortfolio(2L));
+  }
+
+  @Test
+  void testShareDeleteRemovesHoldings() {
+    holdingIndex.onShareChanged(new ShareChangedEvent(20L, 1L, "BBB", ChangeType.DELETED));
+
+    assertEquals(Optional.of(new PortfolioDto(1L, 100.0, 10.0, 1)),
+        portfolioService.getPortfolio(1L));
+  }
+
+  @Test
+  void testCompanyDeleteRemovesHoldings() {
+    holdingIndex.onCompanyChanged(new CompanyChangedEvent(1L, "Company", List.of(10L),
+        ChangeType.DELETED));
+
+    assertEquals(List.of(new PortfolioDto(1L, 50.0, 0.0, 1)),
+        portfolioService.getTopPortfolios(null).orElseThrow());
+  }
+
+  @Test
+  void testUserDeleteRemovesPortfolio() {
+    holdingIndex.onUserChanged(new UserChangedEvent(1L, ChangeType.DELETED));
+
+    assertEquals(List.of(new PortfolioDto(2L, 100.0, 10.0, 1)),
+        portfolioService.getTopPortfolios(null).orElseThrow());
+  }
+
+  @Test
+  void testTopPortfoliosFollowPrices() {
+    assertEquals(List.of(1L, 2L), topUserIds(null));
+
+    holdingIndex.onPriceChanged(price(20L, 1.0f, 50.0f));
+    holdingIndex.onPriceChanged(price(10L, 120.0f, 90.0f));
+
+    assertEquals(List.of(1L, 2L), topUserIds(null));
+    assertEquals(List.of(1L), topUserIds(1));
+
+    holdingIndex.onHoldingChanged(new HoldingChangedEvent(1L, 10L, TradeSide.SELL));
+
+    assertEquals(List.of(2L, 1L), topUserIds(null));
+  }
+
+  @Test
+  void testPriceChangesDoNotDrift() {
+    for (int i = 0; i < 1000; i++) {
+      holdingIndex.onPriceChanged(price(10L, 100.1f, 90.3f));
+      holdingIndex.onPriceChanged(price(10L, 99.7f, 90.7f));
+    }
+    holdingIndex.onPriceChanged(price(10L, 100.0f, 90.0f));
+
+    assertEquals(Optional.of(new PortfolioDto(1L, 150.0, 10.0, 2)),
+        portfolioService.getPortfolio(1L));
+  }
+
+  @Test
+  void testPortfolioBeforeLoadIsReadFromDatabase() {
+    PortfolioServiceImpl loading = new PortfolioServiceImpl(userRepository);
+    when(userRepository.findHoldingsByUserIdIn(List.of(1L))).thenReturn(List.of(
+        new HoldingDto(1L, 10L, 1L, 100.0f, 90.0f),
+        new HoldingDto(1L, 20L, 1L, 50.0f, 50.0f)));
+
+    assertEquals(Optional.of(new PortfolioDto(1L, 150.0, 10.0, 2)), loading.getPortfolio(1L));
+    assertThrows(NotFoundException.class, () -> loading.getTopPortfolios(null));
+  }
+
+  @Test
+  void testGetPortfolioThrowUser() {
+    when(userRepository.existsById(anyLong())).thenReturn(false);
+
+    assertThrows(NotFoundException.class, () -> portfolioService.getPortfolio(3L));
+  }
+
+  @Test
+  void testGetTopPortfoliosThrowEmpty() {
+    when(userRepository.findHoldingsByUserIdIn(any())).thenReturn(List.of());
+    holdingIndex.rebuild();
+
+    assertThrows(NotFoundException.class, () -> portfolioService.getTopPortfolios(null));
+  }
+
+  private List<Long> topUserIds(Integer limit) {
+    return portfolioService.getTopPortfolios(limit).orElseThrow().stream()
+        .map(PortfolioDto::getUserId).toList();
+  }
+
+  private static PriceChangedEvent price(Long shareId, Float lastSalePrice, Float prevClose) {
+    return new PriceChangedEvent(shareId, 1L, "AAA", lastSalePrice, prevClose, null, null, TIME);
+  }
+}
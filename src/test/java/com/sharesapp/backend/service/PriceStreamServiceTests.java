@@ -0,0 +1,163 @@
+package com.sharesapp.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mockConstruction;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.sharesapp.backend.dto.share.PriceDto;
+import com.sharesapp.backend.event.PriceChangedEvent;
+import com.sharesapp.backend.exceptions.BadRequestException;
+import com.sharesapp.backend.service.impl.PriceStreamServiceImpl;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedConstruction;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+class PriceStreamServiceTests {
+  private static final Instant TIME = Instant.parse("2007-12-03T10:15:30.00Z");
+  private final List<Runnable> tasks = new ArrayList<>();
+  private MockedConstruction<SseEmitter> emitters;
+  private PriceStreamServiceImpl priceStreamService;
+
+  @BeforeEach
+  public void setUp() {
+    emitters = mockConstruction(SseEmitter.class);
+    priceStreamService = new PriceStreamServiceImpl(tasks::add);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    emitters.close();
+  }
+
+  @Test
+  void testSymbolSubscriberReceivesOnlyItsSymbol() throws IOException {
+    SseEmitter emitter = priceStreamService.subscribe(Set.of("AAA"), null);
+
+    priceStreamService.onPriceChanged(price(1L, 1L, "AAA", 1.0f));
+    priceStreamService.onPriceChanged(price(2L, 1L, "BBB", 2.0f));
+    runTasks();
+
+    assertEquals(List.of(new PriceDto(1L, "AAA", 1.0f, 2.0f, 0.5f, TIME)), sent(emitter, 1));
+  }
+
+  @Test
+  void testCompanySubscriberReceivesCompanyShares() throws IOException {
+    SseEmitter emitter = priceStreamService.subscribe(null, Set.of(1L));
+
+    priceStreamService.onPriceChanged(price(1L, 1L, "AAA", 1.0f));
+    priceStreamService.onPriceChanged(price(2L, 1L, "BBB", 2.0f));
+    priceStreamService.onPriceChanged(price(3L, 2L, "CCC", 3.0f));
+    runTasks();
+
+    assertEquals(Set.of("AAA", "BBB"),
+        sent(emitter, 2).stream().map(PriceDto::getSymbol).collect(Collectors.toSet()));
+  }
+
+  @Test
+  void testSlowSubscriberGetsLatestPricePerSymbol() throws IOException {
+    SseEmitter emitter = priceStreamService.subscribe(Set.of("AAA"), Set.of(1L));
+
+    priceStreamService.onPriceChanged(price(1L, 1L, "AAA", 1.0f));
+    priceStreamService.onPriceChanged(price(1L, 1L, "AAA", 2.0f));
+    priceStreamService.onPriceChanged(price(1L, 1L, "AAA", 3.0f));
+
+    assertEquals(1, tasks.size());
+    runTasks();
+    assertEquals(List.of(new PriceDto(1L, "AAA", 3.0f, 2.0f, 0.5f, TIME)), sent(emitter, 1));
+  }
+
+  @Test
+  void testFailedSendUnsubscribes() throws IOException {
+    SseEmitter emitter = priceStreamService.subscribe(Set.of("AAA"), null);
+    doThrow(new IOException("Broken pipe")).when(emitter).send(any(SseEventBuilder.class));
+
+    priceStreamService.onPriceChanged(price(1L, 1L, "AAA", 1.0f));
+    runTasks();
+    priceStreamService.onPriceChanged(price(1L, 1L, "AAA", 2.0f));
+
+    assertEquals(0, priceStreamService.subscriberCount());
+    assertEquals(0, tasks.size());
+  }
+
+  @Test
+  void testTimedOutSendUnsubscribesOnlyThatClient() throws IOException {
+    SseEmitter stalled = priceStreamService.subscribe(Set.of("AAA"), null);
+    SseEmitter other = priceStreamService.subscribe(Set.of("AAA"), null);
+    doThrow(new SocketTimeoutException()).when(stalled).send(any(SseEventBuilder.class));
+
+    priceStreamService.onPriceChanged(price(1L, 1L, "AAA", 1.0f));
+    runTasks();
+    priceStreamService.onPriceChanged(price(1L, 1L, "AAA", 2.0f));
+    runTasks();
+
+    assertEquals(1, priceStreamService.subscriberCount());
+    assertEquals(2, sent(other, 2).size());
+  }
+
+  @Test
+  void testCompletionUnsubscribes() throws IOException {
+    SseEmitter emitter = priceStreamService.subscribe(Set.of("AAA"), null);
+    ArgumentCaptor<Runnable> onCompletion = ArgumentCaptor.forClass(Runnable.class);
+    verify(emitter).onCompletion(onCompletion.capture());
+
+    onCompletion.getValue().run();
+    priceStreamService.onPriceChanged(price(1L, 1L, "AAA", 1.0f));
+    runTasks();
+
+    assertEquals(0, priceStreamService.subscriberCount());
+    verify(emitter, never()).send(any(SseEventBuilder.class));
+  }
+
+  @Test
+  void testSubscribeThrowWithoutTopics() {
+    assertThrows(BadRequestException.class, () -> priceStreamService.subscribe(null, Set.of()));
+  }
+
+  @Test
+  void testSubscribeThrowTooManyTopics() {
+    Set<Long> companyIds = LongStream.rangeClosed(1, 1001).boxed().collect(Collectors.toSet());
+
+    assertThrows(BadRequestException.class,
+        () -> priceStreamService.subscribe(null, companyIds));
+  }
+
+  private void runTasks() {
+    while (!tasks.isEmpty()) {
+      tasks.remove(0).run();
+    }
+  }
+
+  private static List<PriceDto> sent(SseEmitter emitter, int count) throws IOException {
+    ArgumentCaptor<SseEventBuilder> events = ArgumentCaptor.forClass(SseEventBuilder.class);
+    verify(emitter, times(count)).send(events.capture());
+    return events.getAllValues().stream()
+        .flatMap(event -> event.build().stream())
+        .map(data -> data.getData())
+        .filter(PriceDto.class::isInstance)
+        .map(PriceDto.class::cast)
+        .toList();
+  }
+
+  private static PriceChangedEvent price(Long shareId, Long companyId, String symbol,
+                                         Float lastSalePrice) {
+    return new PriceChangedEvent(shareId, companyId, symbol, lastSalePrice, 1.0f, 2.0f, 0.5f,
+        TIME);
+  }
+}
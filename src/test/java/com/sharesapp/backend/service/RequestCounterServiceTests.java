@@ -0,0 +1,39 @@
+package com.sharesapp.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.sharesapp.backend.dto.RouteMetricsDto;
+import com.sharesapp.backend.service.impl.RequestCounterServiceImpl;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class RequestCounterServiceTests {
+  private final RequestCounterServiceImpl requestCounterService = new RequestCounterServiceImpl();
+
+  @Test
+  void testRecordPerRouteAndStatus() {
+    requestCounterService.record("GET /api/user/{id}", 200, 1_000_000);
+    requestCounterService.record("GET /api/user/{id}", 200, 3_000_000);
+    requestCounterService.record("GET /api/user/{id}", 404, 2_000_000);
+    requestCounterService.record("DELETE /api/user/{id}", 200, 5_000);
+
+    List<RouteMetricsDto> metrics = requestCounterService.getRouteMetrics();
+
+    assertEquals(4L, requestCounterService.getCount());
+    assertEquals(List.of("DELETE /api/user/{id}", "GET /api/user/{id}"),
+        metrics.stream().map(RouteMetricsDto::getRoute).toList());
+    RouteMetricsDto user = metrics.get(1);
+    assertEquals(3L, user.getCount());
+    assertEquals(Map.of(200, 2L, 404, 1L), user.getStatuses());
+    assertEquals(2000.0, user.getMeanMicros());
+    assertEquals(3000L, user.getMaxMicros());
+    assertEquals(5L, metrics.get(0).getP50Micros());
+  }
+
+  @Test
+  void testEmptyMetrics() {
+    assertEquals(0L, requestCounterService.getCount());
+    assertEquals(List.of(), requestCounterService.getRouteMetrics());
+  }
+}
@@ -5,28 +5,41 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.sharesapp.backend.dto.CompanyDto;
+import com.sharesapp.backend.dto.SearchResultDto;
 import com.sharesapp.backend.dto.share.CreateShare;
 import com.sharesapp.backend.dto.share.ShareDto;
+import com.sharesapp.backend.event.ChangeType;
+import com.sharesapp.backend.event.PriceChangedEvent;
+import com.sharesapp.backend.event.ShareChangedEvent;
 import com.sharesapp.backend.exceptions.BadRequestException;
 import com.sharesapp.backend.exceptions.NotFoundException;
+import com.sharesapp.backend.mapper.CompanyMapper;
+import com.sharesapp.backend.mapper.ShareMapper;
 import com.sharesapp.backend.model.Company;
 import com.sharesapp.backend.model.Share;
 import com.sharesapp.backend.repository.CompanyRepository;
 import com.sharesapp.backend.repository.ShareRepository;
 import com.sharesapp.backend.service.impl.ShareServiceImpl;
 import com.sharesapp.backend.utils.cache.GenericCache;
+import com.sharesapp.backend.utils.index.SymbolIndex;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -38,37 +51,52 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
 class ShareServiceTests {
   private Company company;
   private Share share;
+  private ShareDto shareDto;
   private CreateShare createShare = new CreateShare();
   @Mock
   private ShareRepository shareRepository;
   @Mock
   private CompanyRepository companyRepository;
   @Mock
-  private GenericCache<Long, Share> cache;
+  private GenericCache<Long, ShareDto> cache;
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+  @Mock
+  private SymbolIndex symbolIndex;
   @InjectMocks
   private ShareServiceImpl shareService;
   @Spy
-  private ModelMapper modelMapper = new ModelMapper();
+  private ShareMapper shareMapper = new ShareMapper(new CompanyMapper());
+  @Spy
+  private CompanyMapper companyMapper = new CompanyMapper();
+  private final ModelMapper modelMapper = new ModelMapper();
 
   @BeforeEach
   public void setUp() {
     modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
     share = new Share(1L, 1.0f, 1.0f, 1.0f, 1.0f, 1.0f,
         Instant.parse("2007-12-03T10:15:30.00Z"), "Symbol", new HashSet<>(), null);
+    shareDto = modelMapper.map(share, ShareDto.class);
     company = new Company(1L, "Company Name", 1D, "Adress", "Website", new HashSet<>());
     createShare = modelMapper.map(share, CreateShare.class);
     createShare.setCompanyId(1L);
+    doAnswer(invocation -> {
+      Function<Long, Optional<ShareDto>> loader = invocation.getArgument(1);
+      return loader.apply(invocation.getArgument(0));
+    }).when(cache).get(anyLong(), any());
   }
 
   @Test
   void testCreateShare() {
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(share));
+    when(cache.get(1L)).thenReturn(Optional.ofNullable(shareDto));
     when(shareRepository.saveAndFlush(any(Share.class))).thenReturn(share);
     when(companyRepository.saveAndFlush(any(Company.class))).thenReturn(company);
     when(companyRepository.findById(1L)).thenReturn(Optional.ofNullable(company));
@@ -79,12 +107,14 @@ class ShareServiceTests {
     assertEquals(modelMapper.map(share, ShareDto.class), result.get());
     verify(shareRepository, times(1)).saveAndFlush(any(Share.class));
     verify(companyRepository, times(1)).saveAndFlush(any(Company.class));
-    verify(cache, times(1)).put(1L, share);
+    verify(cache, times(1)).put(1L, shareDto);
 
-    Optional<Share> cacheShare = cache.get(share.getId());
+    Optional<ShareDto> cacheShare = cache.get(share.getId());
     assertTrue(cacheShare.isPresent());
-    assertEquals(share, cacheShare.get());
-    verify(cache, times(1)).clear();
+    assertEquals(shareDto, cacheShare.get());
+    verify(cache, never()).clear();
+    verify(eventPublisher, times(1))
+        .publishEvent(new ShareChangedEvent(1L, 1L, share.getSymbol(), ChangeType.CREATED));
   }
 
   @Test
@@ -120,10 +150,9 @@ class ShareServiceTests {
     List<Share> shares = new ArrayList<>();
     shares.add(share);
     company.addShare(share);
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(share));
+    when(cache.get(1L)).thenReturn(Optional.ofNullable(shareDto));
     when(shareRepository.saveAll(anyList())).thenReturn(shares);
-    when(companyRepository.save(any(Company.class))).thenReturn(company);
-    when(companyRepository.findById(1L)).thenReturn(Optional.ofNullable(company));
+    when(companyRepository.findAllById(Set.of(1L))).thenReturn(List.of(company));
 
     List<CreateShare> createShares =
         shares.stream().map(s -> modelMapper.map(s, CreateShare.class)).toList();
@@ -134,12 +163,14 @@ class ShareServiceTests {
     assertEquals(shares.stream().map(u -> modelMapper.map(u, ShareDto.class)).toList(),
         result.get());
     verify(shareRepository, times(1)).saveAll(anyList());
-    verify(companyRepository, times(1)).save(any(Company.class));
+    verify(companyRepository, times(1)).findAllById(Set.of(1L));
+    verify(companyRepository, never()).findById(anyLong());
+    verify(companyRepository, never()).save(any(Company.class));
 
-    Optional<Share> cacheShare = cache.get(share.getId());
+    Optional<ShareDto> cacheShare = cache.get(share.getId());
     assertTrue(cacheShare.isPresent());
-    assertEquals(share, cacheShare.get());
-    verify(cache, times(1)).clear();
+    assertEquals(shareDto, cacheShare.get());
+    verify(cache, never()).clear();
   }
 
   @Test
@@ -163,24 +194,42 @@ class ShareServiceTests {
     assertThrows(BadRequestException.class, () -> shareService.createManyShares(shares));
   }
 
+  @Test
+  void testCreateManyShareThrowNullSymbol() {
+    createShare.setSymbol(null);
+    List<CreateShare> shares = List.of(createShare);
+    assertThrows(BadRequestException.class, () -> shareService.createManyShares(shares));
+  }
+
   @Test
   void testCreateManyShareThrowCompany() {
-    when(companyRepository.findById(anyLong())).thenReturn(Optional.empty());
+    when(companyRepository.findAllById(any())).thenReturn(List.of());
     List<CreateShare> shares = List.of(createShare, createShare, createShare);
     assertThrows(NotFoundException.class, () -> shareService.createManyShares(shares));
   }
 
   @Test
   void testGetShareById() {
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(share));
+    doReturn(Optional.ofNullable(shareDto)).when(cache).get(eq(1L), any());
     when(shareRepository.findById(1L)).thenReturn(Optional.ofNullable(share));
 
     Optional<ShareDto> result = shareService.getById(1L);
 
     assertTrue(result.isPresent());
-    assertEquals(modelMapper.map(share, ShareDto.class), result.get());
-    verify(cache, times(1)).get(1L);
-    verify(cache, times(1)).put(1L, share);
+    assertEquals(shareDto, result.get());
+    verify(cache, times(1)).get(eq(1L), any());
+    verify(shareRepository, never()).findById(anyLong());
+  }
+
+  @Test
+  void testGetShareByIdLoadsDtoOnMiss() {
+    when(shareRepository.findById(1L)).thenReturn(Optional.ofNullable(share));
+
+    Optional<ShareDto> result = shareService.getById(1L);
+
+    assertTrue(result.isPresent());
+    assertEquals(shareDto, result.get());
+    verify(shareRepository, times(1)).findById(1L);
   }
 
   @Test
@@ -193,25 +242,24 @@ class ShareServiceTests {
   void testGetAllShares() {
     List<Share> shares = new ArrayList<>();
     shares.add(share);
-    when(shareRepository.findAll()).thenReturn(shares);
+    when(shareRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(100))).thenReturn(shares);
 
-    Optional<List<ShareDto>> result = shareService.getAllShares();
+    Optional<List<ShareDto>> result = shareService.getAllShares(null, null);
 
     assertTrue(result.isPresent());
     assertEquals(List.of(modelMapper.map(share, ShareDto.class)), result.get());
-    verify(shareRepository, times(1)).findAll();
+    verify(shareRepository, never()).findAll();
   }
 
   @Test
   void testGetAllSharesThrow() {
     when(shareRepository.findById(1L)).thenReturn(Optional.empty());
-    assertThrows(NotFoundException.class, () -> shareService.getAllShares());
+    assertThrows(NotFoundException.class, () -> shareService.getAllShares(null, null));
   }
 
   @Test
   void testUpdateShare() {
     when(shareRepository.save(any(Share.class))).thenReturn(share);
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(share));
     when(shareRepository.findById(1L)).thenReturn(Optional.ofNullable(share));
     when(companyRepository.save(any(Company.class))).thenReturn(company);
     when(companyRepository.findById(1L)).thenReturn(Optional.ofNullable(company));
@@ -225,14 +273,16 @@ class ShareServiceTests {
     verify(shareRepository, times(1)).save(any(Share.class));
     verify(companyRepository, times(1)).save(any(Company.class));
     verify(cache, times(1)).remove(1L);
-    verify(cache, times(1)).put(1L, share);
+    verify(cache, times(1)).put(1L, shareDto);
+    verify(eventPublisher, times(1)).publishEvent(new PriceChangedEvent(1L, 1L,
+        shareDto.getSymbol(), shareDto.getLastSalePrice(), shareDto.getPrevClosePrice(),
+        shareDto.getHighPrice(), shareDto.getLowPrice(), shareDto.getLastTimeUpdated()));
   }
 
   @Test
   void testUpdateShareThrowLastSalePrice() {
     when(shareRepository.save(any(Share.class))).thenThrow(new BadRequestException("Error"));
     when(shareRepository.findById(1L)).thenReturn(Optional.ofNullable(share));
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(share));
 
     Long id = share.getId();
     share.setLastSalePrice(null);
@@ -244,7 +294,6 @@ class ShareServiceTests {
   void testUpdateShareThrowSymbol() {
     when(shareRepository.save(any(Share.class))).thenThrow(new BadRequestException("Error"));
     when(shareRepository.findById(1L)).thenReturn(Optional.ofNullable(share));
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(share));
 
     Long id = share.getId();
     share.setSymbol("");
@@ -256,7 +305,6 @@ class ShareServiceTests {
   void testUpdateShareThrowNull() {
     when(shareRepository.save(any(Share.class))).thenThrow(new BadRequestException("Error"));
     when(shareRepository.findById(1L)).thenReturn(Optional.empty());
-    when(cache.get(1L)).thenReturn(Optional.empty());
 
     Long id = share.getId();
     ShareDto shareDto = modelMapper.map(share, ShareDto.class);
@@ -266,7 +314,6 @@ class ShareServiceTests {
   @Test
   void testUpdateShareThrowCompany() {
     when(shareRepository.findById(1L)).thenReturn(Optional.ofNullable(share));
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(share));
     when(companyRepository.findById(anyLong())).thenReturn(Optional.empty());
 
     share.setCompany(company);
@@ -278,7 +325,6 @@ class ShareServiceTests {
 
   @Test
   void testDeleteShare() {
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(share));
     when(shareRepository.findById(1L)).thenReturn(Optional.ofNullable(share));
     when(shareRepository.save(any(Share.class))).thenReturn(share);
     when(companyRepository.save(any(Company.class))).thenReturn(company);
@@ -299,12 +345,10 @@ class ShareServiceTests {
   @Test
   void testDeleteShareThrowShare() {
     when(shareRepository.findById(anyLong())).thenReturn(Optional.empty());
-    when(cache.get(anyLong())).thenReturn(Optional.empty());
 
     assertThrows(NotFoundException.class, () -> shareService.deleteShare(1L));
 
     verify(shareRepository, times(1)).findById(1L);
-    verify(cache, times(1)).get(1L);
   }
 
   @Test
@@ -315,44 +359,86 @@ class ShareServiceTests {
 
   @Test
   void testDeleteShareThrowCache() {
-    when(cache.get(1L)).thenReturn(Optional.empty());
+    doReturn(Optional.empty()).when(cache).get(eq(1L), any());
     assertThrows(NotFoundException.class, () -> shareService.getById(1L));
   }
 
   @Test
   void testDeleteShareThrowCompany() {
     when(shareRepository.findById(anyLong())).thenReturn(Optional.ofNullable(share));
-    when(cache.get(anyLong())).thenReturn(Optional.ofNullable(share));
-    when(shareRepository.findById(anyLong())).thenReturn(Optional.ofNullable(share));
 
     share.setCompany(company);
     assertThrows(NotFoundException.class, () -> shareService.deleteShare(1L));
 
-    verify(cache, times(1)).get(1L);
+    verify(shareRepository, times(1)).findById(1L);
   }
 
   @Test
   void testGetCompany() {
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(share));
-    when(shareRepository.findById(1L)).thenReturn(Optional.ofNullable(share));
+    when(shareRepository.findWithCompanyById(1L)).thenReturn(Optional.ofNullable(share));
 
     share.setCompany(company);
     Optional<CompanyDto> result = shareService.getCompany(share.getId());
 
     assertTrue(result.isPresent());
     assertEquals(modelMapper.map(company, CompanyDto.class), result.get());
-    verify(cache, times(1)).put(1L, share);
   }
 
   @Test
   void testGetCompanyThrowShare() {
-    when(shareRepository.findById(anyLong())).thenReturn(Optional.empty());
-    when(cache.get(anyLong())).thenReturn(Optional.empty());
+    when(shareRepository.findWithCompanyById(anyLong())).thenReturn(Optional.empty());
 
     Long id = share.getId();
     assertThrows(NotFoundException.class, () -> shareService.getCompany(id));
 
-    verify(shareRepository, times(1)).findById(1L);
-    verify(cache, times(1)).get(1L);
+    verify(shareRepository, times(1)).findWithCompanyById(1L);
+  }
+
+  @Test
+  void testGetBySymbol() {
+    when(symbolIndex.findShares("symbol")).thenReturn(Optional.of(List.of(1L)));
+    when(shareRepository.findById(1L)).thenReturn(Optional.of(share));
+
+    Optional<ShareDto> result = shareService.getBySymbol("symbol");
+
+    assertEquals(Optional.of(shareDto), result);
+    verify(shareRepository, never()).findBySymbolIgnoreCaseOrderByIdAsc(any(), any());
+  }
+
+  @Test
+  void testGetBySymbolBeforeIndexIsLoaded() {
+    when(symbolIndex.findShares("Symbol")).thenReturn(Optional.empty());
+    when(shareRepository.findBySymbolIgnoreCaseOrderByIdAsc("Symbol", Limit.of(1)))
+        .thenReturn(List.of(share));
+    when(shareRepository.findById(1L)).thenReturn(Optional.of(share));
+
+    assertEquals(Optional.of(shareDto), shareService.getBySymbol("Symbol"));
+  }
+
+  @Test
+  void testGetBySymbolThrowShare() {
+    when(symbolIndex.findShares("none")).thenReturn(Optional.of(List.of()));
+
+    assertThrows(NotFoundException.class, () -> shareService.getBySymbol("none"));
+  }
+
+  @Test
+  void testSearchShares() {
+    List<SearchResultDto> results = List.of(new SearchResultDto(1L, "Symbol"));
+    when(symbolIndex.completeShares("sym", 10)).thenReturn(Optional.of(results));
+
+    assertEquals(Optional.of(results), shareService.searchShares(" sym ", 10));
+    verify(shareRepository, never())
+        .findBySymbolStartingWithIgnoreCaseOrderBySymbolAscIdAsc(any(), any());
+  }
+
+  @Test
+  void testSearchSharesBeforeIndexIsLoaded() {
+    when(symbolIndex.completeShares("sym", 100)).thenReturn(Optional.empty());
+    when(shareRepository.findBySymbolStartingWithIgnoreCaseOrderBySymbolAscIdAsc("sym",
+        Limit.of(100))).thenReturn(List.of(share));
+
+    assertEquals(Optional.of(List.of(new SearchResultDto(1L, "Symbol"))),
+        shareService.searchShares("sym", null));
   }
 }
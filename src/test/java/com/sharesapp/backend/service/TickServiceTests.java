@@ -0,0 +1,146 @@
+package com.sharesapp.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sharesapp.backend.dto.share.TickDto;
+import com.sharesapp.backend.event.PriceChangedEvent;
+import com.sharesapp.backend.exceptions.BadRequestException;
+import com.sharesapp.backend.model.Company;
+import com.sharesapp.backend.model.Share;
+import com.sharesapp.backend.repository.ShareRepository;
+import com.sharesapp.backend.service.impl.TickServiceImpl;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TickServiceTests {
+  private static final Instant TIME = Instant.parse("2007-12-03T10:15:30.00Z");
+  @Mock
+  private ShareRepository shareRepository;
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+  @InjectMocks
+  private TickServiceImpl tickService;
+
+  @Test
+  void testFlushCoalescesTicksPerSymbol() {
+    tickService.submitTicks(List.of(new TickDto("AAA", 1.0f, 2.0f, 0.5f, TIME),
+        new TickDto("BBB", 5.0f, null, null, TIME),
+        new TickDto("AAA", 3.0f, 3.0f, 0.5f, TIME.plusSeconds(1))));
+    tickService.submitTicks(List.of(new TickDto("AAA", 2.0f, 2.0f, 0.5f, TIME.plusMillis(500))));
+
+    tickService.flush();
+
+    List<TickDto> ticks = capturePrices();
+    assertEquals(2, ticks.size());
+    TickDto aaa = ticks.stream().filter(t -> t.getSymbol().equals("AAA")).findFirst().orElseThrow();
+    assertEquals(3.0f, aaa.getLastSalePrice());
+    assertEquals(TIME.plusSeconds(1), aaa.getTimestamp());
+  }
+
+  @Test
+  void testFailedFlushRequeuesTicks() {
+    tickService.submitTicks(List.of(new TickDto("AAA", 3.0f, null, null, TIME)));
+    doThrow(new QueryTimeoutException("Timeout")).doNothing().when(shareRepository)
+        .updatePrices(anyCollection());
+
+    assertThrows(QueryTimeoutException.class, () -> tickService.flush());
+    tickService.submitTicks(List.of(new TickDto("BBB", 1.0f, null, null, TIME)));
+    tickService.flush();
+
+    List<TickDto> ticks = capturePrices(2).get(1);
+    assertEquals(List.of("AAA", "BBB"), ticks.stream().map(TickDto::getSymbol).sorted().toList());
+  }
+
+  @Test
+  void testFlushPublishesPriceChanges() {
+    Share share = new Share(1L, 1.0f, 3.0f, 0.5f, 1.0f, 3.0f, TIME, "AAA", new HashSet<>(),
+        new Company(2L, "Company", 1D, "Adress", "Website", new HashSet<>()));
+    when(shareRepository.findBySymbolIn(List.of("AAA"))).thenReturn(List.of(share));
+    tickService.submitTicks(List.of(new TickDto("AAA", 3.0f, 3.0f, 0.5f, TIME)));
+
+    tickService.flush();
+
+    verify(eventPublisher, times(1))
+        .publishEvent(new PriceChangedEvent(1L, 2L, "AAA", 3.0f, 1.0f, 3.0f, 0.5f, TIME));
+  }
+
+  @Test
+  void testFlushDrainsPendingTicks() {
+    tickService.submitTicks(List.of(new TickDto("AAA", 3.0f, null, null, null)));
+
+    tickService.flush();
+    tickService.flush();
+
+    verify(shareRepository, times(1)).updatePrices(anyCollection());
+  }
+
+  @Test
+  void testFlushWithoutTicks() {
+    tickService.flush();
+
+    verify(shareRepository, never()).updatePrices(anyCollection());
+  }
+
+  @Test
+  void testFlushRefreshesCacheInChunks() {
+    tickService.submitTicks(IntStream.range(0, 2500)
+        .mapToObj(i -> new TickDto("SYM" + i, 1.0f, null, null, TIME)).toList());
+
+    tickService.flush();
+
+    verify(shareRepository, times(3)).findBySymbolIn(anyCollection());
+  }
+
+  @Test
+  void testSubmitTicksSetsMissingTimestamp() {
+    tickService.submitTicks(List.of(new TickDto("AAA", 3.0f, null, null, null)));
+
+    tickService.flush();
+
+    assertEquals(1, capturePrices().stream().filter(t -> t.getTimestamp() != null).count());
+  }
+
+  @Test
+  void testSubmitTicksThrow() {
+    List<TickDto> noSymbol = List.of(new TickDto("", 1.0f, null, null, TIME));
+    List<TickDto> noPrice = List.of(new TickDto("AAA", null, null, null, TIME));
+
+    assertThrows(BadRequestException.class, () -> tickService.submitTicks(noSymbol));
+    assertThrows(BadRequestException.class, () -> tickService.submitTicks(noPrice));
+  }
+
+  private List<TickDto> capturePrices() {
+    return capturePrices(1).get(0);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<List<TickDto>> capturePrices(int flushes) {
+    ArgumentCaptor<Collection<TickDto>> captor = ArgumentCaptor.forClass(Collection.class);
+    verify(shareRepository, times(flushes)).updatePrices(captor.capture());
+    return captor.getAllValues().stream().map(ticks -> (List<TickDto>) new ArrayList<>(ticks))
+        .toList();
+  }
+}
@@ -0,0 +1,53 @@
+package com.sharesapp.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.sharesapp.backend.dto.CompanyDto;
+import com.sharesapp.backend.dto.share.CreateShare;
+import com.sharesapp.backend.dto.share.TickDto;
+import com.sharesapp.backend.service.impl.CompanyServiceImpl;
+import com.sharesapp.backend.service.impl.ShareServiceImpl;
+import com.sharesapp.backend.service.impl.TickServiceImpl;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "spring.datasource.url=jdbc:h2:mem:ticks;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.docker.compose.enabled=false",
+    "ticks.flush-interval-millis=3600000",
+    "history.dir=target/test-data/history",
+    "trades.journal-dir=target/test-data/trades"})
+class TickServiceWiringTests {
+  @Autowired
+  private CompanyServiceImpl companyService;
+  @Autowired
+  private ShareServiceImpl shareService;
+  @Autowired
+  private TickServiceImpl tickService;
+
+  @Test
+  void testFlushedTickIsReadThroughShareCache() {
+    Long companyId = companyService.createCompany(
+        new CompanyDto(null, "Company", 1D, "Adress", "Website")).orElseThrow().getId();
+    CreateShare createShare = new CreateShare();
+    createShare.setSymbol("TICK");
+    createShare.setLastSalePrice(1.0f);
+    createShare.setLastTimeUpdated(Instant.now());
+    createShare.setCompanyId(companyId);
+    Long shareId = shareService.createShare(createShare).orElseThrow().getId();
+    assertEquals(1.0f, shareService.getById(shareId).orElseThrow().getLastSalePrice());
+
+    tickService.submitTicks(List.of(new TickDto("TICK", 2.0f, null, null, Instant.now())));
+    tickService.flush();
+
+    assertEquals(2.0f, shareService.getById(shareId).orElseThrow().getLastSalePrice());
+  }
+}
@@ -0,0 +1,164 @@
+package com.sharesapp.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sharesapp.backend.dto.user.TradeDto;
+import com.sharesapp.backend.event.HoldingChangedEvent;
+import com.sharesapp.backend.model.TradeSide;
+import com.sharesapp.backend.repository.UserRepository;
+import com.sharesapp.backend.service.impl.TradeWriteBehindServiceImpl;
+import com.sharesapp.backend.utils.journal.TradeJournal;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class TradeWriteBehindServiceTests {
+  @TempDir
+  private Path directory;
+  private final UserRepository userRepository = mock(UserRepository.class);
+  private final PlatformTransactionManager transactionManager =
+      mock(PlatformTransactionManager.class);
+  private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+  private TradeJournal journal;
+  private TradeWriteBehindServiceImpl service;
+
+  @BeforeEach
+  public void setUp() {
+    journal = new TradeJournal(directory);
+    service = new TradeWriteBehindServiceImpl(userRepository, journal, transactionManager,
+        eventPublisher, true);
+  }
+
+  @Test
+  void flushCoalescesTradesAndDeletesSegments() throws IOException {
+    service.submit(new TradeDto(1L, 1L, TradeSide.BUY));
+    service.submit(new TradeDto(1L, 1L, TradeSide.SELL));
+    service.submit(new TradeDto(1L, 2L, TradeSide.BUY));
+    service.submit(new TradeDto(2L, 1L, TradeSide.BUY));
+
+    service.flush();
+
+    assertEquals(Set.of(new TradeDto(1L, 1L, TradeSide.SELL), new TradeDto(1L, 2L, TradeSide.BUY),
+        new TradeDto(2L, 1L, TradeSide.BUY)), applied());
+    assertEquals(List.of(), journal.segments());
+  }
+
+  @Test
+  void flushPublishesOnlyChangedHoldings() {
+    when(userRepository.applyTrades(anyCollection())).thenReturn(List.of(true, false));
+    service.submit(new TradeDto(1L, 1L, TradeSide.BUY));
+    service.submit(new TradeDto(1L, 2L, TradeSide.SELL));
+
+    service.flush(1L);
+
+    ArgumentCaptor<Collection<TradeDto>> trades = tradesCaptor();
+    verify(userRepository).applyTrades(trades.capture());
+    TradeDto changed = List.copyOf(trades.getValue()).get(0);
+    verify(eventPublisher).publishEvent(
+        new HoldingChangedEvent(changed.getUserId(), changed.getShareId(), changed.getSide()));
+    verify(eventPublisher, times(1)).publishEvent(any(HoldingChangedEvent.class));
+  }
+
+  @Test
+  void disabledServiceDoesNotFlushOnSchedule() throws IOException {
+    service = new TradeWriteBehindServiceImpl(userRepository, journal, transactionManager,
+        eventPublisher, false);
+
+    service.flush();
+
+    verify(userRepository, never()).applyTrades(anyCollection());
+    assertEquals(List.of(), journal.segments());
+  }
+
+  @Test
+  void flushUserAppliesOnlyThatUser() {
+    service.submit(new TradeDto(1L, 1L, TradeSide.BUY));
+    service.submit(new TradeDto(2L, 1L, TradeSide.BUY));
+
+    service.flush(1L);
+
+    assertEquals(Set.of(new TradeDto(1L, 1L, TradeSide.BUY)), applied());
+  }
+
+  @Test
+  void flushUsersAppliesThoseUsersInOneBatch() {
+    service.submit(new TradeDto(1L, 1L, TradeSide.BUY));
+    service.submit(new TradeDto(2L, 1L, TradeSide.BUY));
+    service.submit(new TradeDto(3L, 1L, TradeSide.BUY));
+
+    service.flush(List.of(1L, 2L, 4L));
+
+    assertEquals(Set.of(new TradeDto(1L, 1L, TradeSide.BUY), new TradeDto(2L, 1L, TradeSide.BUY)),
+        applied());
+  }
+
+  @Test
+  void failedFlushKeepsTradesAndSegments() throws IOException {
+    service.submit(new TradeDto(1L, 1L, TradeSide.BUY));
+    doThrow(new QueryTimeoutException("Timeout")).doReturn(List.of()).when(userRepository)
+        .applyTrades(anyCollection());
+
+    assertThrows(QueryTimeoutException.class, () -> service.flush());
+    assertEquals(1, journal.segments().size());
+
+    service.submit(new TradeDto(1L, 1L, TradeSide.SELL));
+    service.flush(1L);
+
+    ArgumentCaptor<Collection<TradeDto>> trades = tradesCaptor();
+    verify(userRepository, times(2)).applyTrades(trades.capture());
+    assertEquals(List.of(new TradeDto(1L, 1L, TradeSide.SELL)),
+        List.copyOf(trades.getValue()));
+  }
+
+  @Test
+  void replayAppliesLastTradeOfEachUserAndShare() throws IOException {
+    journal.append(new TradeDto(1L, 1L, TradeSide.BUY));
+    journal.append(new TradeDto(1L, 2L, TradeSide.BUY));
+    journal.rotate();
+    journal.append(new TradeDto(1L, 1L, TradeSide.SELL));
+    journal.close();
+
+    service.replay();
+
+    assertEquals(Set.of(new TradeDto(1L, 2L, TradeSide.BUY), new TradeDto(1L, 1L, TradeSide.SELL)),
+        applied());
+    assertEquals(List.of(), journal.segments());
+  }
+
+  @Test
+  void replaySkipsEmptyJournal() throws IOException {
+    service.replay();
+
+    verify(userRepository, never()).applyTrades(anyCollection());
+  }
+
+  private Set<TradeDto> applied() {
+    ArgumentCaptor<Collection<TradeDto>> trades = tradesCaptor();
+    verify(userRepository).applyTrades(trades.capture());
+    return trades.getAllValues().stream().flatMap(Collection::stream).collect(Collectors.toSet());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ArgumentCaptor<Collection<TradeDto>> tradesCaptor() {
+    return ArgumentCaptor.forClass(Collection.class);
+  }
+}
@@ -4,33 +4,52 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sharesapp.backend.dto.share.ShareDto;
 import com.sharesapp.backend.dto.user.CreateUser;
+import com.sharesapp.backend.dto.user.TradeDto;
+import com.sharesapp.backend.dto.user.TradeResultDto;
 import com.sharesapp.backend.dto.user.UserDto;
 import com.sharesapp.backend.dto.user.UserShareDto;
+import com.sharesapp.backend.event.HoldingChangedEvent;
 import com.sharesapp.backend.exceptions.BadRequestException;
 import com.sharesapp.backend.exceptions.NotFoundException;
+import com.sharesapp.backend.mapper.CompanyMapper;
+import com.sharesapp.backend.mapper.ShareMapper;
+import com.sharesapp.backend.mapper.UserMapper;
 import com.sharesapp.backend.model.Company;
 import com.sharesapp.backend.model.Share;
+import com.sharesapp.backend.model.TradeSide;
 import com.sharesapp.backend.model.User;
 import com.sharesapp.backend.repository.CompanyRepository;
 import com.sharesapp.backend.repository.ShareRepository;
 import com.sharesapp.backend.repository.UserRepository;
 import com.sharesapp.backend.service.impl.UserServiceImpl;
 import com.sharesapp.backend.utils.cache.GenericCache;
+import com.sharesapp.backend.utils.index.HolderPriceIndex;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -43,12 +62,16 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
 class UserServiceTests {
 
   private User user;
+  private UserDto userDto;
   private Share share;
   private CreateUser createUser = new CreateUser();
   @Mock
@@ -58,11 +81,24 @@ class UserServiceTests {
   @Mock
   private CompanyRepository companyRepository;
   @Mock
-  private GenericCache<Long, User> cache;
+  private GenericCache<Long, UserDto> cache;
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+  @Spy
+  private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+  @Mock
+  private HolderPriceIndex holderPriceIndex;
+  @Mock
+  private TradeWriteBehindService tradeWriteBehindService;
+  @Mock
+  private PlatformTransactionManager transactionManager;
   @InjectMocks
   private UserServiceImpl userService;
   @Spy
-  private ModelMapper modelMapper = new ModelMapper();
+  private UserMapper userMapper = new UserMapper(new ShareMapper(new CompanyMapper()));
+  @Spy
+  private ShareMapper shareMapper = new ShareMapper(new CompanyMapper());
+  private final ModelMapper modelMapper = new ModelMapper();
 
   @BeforeEach
   public void setUp() {
@@ -71,12 +107,17 @@ class UserServiceTests {
         "Symbol", new HashSet<>(), null);
     user = new User(1L, "First Name", "Last Name", "Email", "Phone Number", "Password",
         new HashSet<>());
+    userDto = modelMapper.map(user, UserDto.class);
     createUser = modelMapper.map(user, CreateUser.class);
+    doAnswer(invocation -> {
+      Function<Long, Optional<UserDto>> loader = invocation.getArgument(1);
+      return loader.apply(invocation.getArgument(0));
+    }).when(cache).get(anyLong(), any());
   }
 
   @Test
   void testCreateUser() {
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(user));
+    when(cache.get(1L)).thenReturn(Optional.ofNullable(userDto));
     when(userRepository.save(any(User.class))).thenReturn(user);
 
     Optional<UserDto> result = userService.createUser(createUser);
@@ -84,12 +125,12 @@ class UserServiceTests {
     assertTrue(result.isPresent());
     assertEquals(modelMapper.map(user, UserDto.class), result.get());
     verify(userRepository, times(1)).save(any(User.class));
-    verify(cache, times(1)).put(1L, user);
+    verify(cache, times(1)).put(1L, userDto);
 
-    Optional<User> cacheUser = cache.get(user.getId());
+    Optional<UserDto> cacheUser = cache.get(user.getId());
     assertTrue(cacheUser.isPresent());
-    assertEquals(user, cacheUser.get());
-    verify(cache, times(1)).clear();
+    assertEquals(userDto, cacheUser.get());
+    verify(cache, never()).clear();
   }
 
   @Test
@@ -110,22 +151,23 @@ class UserServiceTests {
 
   @Test
   void testCreateManyUsers() {
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(user));
-    when(userRepository.save(any(User.class))).thenReturn(user);
-
+    when(cache.get(1L)).thenReturn(Optional.ofNullable(userDto));
     List<User> users = List.of(user, user, user);
+    when(userRepository.saveAll(anyList())).thenReturn(users);
+
     Optional<List<UserDto>> result = userService.createManyUsers(
         users.stream().map(u -> modelMapper.map(u, CreateUser.class)).toList());
 
     assertTrue(result.isPresent());
     assertEquals(users.stream().map(u -> modelMapper.map(u, UserDto.class)).toList(), result.get());
-    verify(userRepository, times(3)).save(any(User.class));
-    verify(cache, times(3)).put(1L, user);
+    verify(userRepository, times(1)).saveAll(anyList());
+    verify(userRepository, never()).save(any(User.class));
+    verify(cache, times(3)).put(1L, userDto);
 
-    Optional<User> cacheUser = cache.get(user.getId());
+    Optional<UserDto> cacheUser = cache.get(user.getId());
     assertTrue(cacheUser.isPresent());
-    assertEquals(user, cacheUser.get());
-    verify(cache, times(1)).clear();
+    assertEquals(userDto, cacheUser.get());
+    verify(cache, never()).clear();
   }
 
   @Test
@@ -144,40 +186,77 @@ class UserServiceTests {
     assertThrows(BadRequestException.class, () -> userService.createManyUsers(users));
   }
 
+  @Test
+  void testCreateManyUserThrowNullName() {
+    user.setFirstName(null);
+    List<CreateUser> users = List.of(modelMapper.map(user, CreateUser.class));
+    assertThrows(BadRequestException.class, () -> userService.createManyUsers(users));
+  }
+
   @Test
   void testGetUserById() {
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(user));
+    doReturn(Optional.ofNullable(userDto)).when(cache).get(eq(1L), any());
     when(userRepository.findById(1L)).thenReturn(Optional.ofNullable(user));
 
     Optional<UserDto> result = userService.getById(1L);
 
     assertTrue(result.isPresent());
-    assertEquals(modelMapper.map(user, UserDto.class), result.get());
-    verify(cache, times(1)).get(1L);
-    verify(cache, times(1)).put(1L, user);
+    assertEquals(userDto, result.get());
+    verify(cache, times(1)).get(eq(1L), any());
+    verify(userRepository, never()).findById(anyLong());
+  }
+
+  @Test
+  void testGetUserByIdLoadsDtoOnMiss() {
+    when(userRepository.findById(1L)).thenReturn(Optional.ofNullable(user));
+
+    Optional<UserDto> result = userService.getById(1L);
+
+    assertTrue(result.isPresent());
+    assertEquals(userDto, result.get());
+    verify(userRepository, times(1)).findById(1L);
   }
 
   @Test
   void testGetAllUsers() {
-    when(userRepository.findAll()).thenReturn(Collections.singletonList(user));
+    when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(100)))
+        .thenReturn(Collections.singletonList(user));
 
-    Optional<List<UserDto>> result = userService.getAllUsers();
+    Optional<List<UserDto>> result = userService.getAllUsers(null, null);
 
     assertTrue(result.isPresent());
     assertEquals(List.of(modelMapper.map(user, UserDto.class)), result.get());
-    verify(userRepository, times(1)).findAll();
+    verify(userRepository, never()).findAll();
+  }
+
+  @Test
+  void testGetAllUsersAfterId() {
+    when(userRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(10)))
+        .thenReturn(Collections.singletonList(user));
+
+    Optional<List<UserDto>> result = userService.getAllUsers(1L, 10);
+
+    assertTrue(result.isPresent());
+    verify(userRepository, times(1)).findByIdGreaterThanOrderByIdAsc(1L, Limit.of(10));
+  }
+
+  @Test
+  void testGetAllUsersWrongLimit() {
+    assertThrows(BadRequestException.class, () -> userService.getAllUsers(null, 0));
+    assertThrows(BadRequestException.class, () -> userService.getAllUsers(null, 1001));
   }
 
   @Test
   void testGetAllUsersThrow() {
-    when(userRepository.findAll()).thenReturn(Collections.emptyList());
-    assertThrows(NotFoundException.class, () -> userService.getAllUsers());
+    when(userRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+        .thenReturn(Collections.emptyList());
+    assertThrows(NotFoundException.class, () -> userService.getAllUsers(null, null));
   }
 
   @Test
   void testUpdateUser() {
     when(userRepository.save(any(User.class))).thenReturn(user);
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(user));
+    doReturn(Optional.ofNullable(userDto)).when(cache).get(eq(1L), any());
     when(userRepository.findById(1L)).thenReturn(Optional.ofNullable(user));
 
     Optional<UserDto> result = userService.updateUser(1L, modelMapper.map(user, UserDto.class));
@@ -186,7 +265,7 @@ class UserServiceTests {
     assertEquals(modelMapper.map(user, UserDto.class), result.get());
     verify(userRepository, times(1)).save(any(User.class));
     verify(cache, times(1)).remove(1L);
-    verify(cache, times(1)).put(1L, user);
+    verify(cache, times(1)).put(1L, userDto);
   }
 
   @Test
@@ -215,7 +294,7 @@ class UserServiceTests {
   void testUpdateUserThrowNull() {
     when(userRepository.save(any(User.class))).thenReturn(user);
     when(userRepository.findById(1L)).thenReturn(Optional.empty());
-    when(cache.get(1L)).thenReturn(Optional.empty());
+    doReturn(Optional.empty()).when(cache).get(eq(1L), any());
 
     Long id = user.getId();
     UserDto userDto = modelMapper.map(user, UserDto.class);
@@ -224,7 +303,7 @@ class UserServiceTests {
 
   @Test
   void testDeleteUser() {
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(user));
+    doReturn(Optional.ofNullable(userDto)).when(cache).get(eq(1L), any());
     when(userRepository.findById(1L)).thenReturn(Optional.ofNullable(user));
     when(userRepository.save(any(User.class))).thenReturn(user);
     doNothing().when(userRepository).deleteById(anyLong());
@@ -242,12 +321,11 @@ class UserServiceTests {
   @Test
   void testDeleteUserThrow() {
     when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
-    when(cache.get(anyLong())).thenReturn(Optional.empty());
 
     assertThrows(NotFoundException.class, () -> userService.deleteUser(1L));
 
     verify(userRepository, times(1)).findById(1L);
-    verify(cache, times(1)).get(1L);
+    verify(cache, times(1)).get(eq(1L), any());
   }
 
   @Test
@@ -258,13 +336,12 @@ class UserServiceTests {
 
   @Test
   void testDeleteUserThrowCache() {
-    when(cache.get(1L)).thenReturn(Optional.empty());
+    doReturn(Optional.empty()).when(cache).get(eq(1L), any());
     assertThrows(NotFoundException.class, () -> userService.getById(1L));
   }
 
   @Test
   void testSellShare() {
-    when(cache.get(1L)).thenReturn(Optional.ofNullable(user));
     when(userRepository.findById(1L)).thenReturn(Optional.ofNullable(user));
     when(userRepository.save(any(User.class))).thenReturn(user);
     when(shareRepository.findById(1L)).thenReturn(Optional.ofNullable(share));
@@ -278,28 +355,28 @@ class UserServiceTests {
     assertTrue(result.isPresent());
     assertEquals(modelMapper.map(share, ShareDto.class), result.get());
     verify(userRepository, times(2)).save(any(User.class));
+    verify(eventPublisher, times(1))
+        .publishEvent(new HoldingChangedEvent(1L, 1L, TradeSide.SELL));
   }
 
   @Test
   void testSellShareThrow() {
     when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
-    when(cache.get(anyLong())).thenReturn(Optional.empty());
     when(shareRepository.findById(anyLong())).thenReturn(Optional.empty());
 
     assertThrows(NotFoundException.class, () -> userService.sellShare(1L, 1L));
 
-    verify(cache, times(1)).get(1L);
+    verify(userRepository, times(1)).findById(1L);
   }
 
   @Test
   void testSellShareThrowNoShare() {
     when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-    when(cache.get(anyLong())).thenReturn(Optional.ofNullable(user));
     when(shareRepository.findById(anyLong())).thenReturn(Optional.empty());
 
     assertThrows(NotFoundException.class, () -> userService.sellShare(1L, 1L));
 
-    verify(cache, times(1)).get(1L);
+    verify(userRepository, times(1)).findById(1L);
   }
 
   @Test
@@ -321,23 +398,127 @@ class UserServiceTests {
   @Test
   void testBuyShareThrow() {
     when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
-    when(cache.get(anyLong())).thenReturn(Optional.empty());
     when(shareRepository.findById(anyLong())).thenReturn(Optional.empty());
 
     assertThrows(NotFoundException.class, () -> userService.buyShare(1L, 1L));
 
-    verify(cache, times(1)).get(1L);
+    verify(userRepository, times(1)).findById(1L);
   }
 
   @Test
   void testBuyShareThrowNoShare() {
     when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-    when(cache.get(anyLong())).thenReturn(Optional.ofNullable(user));
     when(shareRepository.findById(anyLong())).thenReturn(Optional.empty());
 
     assertThrows(NotFoundException.class, () -> userService.buyShare(1L, 1L));
 
-    verify(cache, times(1)).get(1L);
+    verify(userRepository, times(1)).findById(1L);
+  }
+
+  @Test
+  void testBuyShareWriteBehind() {
+    when(tradeWriteBehindService.isEnabled()).thenReturn(true);
+    when(userRepository.findById(1L)).thenReturn(Optional.ofNullable(user));
+    when(shareRepository.findById(1L)).thenReturn(Optional.ofNullable(share));
+
+    Optional<ShareDto> result = userService.buyShare(1L, 1L);
+
+    assertTrue(result.isPresent());
+    assertEquals(modelMapper.map(share, ShareDto.class), result.get());
+    verify(tradeWriteBehindService).submit(new TradeDto(1L, 1L, TradeSide.BUY));
+    verify(eventPublisher, never()).publishEvent(any(HoldingChangedEvent.class));
+    verify(userRepository, never()).save(any(User.class));
+  }
+
+  @Test
+  void testSellShareWriteBehindThrowNoUser() {
+    when(tradeWriteBehindService.isEnabled()).thenReturn(true);
+    when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+    assertThrows(NotFoundException.class, () -> userService.sellShare(1L, 1L));
+
+    verify(tradeWriteBehindService, never()).submit(any(TradeDto.class));
+  }
+
+  @Test
+  void testTrade() {
+    when(userRepository.findIdsByIdIn(any())).thenReturn(List.of(1L));
+    when(shareRepository.findIdsByIdIn(any())).thenReturn(List.of(1L, 2L));
+    when(userRepository.applyTrades(any())).thenReturn(List.of(false, true));
+
+    Optional<List<TradeResultDto>> result = userService.trade(List.of(
+        new TradeDto(1L, 1L, TradeSide.BUY), new TradeDto(2L, 1L, TradeSide.BUY),
+        new TradeDto(1L, 3L, TradeSide.SELL), new TradeDto(1L, 2L, TradeSide.BUY),
+        new TradeDto(1L, 1L, TradeSide.SELL)));
+
+    assertTrue(result.isPresent());
+    assertEquals(List.of(new TradeResultDto(1L, 1L, TradeSide.BUY, true, false, null),
+        new TradeResultDto(2L, 1L, TradeSide.BUY, false, false, "There is no user with id = 2"),
+        new TradeResultDto(1L, 3L, TradeSide.SELL, false, false, "There is no share with id = 3"),
+        new TradeResultDto(1L, 2L, TradeSide.BUY, true, false, null),
+        new TradeResultDto(1L, 1L, TradeSide.SELL, true, false, null)), result.get());
+    verify(userRepository).applyTrades(List.of(new TradeDto(1L, 1L, TradeSide.SELL),
+        new TradeDto(1L, 2L, TradeSide.BUY)));
+    verify(eventPublisher, never()).publishEvent(
+        new HoldingChangedEvent(1L, 1L, TradeSide.SELL));
+    verify(eventPublisher).publishEvent(new HoldingChangedEvent(1L, 2L, TradeSide.BUY));
+    verify(userRepository, never()).findById(anyLong());
+  }
+
+  @Test
+  void testTradeReportsUnchangedHoldings() {
+    when(userRepository.findIdsByIdIn(any())).thenReturn(List.of(1L));
+    when(shareRepository.findIdsByIdIn(any())).thenReturn(List.of(1L, 2L));
+    when(userRepository.applyTrades(any())).thenReturn(List.of(false, false));
+
+    Optional<List<TradeResultDto>> result = userService.trade(List.of(
+        new TradeDto(1L, 1L, TradeSide.BUY), new TradeDto(1L, 2L, TradeSide.SELL)));
+
+    assertEquals(Optional.of(List.of(new TradeResultDto(1L, 1L, TradeSide.BUY, false, false,
+            "User already holds share with id = 1"),
+        new TradeResultDto(1L, 2L, TradeSide.SELL, false, false,
+            "User does not hold share with id = 2"))), result);
+    verify(eventPublisher, never()).publishEvent(any(HoldingChangedEvent.class));
+  }
+
+  @Test
+  void testTradeWriteBehindReportsPending() {
+    when(tradeWriteBehindService.isEnabled()).thenReturn(true);
+    when(userRepository.findIdsByIdIn(any())).thenReturn(List.of(1L));
+    when(shareRepository.findIdsByIdIn(any())).thenReturn(List.of(1L));
+
+    Optional<List<TradeResultDto>> result = userService.trade(List.of(
+        new TradeDto(1L, 1L, TradeSide.BUY), new TradeDto(1L, 2L, TradeSide.BUY)));
+
+    assertEquals(Optional.of(List.of(new TradeResultDto(1L, 1L, TradeSide.BUY, false, true, null),
+        new TradeResultDto(1L, 2L, TradeSide.BUY, false, false,
+            "There is no share with id = 2"))), result);
+    verify(tradeWriteBehindService).submit(new TradeDto(1L, 1L, TradeSide.BUY));
+    verify(userRepository, never()).applyTrades(any());
+    verify(eventPublisher, never()).publishEvent(any(HoldingChangedEvent.class));
+  }
+
+  @Test
+  void testTradeThrowEmpty() {
+    assertThrows(BadRequestException.class, () -> userService.trade(List.of()));
+  }
+
+  @Test
+  void testTradeThrowWrongTrade() {
+    List<TradeDto> trades = List.of(new TradeDto(1L, null, TradeSide.BUY));
+
+    assertThrows(BadRequestException.class, () -> userService.trade(trades));
+  }
+
+  @Test
+  void testGetSharesFlushesPendingTrades() {
+    when(tradeWriteBehindService.isEnabled()).thenReturn(true);
+    when(userRepository.findById(1L)).thenReturn(Optional.ofNullable(user));
+    user.addShare(share);
+
+    userService.getShares(1L);
+
+    verify(tradeWriteBehindService).flush(1L);
   }
 
   @Test
@@ -359,46 +540,125 @@ class UserServiceTests {
   @Test
   void testGetSharesThrow() {
     when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
-    when(cache.get(anyLong())).thenReturn(Optional.empty());
 
     assertThrows(NotFoundException.class, () -> userService.getShares(1L));
 
     verify(userRepository, times(1)).findById(1L);
-    verify(cache, times(1)).get(1L);
   }
 
   @Test
   void testGetSharesThrowNoShares() {
     when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-    when(cache.get(anyLong())).thenReturn(Optional.ofNullable(user));
 
     assertThrows(NotFoundException.class, () -> userService.getShares(1L));
-    verify(cache, times(1)).get(1L);
+    verify(userRepository, times(1)).findById(1L);
   }
 
   @Test
   void testGetUsersSharesAndCompanies() {
-    when(userRepository.findAll()).thenReturn(List.of(user));
+    when(userRepository.findIdsByIdGreaterThan(0L, Limit.of(100))).thenReturn(List.of(1L));
+    when(userRepository.findByIdInOrderByIdAsc(List.of(1L))).thenReturn(List.of(user));
     when(userRepository.save(any(User.class))).thenReturn(user);
 
     user.addShare(share);
     shareRepository.save(share);
     userService.createUser(createUser);
 
-    Optional<List<UserShareDto>> result = userService.getUsersSharesAndCompanies();
+    Optional<List<UserShareDto>> result = userService.getUsersSharesAndCompanies(null, null);
 
     assertTrue(result.isPresent());
     assertEquals(Collections.singletonList(modelMapper.map(user, UserShareDto.class)),
         result.get());
     verify(userRepository, times(1)).save(any(User.class));
+    verify(userRepository, never()).findAll();
   }
 
   @Test
   void testGetUsersSharesAndCompaniesThrow() {
-    when(userRepository.findAll()).thenReturn(new ArrayList<>());
+    when(userRepository.findIdsByIdGreaterThan(anyLong(), any(Limit.class)))
+        .thenReturn(new ArrayList<>());
     when(userRepository.save(any(User.class))).thenReturn(user);
 
-    assertThrows(NotFoundException.class, () -> userService.getUsersSharesAndCompanies());
+    assertThrows(NotFoundException.class,
+        () -> userService.getUsersSharesAndCompanies(null, null));
+  }
+
+  @Test
+  void testUserListsFlushPendingTrades() throws IOException {
+    when(tradeWriteBehindService.isEnabled()).thenReturn(true);
+    when(userRepository.findIdsByIdGreaterThan(0L, Limit.of(100))).thenReturn(List.of(1L));
+    when(userRepository.findIdsByIdGreaterThan(0L, Limit.of(500))).thenReturn(List.of(1L));
+    when(userRepository.findByIdInOrderByIdAsc(List.of(1L))).thenReturn(List.of(user));
+
+    userService.getUsersSharesAndCompanies(null, null);
+    userService.exportUsersSharesAndCompanies(new ByteArrayOutputStream());
+
+    verify(tradeWriteBehindService, times(2)).flush(List.of(1L));
+  }
+
+  @Test
+  void testGetNotPurchasedShares() {
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(shareRepository.findNotPurchasedByUser(1L, 0L, Limit.of(100))).thenReturn(List.of(share));
+
+    Optional<List<ShareDto>> result = userService.getNotPurchasedShares(1L, null, null);
+
+    assertTrue(result.isPresent());
+    assertEquals(List.of(modelMapper.map(share, ShareDto.class)), result.get());
+    verify(shareRepository, never()).findAll();
+    verify(userRepository, never()).findById(anyLong());
+  }
+
+  @Test
+  void testGetNotPurchasedSharesThrowUser() {
+    when(userRepository.existsById(1L)).thenReturn(false);
+
+    assertThrows(NotFoundException.class, () -> userService.getNotPurchasedShares(1L, null, null));
+    verify(shareRepository, never()).findNotPurchasedByUser(anyLong(), anyLong(), any());
+  }
+
+  @Test
+  void testGetNotPurchasedSharesThrowShares() {
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(shareRepository.findNotPurchasedByUser(anyLong(), anyLong(), any(Limit.class)))
+        .thenReturn(List.of());
+
+    assertThrows(NotFoundException.class, () -> userService.getNotPurchasedShares(1L, 5L, 10));
+  }
+
+  @Test
+  void testExportUsersSharesAndCompanies() throws IOException {
+    user.addShare(share);
+    when(userRepository.findIdsByIdGreaterThan(0L, Limit.of(500))).thenReturn(List.of(1L));
+    when(userRepository.findByIdInOrderByIdAsc(List.of(1L))).thenReturn(List.of(user));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    userService.exportUsersSharesAndCompanies(out);
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(1, lines.length);
+    assertEquals(modelMapper.map(user, UserShareDto.class),
+        objectMapper.readValue(lines[0], UserShareDto.class));
+  }
+
+  @Test
+  void testExportUsersSharesAndCompaniesReadsInChunks() throws IOException {
+    List<User> chunk = LongStream.rangeClosed(1, 500)
+        .mapToObj(id -> new User(id, "First", "Last", "Email", "Phone", "Password",
+            new HashSet<>()))
+        .toList();
+    List<Long> ids = chunk.stream().map(User::getId).toList();
+    when(userRepository.findIdsByIdGreaterThan(0L, Limit.of(500))).thenReturn(ids);
+    when(userRepository.findByIdInOrderByIdAsc(ids)).thenReturn(chunk);
+    when(userRepository.findIdsByIdGreaterThan(500L, Limit.of(500))).thenReturn(List.of());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    userService.exportUsersSharesAndCompanies(out);
+
+    assertEquals(500, out.toString(StandardCharsets.UTF_8).split("\n").length);
+    verify(userRepository, times(1)).findIdsByIdGreaterThan(500L, Limit.of(500));
+    verify(userRepository, never()).findAll();
+    verify(transactionManager, times(1)).getTransaction(any());
   }
 
   @Test
@@ -423,6 +683,48 @@ class UserServiceTests {
     verify(userRepository, times(1)).save(any(User.class));
   }
 
+  @Test
+  void testGetUsersByCompanyAndSharePriceRangeFromIndex() {
+    user.addShare(share);
+    when(holderPriceIndex.findHolders(1L, 1.0f, 2.0f)).thenReturn(Optional.of(List.of(1L)));
+    when(userRepository.findByIdInOrderByIdAsc(List.of(1L))).thenReturn(List.of(user));
+
+    Optional<List<UserShareDto>> result =
+        userService.getUsersByCompanyAndSharePriceRange(1L, 1.0f, 2.0f);
+
+    assertEquals(Optional.of(List.of(modelMapper.map(user, UserShareDto.class))), result);
+    verify(userRepository, never()).findUsersByCompanyAndSharePriceRange(anyLong(), anyFloat(),
+        anyFloat());
+  }
+
+  @Test
+  void testGetUsersByCompanyAndSharePriceRangeFlushesPendingTrades() {
+    when(tradeWriteBehindService.isEnabled()).thenReturn(true);
+    when(holderPriceIndex.findHolders(1L, 1.0f, 2.0f)).thenReturn(Optional.of(List.of(1L)));
+    when(holderPriceIndex.findHolders(1L, 1.0f, 1.0f)).thenReturn(Optional.empty());
+    when(userRepository.findByIdInOrderByIdAsc(List.of(1L))).thenReturn(List.of(user));
+    when(userRepository.findUsersByCompanyAndSharePriceRange(1L, 1.0f, 1.0f))
+        .thenReturn(List.of(user));
+
+    userService.getUsersByCompanyAndSharePriceRange(1L, 1.0f, 2.0f);
+
+    verify(tradeWriteBehindService).flush(List.of(1L));
+    verify(tradeWriteBehindService, never()).flush();
+
+    userService.getUsersByCompanyAndSharePriceRange(1L, 1.0f, 1.0f);
+
+    verify(tradeWriteBehindService).flush();
+  }
+
+  @Test
+  void testGetUsersByCompanyAndSharePriceRangeThrowEmptyIndex() {
+    when(holderPriceIndex.findHolders(1L, 1.0f, 2.0f)).thenReturn(Optional.of(List.of()));
+
+    assertThrows(NotFoundException.class,
+        () -> userService.getUsersByCompanyAndSharePriceRange(1L, 1.0f, 2.0f));
+    verify(userRepository, never()).findByIdInOrderByIdAsc(any());
+  }
+
   @Test
   void testGetUsersByCompanyAndSharePriceRangeThrow() {
     when(userRepository.findAll()).thenReturn(new ArrayList<>());
@@ -0,0 +1,63 @@
+package com.sharesapp.backend.utils.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sharesapp.backend.dto.share.ShareDto;
+import com.sharesapp.backend.event.ChangeType;
+import com.sharesapp.backend.event.CompanyChangedEvent;
+import com.sharesapp.backend.event.PriceChangedEvent;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CacheInvalidationListenerTests {
+  private static final Instant TIME = Instant.parse("2007-12-03T10:15:30.00Z");
+  private SegmentedLruCache<Long, Object> shareCache;
+  private CacheInvalidationListener listener;
+
+  @BeforeEach
+  public void setUp() {
+    shareCache = new SegmentedLruCache<>(100);
+    CacheRegistry cacheRegistry = new CacheRegistry();
+    cacheRegistry.register(CacheInvalidationListener.SHARE_CACHE, shareCache);
+    listener = new CacheInvalidationListener(cacheRegistry);
+    for (long id = 1; id <= 3; id++) {
+      shareCache.put(id, "Share " + id);
+    }
+  }
+
+  @Test
+  void companyDeleteEvictsItsShares() {
+    listener.onCompanyChanged(new CompanyChangedEvent(1L, "Company", List.of(1L, 2L),
+        ChangeType.DELETED));
+
+    assertFalse(shareCache.get(1L).isPresent());
+    assertFalse(shareCache.get(2L).isPresent());
+    assertTrue(shareCache.get(3L).isPresent());
+  }
+
+  @Test
+  void priceChangeUpdatesCachedShare() {
+    shareCache.put(4L, new ShareDto(4L, 1.0f, 2.0f, 0.5f, 1.0f, 1.5f, TIME, "DDD"));
+
+    listener.onPriceChanged(new PriceChangedEvent(4L, 1L, "DDD", 3.0f, 1.0f, 3.0f, 0.5f,
+        TIME.plusSeconds(1)));
+    listener.onPriceChanged(new PriceChangedEvent(5L, 1L, "EEE", 3.0f, 1.0f, 3.0f, 0.5f,
+        TIME.plusSeconds(1)));
+
+    assertEquals(Optional.of(new ShareDto(4L, 1.0f, 3.0f, 0.5f, 1.0f, 3.0f, TIME.plusSeconds(1),
+        "DDD")), shareCache.get(4L));
+    assertFalse(shareCache.get(5L).isPresent());
+  }
+
+  @Test
+  void companyUpdateKeepsShares() {
+    listener.onCompanyChanged(new CompanyChangedEvent(1L, "Company", List.of(), ChangeType.UPDATED));
+
+    assertTrue(shareCache.get(1L).isPresent());
+  }
+}
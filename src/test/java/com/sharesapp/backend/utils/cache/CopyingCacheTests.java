@@ -0,0 +1,45 @@
+package com.sharesapp.backend.utils.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.sharesapp.backend.dto.CompanyDto;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class CopyingCacheTests {
+  private final CopyingCache<Long, CompanyDto> cache = new CopyingCache<>(
+      new SegmentedLruCache<>(10), company -> company.toBuilder().build());
+
+  @Test
+  void changingPutValueDoesNotChangeEntry() {
+    CompanyDto company = company();
+    cache.put(1L, company);
+
+    company.setName("Changed");
+
+    assertEquals(Optional.of(company()), cache.get(1L));
+  }
+
+  @Test
+  void changingReadValueDoesNotChangeEntry() {
+    cache.put(1L, company());
+
+    cache.get(1L).orElseThrow().setName("Changed");
+    cache.get(1L, id -> Optional.empty()).orElseThrow().setName("Changed");
+
+    assertEquals(Optional.of(company()), cache.get(1L));
+  }
+
+  @Test
+  void changingLoadedValueDoesNotChangeEntry() {
+    CompanyDto loaded = cache.get(1L, id -> Optional.of(company())).orElseThrow();
+
+    loaded.setName("Changed");
+
+    assertEquals(Optional.of(company()), cache.get(1L));
+  }
+
+  private static CompanyDto company() {
+    return new CompanyDto(1L, "Company", 1D, "Adress", "Website");
+  }
+}
@@ -0,0 +1,180 @@
+package com.sharesapp.backend.utils.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sharesapp.backend.dto.share.ShareDto;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OffHeapCacheTests {
+  private static final int MAX_CACHE_SIZE = 100;
+  private final ShareDtoCodec codec = new ShareDtoCodec();
+  private OffHeapCache<Long, ShareDto> cache;
+
+  @BeforeEach
+  public void setUp() {
+    cache = new OffHeapCache<>(MAX_CACHE_SIZE, 1, null, codec, System::nanoTime);
+  }
+
+  @Test
+  void getReturnsDecodedCopy() {
+    ShareDto share = share(1L);
+    cache.put(1L, share);
+
+    Optional<ShareDto> result = cache.get(1L);
+
+    assertTrue(result.isPresent());
+    assertEquals(share, result.get());
+    result.get().setSymbol("Changed");
+    assertEquals("Symbol 1", cache.get(1L).orElseThrow().getSymbol());
+  }
+
+  @Test
+  void keepsNullFields() {
+    ShareDto share = new ShareDto(1L, null, 2.0f, null, null, 3.0f, null, null);
+    cache.put(1L, share);
+
+    assertEquals(Optional.of(share), cache.get(1L));
+  }
+
+  @Test
+  void putExistingKeyReplacesValue() {
+    cache.put(1L, share(1L));
+    ShareDto updated = share(1L);
+    updated.setLastSalePrice(42.0f);
+    cache.put(1L, updated);
+
+    assertEquals(Optional.of(updated), cache.get(1L));
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  void skipsValuesLargerThanSlot() {
+    cache.put(1L, share(1L));
+    ShareDto share = share(1L);
+    share.setSymbol("S".repeat(ShareDtoCodec.MAX_SYMBOL_BYTES + 1));
+    cache.put(1L, share);
+
+    assertFalse(cache.get(1L).isPresent());
+  }
+
+  @Test
+  void putMaxCapacityKeepsReferencedEntries() {
+    for (long i = 1; i <= MAX_CACHE_SIZE; i++) {
+      cache.put(i, share(i));
+    }
+    cache.get(1L);
+
+    cache.put(MAX_CACHE_SIZE + 1L, share(MAX_CACHE_SIZE + 1L));
+
+    assertTrue(cache.get(1L).isPresent());
+    assertFalse(cache.get(2L).isPresent());
+    assertTrue(cache.get(MAX_CACHE_SIZE + 1L).isPresent());
+    assertEquals(MAX_CACHE_SIZE, cache.size());
+    assertEquals(1, cache.stats().getEvictionCount());
+  }
+
+  @Test
+  void removeFreesSlot() {
+    for (long i = 1; i <= MAX_CACHE_SIZE; i++) {
+      cache.put(i, share(i));
+    }
+    cache.remove(1L);
+    cache.put(MAX_CACHE_SIZE + 1L, share(MAX_CACHE_SIZE + 1L));
+
+    assertFalse(cache.get(1L).isPresent());
+    assertTrue(cache.get(2L).isPresent());
+    assertEquals(0, cache.stats().getEvictionCount());
+  }
+
+  @Test
+  void clear() {
+    cache.put(1L, share(1L));
+    cache.put(2L, share(2L));
+
+    cache.clear();
+
+    assertEquals(0, cache.size());
+    assertFalse(cache.get(1L).isPresent());
+  }
+
+  @Test
+  void expireAfterWrite() {
+    AtomicLong time = new AtomicLong();
+    OffHeapCache<Long, ShareDto> expiringCache =
+        new OffHeapCache<>(MAX_CACHE_SIZE, 1, Duration.ofSeconds(10), codec, time::get);
+
+    expiringCache.put(1L, share(1L));
+    time.set(Duration.ofSeconds(5).toNanos());
+    assertTrue(expiringCache.get(1L).isPresent());
+    time.set(Duration.ofSeconds(10).toNanos());
+    assertFalse(expiringCache.get(1L).isPresent());
+    assertEquals(0, expiringCache.size());
+  }
+
+  @Test
+  void getWithLoaderDoesNotOverwriteValuePutDuringLoad() {
+    ShareDto fresh = share(1L);
+    fresh.setSymbol("New symbol");
+
+    cache.get(1L, key -> {
+      cache.put(key, fresh);
+      return Optional.of(share(key));
+    });
+
+    assertEquals(Optional.of(fresh), cache.get(1L));
+  }
+
+  @Test
+  void getWithLoaderCachesLoadedValue() {
+    AtomicInteger loads = new AtomicInteger();
+
+    cache.get(1L, key -> {
+      loads.incrementAndGet();
+      return Optional.of(share(key));
+    });
+    Optional<ShareDto> result = cache.get(1L, key -> Optional.empty());
+
+    assertEquals(Optional.of(share(1L)), result);
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void concurrentAccessStaysWithinCapacity() throws InterruptedException {
+    OffHeapCache<Long, ShareDto> concurrentCache = new OffHeapCache<>(MAX_CACHE_SIZE, codec);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int thread = 0; thread < 8; thread++) {
+      executor.submit(() -> LongStream.range(0, 10_000).forEach(i -> {
+        concurrentCache.put(i % 500, share(i % 500));
+        concurrentCache.get((i * 7) % 500)
+            .ifPresent(share -> assertEquals((i * 7) % 500, share.getId()));
+      }));
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+    assertTrue(concurrentCache.size() <= MAX_CACHE_SIZE + 16);
+  }
+
+  @Test
+  void wrongCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new OffHeapCache<>(0, codec));
+  }
+
+  private static ShareDto share(long id) {
+    return new ShareDto(id, 1.0f, 2.0f, 0.5f, 1.5f, 1.25f,
+        Instant.parse("2007-12-03T10:15:30.00Z"), "Symbol " + id);
+  }
+}
@@ -0,0 +1,276 @@
+package com.sharesapp.backend.utils.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SegmentedLruCacheTests {
+  private static final int MAX_CACHE_SIZE = 100;
+  private SegmentedLruCache<Long, Object> cache;
+
+  @BeforeEach
+  public void setUp() {
+    cache = new SegmentedLruCache<>(MAX_CACHE_SIZE, 1);
+  }
+
+  @Test
+  void get() {
+    Long key = 1L;
+    Object value = "value";
+    cache.put(key, value);
+    Optional<Object> result = cache.get(key);
+    assertTrue(result.isPresent());
+    assertEquals(value, result.get());
+  }
+
+  @Test
+  void putMaxCapacity() {
+    long key;
+    Object value;
+
+    for (int i = 1; i <= MAX_CACHE_SIZE; i++) {
+      key = (long) i;
+      value = "Value " + i;
+      cache.put(key, value);
+    }
+
+    Long newKey = (long) (MAX_CACHE_SIZE + 1);
+    Object newValue = "New Value";
+    cache.put(newKey, newValue);
+
+    Optional<Object> result = cache.get(newKey);
+    assertTrue(result.isPresent());
+    assertEquals(newValue, result.get());
+
+    Optional<Object> removedValue = cache.get(1L);
+    assertFalse(removedValue.isPresent());
+    assertTrue(cache.get(2L).isPresent());
+  }
+
+  @Test
+  void putMaxCapacityKeepsFrequentlyReadEntries() {
+    cache.put(1L, "hot");
+    cache.get(1L);
+
+    for (long i = 2; i <= 3 * MAX_CACHE_SIZE; i++) {
+      cache.put(i, "Value " + i);
+    }
+
+    assertTrue(cache.get(1L).isPresent());
+  }
+
+  @Test
+  void putExistingKeyReplacesValue() {
+    cache.put(1L, "old");
+    cache.put(1L, "new");
+
+    assertEquals(Optional.of("new"), cache.get(1L));
+  }
+
+  @Test
+  void remove() {
+    Long key = 1L;
+    Object value = "value";
+
+    cache.put(key, value);
+    cache.remove(1L);
+    Optional<Object> result = cache.get(key);
+
+    assertEquals(Optional.empty(), result);
+  }
+
+  @Test
+  void clear() {
+    cache.put(1L, "value");
+    cache.get(1L);
+    cache.put(2L, "value");
+
+    cache.clear();
+
+    assertFalse(cache.get(1L).isPresent());
+    assertFalse(cache.get(2L).isPresent());
+  }
+
+  @Test
+  void concurrentAccessStaysWithinCapacity() throws InterruptedException {
+    SegmentedLruCache<Long, Object> concurrentCache = new SegmentedLruCache<>(MAX_CACHE_SIZE);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int thread = 0; thread < 8; thread++) {
+      executor.submit(() -> LongStream.range(0, 10_000).forEach(i -> {
+        concurrentCache.put(i % 500, i);
+        concurrentCache.get((i * 7) % 500);
+      }));
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+    long cached = LongStream.range(0, 500).filter(i -> concurrentCache.get(i).isPresent()).count();
+    assertTrue(cached <= MAX_CACHE_SIZE + 16);
+  }
+
+  @Test
+  void getWithLoaderCachesLoadedValue() {
+    AtomicInteger loads = new AtomicInteger();
+    Function<Long, Optional<Object>> loader = key -> Optional.of("Value " + loads.incrementAndGet());
+
+    Optional<Object> first = cache.get(1L, loader);
+    Optional<Object> second = cache.get(1L, loader);
+
+    assertEquals(Optional.of("Value 1"), first);
+    assertEquals(first, second);
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void getWithLoaderDoesNotOverwriteValuePutDuringLoad() {
+    Optional<Object> loaded = cache.get(1L, key -> {
+      cache.put(key, "New value");
+      return Optional.of("Old value");
+    });
+
+    assertEquals(Optional.of("Old value"), loaded);
+    assertEquals(Optional.of("New value"), cache.get(1L));
+  }
+
+  @Test
+  void getWithLoaderDoesNotCacheMissingValue() {
+    assertFalse(cache.get(1L, key -> Optional.empty()).isPresent());
+    assertFalse(cache.get(1L).isPresent());
+  }
+
+  @Test
+  void getWithLoaderSharesConcurrentLoads() throws InterruptedException {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    for (int thread = 0; thread < 4; thread++) {
+      executor.submit(() -> cache.get(1L, key -> {
+        loads.incrementAndGet();
+        awaitQuietly(release);
+        return Optional.of("value");
+      }));
+    }
+    Thread.sleep(100);
+    release.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    assertEquals(1, loads.get());
+    assertEquals(Optional.of("value"), cache.get(1L));
+  }
+
+  @Test
+  void expireAfterWrite() {
+    AtomicLong time = new AtomicLong();
+    SegmentedLruCache<Long, Object> expiringCache = new SegmentedLruCache<>(
+        new CacheSpec(MAX_CACHE_SIZE, Duration.ofSeconds(10), null, null, null), 1,
+        Runnable::run, time::get);
+
+    expiringCache.put(1L, "value");
+    time.set(Duration.ofSeconds(5).toNanos());
+    assertTrue(expiringCache.get(1L).isPresent());
+    time.set(Duration.ofSeconds(10).toNanos());
+    assertFalse(expiringCache.get(1L).isPresent());
+  }
+
+  @Test
+  void expireAfterAccess() {
+    AtomicLong time = new AtomicLong();
+    SegmentedLruCache<Long, Object> expiringCache = new SegmentedLruCache<>(
+        new CacheSpec(MAX_CACHE_SIZE, null, Duration.ofSeconds(10), null, null), 1,
+        Runnable::run, time::get);
+
+    expiringCache.put(1L, "value");
+    time.set(Duration.ofSeconds(8).toNanos());
+    assertTrue(expiringCache.get(1L).isPresent());
+    time.set(Duration.ofSeconds(16).toNanos());
+    assertTrue(expiringCache.get(1L).isPresent());
+    time.set(Duration.ofSeconds(30).toNanos());
+    assertFalse(expiringCache.get(1L).isPresent());
+  }
+
+  @Test
+  void refreshAfterWriteReloadsAheadOfExpiry() {
+    AtomicLong time = new AtomicLong();
+    List<Runnable> refreshes = new ArrayList<>();
+    SegmentedLruCache<Long, Object> refreshingCache = new SegmentedLruCache<>(
+        new CacheSpec(MAX_CACHE_SIZE, Duration.ofSeconds(30), null, Duration.ofSeconds(10),
+            null), 1, refreshes::add, time::get);
+    refreshingCache.put(1L, "old");
+
+    time.set(Duration.ofSeconds(15).toNanos());
+    assertEquals(Optional.of("old"), refreshingCache.get(1L, key -> Optional.of("new")));
+    assertEquals(Optional.of("old"), refreshingCache.get(1L, key -> Optional.of("newer")));
+    assertEquals(1, refreshes.size());
+
+    refreshes.get(0).run();
+    time.set(Duration.ofSeconds(35).toNanos());
+    assertEquals(Optional.of("new"), refreshingCache.get(1L));
+  }
+
+  @Test
+  void emptyRefreshKeepsNewerValue() {
+    AtomicLong time = new AtomicLong();
+    List<Runnable> refreshes = new ArrayList<>();
+    SegmentedLruCache<Long, Object> refreshingCache = new SegmentedLruCache<>(
+        new CacheSpec(MAX_CACHE_SIZE, Duration.ofSeconds(30), null, Duration.ofSeconds(10),
+            null), 1, refreshes::add, time::get);
+    refreshingCache.put(1L, "old");
+
+    time.set(Duration.ofSeconds(15).toNanos());
+    refreshingCache.get(1L, key -> Optional.empty());
+    refreshingCache.put(1L, "new");
+    refreshes.get(0).run();
+
+    assertEquals(Optional.of("new"), refreshingCache.get(1L));
+  }
+
+  @Test
+  void recordsStats() {
+    cache.get(1L, key -> Optional.of("value"));
+    cache.get(1L, key -> Optional.of("value"));
+    cache.get(2L);
+    for (long i = 3; i <= MAX_CACHE_SIZE + 2; i++) {
+      cache.put(i, "Value " + i);
+    }
+
+    CacheStats stats = cache.stats();
+    assertEquals(1, stats.getHitCount());
+    assertEquals(2, stats.getMissCount());
+    assertEquals(1, stats.getLoadSuccessCount());
+    assertEquals(1, stats.getEvictionCount());
+    assertEquals(MAX_CACHE_SIZE, cache.size());
+  }
+
+  @Test
+  void wrongCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new SegmentedLruCache<>(0));
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
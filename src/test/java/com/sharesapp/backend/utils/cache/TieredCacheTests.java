@@ -0,0 +1,67 @@
+package com.sharesapp.backend.utils.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TieredCacheTests {
+  private SegmentedLruCache<Long, Object> first;
+  private SegmentedLruCache<Long, Object> second;
+  private TieredCache<Long, Object> cache;
+
+  @BeforeEach
+  public void setUp() {
+    first = new SegmentedLruCache<>(2, 1);
+    second = new SegmentedLruCache<>(100, 1);
+    cache = new TieredCache<>(first, second);
+  }
+
+  @Test
+  void putWritesBothTiers() {
+    cache.put(1L, "value");
+
+    assertEquals(Optional.of("value"), first.get(1L));
+    assertEquals(Optional.of("value"), second.get(1L));
+  }
+
+  @Test
+  void missInFirstTierIsServedFromSecond() {
+    for (long i = 1; i <= 10; i++) {
+      cache.put(i, "Value " + i);
+    }
+    assertFalse(first.get(1L).isPresent());
+
+    AtomicInteger loads = new AtomicInteger();
+    Optional<Object> result = cache.get(1L, key -> {
+      loads.incrementAndGet();
+      return Optional.of("loaded");
+    });
+
+    assertEquals(Optional.of("Value 1"), result);
+    assertEquals(0, loads.get());
+    assertTrue(first.get(1L).isPresent());
+  }
+
+  @Test
+  void loadedValueIsStoredInBothTiers() {
+    cache.get(1L, key -> Optional.of("loaded"));
+
+    assertEquals(Optional.of("loaded"), first.get(1L));
+    assertEquals(Optional.of("loaded"), second.get(1L));
+  }
+
+  @Test
+  void removeEvictsBothTiers() {
+    cache.put(1L, "value");
+
+    cache.remove(1L);
+
+    assertFalse(cache.get(1L).isPresent());
+    assertFalse(second.get(1L).isPresent());
+  }
+}
@@ -0,0 +1,61 @@
+package com.sharesapp.backend.utils.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PriceLogTests {
+  private static final Instant TIME = Instant.parse("2007-12-03T23:59:30.00Z");
+  @TempDir
+  private Path directory;
+  private PriceLog priceLog;
+
+  @BeforeEach
+  public void setUp() {
+    priceLog = new PriceLog(directory, 1);
+  }
+
+  @Test
+  void appendPartitionsByDay() throws IOException {
+    priceLog.append(List.of(record(1L, TIME, 1.0f), record(1L, TIME.plusSeconds(60), 2.0f),
+        record(2L, TIME.plusSeconds(90), 3.0f)));
+
+    assertEquals(PriceLog.RECORD_BYTES,
+        Files.size(directory.resolve("prices-2007-12-03.bin")));
+    assertEquals(2L * PriceLog.RECORD_BYTES,
+        Files.size(directory.resolve("prices-2007-12-04.bin")));
+  }
+
+  @Test
+  void pruneDeletesPartitionsPastRetention() throws IOException {
+    priceLog.append(List.of(record(1L, TIME.minus(Duration.ofDays(2)), 1.0f),
+        record(1L, TIME.minus(Duration.ofDays(1)), 2.0f), record(1L, TIME, 3.0f)));
+
+    priceLog.prune(TIME);
+
+    assertFalse(Files.exists(directory.resolve("prices-2007-12-01.bin")));
+    assertTrue(Files.exists(directory.resolve("prices-2007-12-02.bin")));
+    assertTrue(Files.exists(directory.resolve("prices-2007-12-03.bin")));
+  }
+
+  @Test
+  void pruneWithoutPartitions() throws IOException {
+    priceLog.prune(TIME);
+
+    assertFalse(Files.exists(directory.resolve("prices-2007-12-03.bin")));
+  }
+
+  private static PriceRecord record(long shareId, Instant time, float price) {
+    return new PriceRecord(shareId, time.toEpochMilli(), price);
+  }
+}
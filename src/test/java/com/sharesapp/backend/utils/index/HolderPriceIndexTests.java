@@ -0,0 +1,128 @@
+package com.sharesapp.backend.utils.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.sharesapp.backend.dto.user.HoldingDto;
+import com.sharesapp.backend.event.ChangeType;
+import com.sharesapp.backend.event.CompanyChangedEvent;
+import com.sharesapp.backend.event.HoldingChangedEvent;
+import com.sharesapp.backend.event.PriceChangedEvent;
+import com.sharesapp.backend.event.ShareChangedEvent;
+import com.sharesapp.backend.event.UserChangedEvent;
+import com.sharesapp.backend.model.Company;
+import com.sharesapp.backend.model.Share;
+import com.sharesapp.backend.model.TradeSide;
+import com.sharesapp.backend.repository.ShareRepository;
+import com.sharesapp.backend.repository.UserRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+class HolderPriceIndexTests {
+  private static final Instant TIME = Instant.parse("2007-12-03T10:15:30.00Z");
+  private final UserRepository userRepository = mock(UserRepository.class);
+  private final ShareRepository shareRepository = mock(ShareRepository.class);
+  private HolderPriceIndex index;
+  private final List<Runnable> loads = new ArrayList<>();
+  private HoldingIndex holdingIndex;
+
+  @BeforeEach
+  public void setUp() {
+    when(userRepository.findIdsByIdGreaterThan(0L, Limit.of(1000))).thenReturn(List.of(1L, 2L));
+    when(userRepository.findHoldingsByUserIdIn(List.of(1L, 2L))).thenReturn(List.of(
+        new HoldingDto(1L, 10L, 1L, 10.0f, null),
+        new HoldingDto(1L, 20L, 1L, 20.0f, null),
+        new HoldingDto(2L, 20L, 1L, 20.0f, null),
+        new HoldingDto(2L, 30L, 2L, 15.0f, null)));
+    index = new HolderPriceIndex();
+    holdingIndex = new HoldingIndex(userRepository, shareRepository, List.of(index),
+        loads::add);
+  }
+
+  @Test
+  void emptyBeforeRebuild() {
+    assertEquals(Optional.empty(), index.findHolders(1L, 0.0f, 100.0f));
+  }
+
+  @Test
+  void loadRunsInTheBackground() {
+    holdingIndex.load();
+
+    assertEquals(Optional.empty(), index.findHolders(1L, 0.0f, 100.0f));
+
+    loads.forEach(Runnable::run);
+
+    assertEquals(Optional.of(List.of(1L, 2L)), index.findHolders(1L, 0.0f, 100.0f));
+  }
+
+  @Test
+  void findHoldersInRange() {
+    holdingIndex.rebuild();
+
+    assertEquals(Optional.of(List.of(1L, 2L)), index.findHolders(1L, 0.0f, 100.0f));
+    assertEquals(Optional.of(List.of(1L)), index.findHolders(1L, 10.0f, 10.0f));
+    assertEquals(Optional.of(List.of(1L, 2L)), index.findHolders(1L, 20.0f, 25.0f));
+    assertEquals(Optional.of(List.of(2L)), index.findHolders(2L, 10.0f, 20.0f));
+    assertEquals(Optional.of(List.of()), index.findHolders(1L, 11.0f, 19.0f));
+    assertEquals(Optional.of(List.of()), index.findHolders(3L, 0.0f, 100.0f));
+    assertEquals(Optional.of(List.of()), index.findHolders(1L, 100.0f, 0.0f));
+  }
+
+  @Test
+  void priceChangeMovesShare() {
+    holdingIndex.rebuild();
+
+    holdingIndex.onPriceChanged(new PriceChangedEvent(10L, 1L, "AAA", 30.0f, null, null, null, TIME));
+
+    assertEquals(Optional.of(List.of()), index.findHolders(1L, 10.0f, 10.0f));
+    assertEquals(Optional.of(List.of(1L)), index.findHolders(1L, 25.0f, 35.0f));
+  }
+
+  @Test
+  void buyAndSellUpdateHolders() {
+    holdingIndex.rebuild();
+    Company company = new Company(2L, "Company", 1D, "Adress", "Website", new HashSet<>());
+    Share share = new Share(40L, 1.0f, 1.0f, 1.0f, 1.0f, 50.0f, TIME, "DDD", new HashSet<>(),
+        company);
+    when(shareRepository.findById(40L)).thenReturn(Optional.of(share));
+
+    holdingIndex.onHoldingChanged(new HoldingChangedEvent(1L, 40L, TradeSide.BUY));
+    holdingIndex.onHoldingChanged(new HoldingChangedEvent(1L, 30L, TradeSide.BUY));
+    holdingIndex.onHoldingChanged(new HoldingChangedEvent(2L, 20L, TradeSide.SELL));
+
+    assertEquals(Optional.of(List.of(1L, 2L)), index.findHolders(2L, 0.0f, 100.0f));
+    assertEquals(Optional.of(List.of(1L)), index.findHolders(2L, 50.0f, 50.0f));
+    assertEquals(Optional.of(List.of(1L)), index.findHolders(1L, 20.0f, 20.0f));
+  }
+
+  @Test
+  void lastSellRemovesShare() {
+    holdingIndex.rebuild();
+
+    holdingIndex.onHoldingChanged(new HoldingChangedEvent(1L, 10L, TradeSide.SELL));
+    holdingIndex.onPriceChanged(new PriceChangedEvent(10L, 1L, "AAA", 20.0f, null, null, null, TIME));
+
+    assertEquals(Optional.of(List.of()), index.findHolders(1L, 10.0f, 10.0f));
+    assertEquals(Optional.of(List.of(1L, 2L)), index.findHolders(1L, 20.0f, 20.0f));
+  }
+
+  @Test
+  void deletesRemoveHoldings() {
+    holdingIndex.rebuild();
+
+    holdingIndex.onShareChanged(new ShareChangedEvent(10L, 1L, "AAA", ChangeType.DELETED));
+    holdingIndex.onCompanyChanged(new CompanyChangedEvent(2L, "Company", List.of(30L),
+        ChangeType.DELETED));
+    holdingIndex.onUserChanged(new UserChangedEvent(2L, ChangeType.DELETED));
+
+    assertEquals(Optional.of(List.of(1L)), index.findHolders(1L, 0.0f, 100.0f));
+    assertEquals(Optional.of(List.of()), index.findHolders(2L, 0.0f, 100.0f));
+  }
+}
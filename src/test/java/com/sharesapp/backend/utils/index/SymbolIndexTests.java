@@ -0,0 +1,87 @@
+package com.sharesapp.backend.utils.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.sharesapp.backend.dto.SearchResultDto;
+import com.sharesapp.backend.event.ChangeType;
+import com.sharesapp.backend.event.CompanyChangedEvent;
+import com.sharesapp.backend.event.ShareChangedEvent;
+import com.sharesapp.backend.repository.CompanyRepository;
+import com.sharesapp.backend.repository.ShareRepository;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+class SymbolIndexTests {
+  private final ShareRepository shareRepository = mock(ShareRepository.class);
+  private final CompanyRepository companyRepository = mock(CompanyRepository.class);
+  private SymbolIndex index;
+
+  @BeforeEach
+  public void setUp() {
+    when(shareRepository.findSymbolsByIdGreaterThan(0L, Limit.of(1000))).thenReturn(List.of(
+        new SearchResultDto(1L, "AAPL"),
+        new SearchResultDto(2L, "AA"),
+        new SearchResultDto(3L, "AMZN"),
+        new SearchResultDto(4L, "MSFT")));
+    when(companyRepository.findNamesByIdGreaterThan(0L, Limit.of(1000))).thenReturn(List.of(
+        new SearchResultDto(1L, "Apple"),
+        new SearchResultDto(2L, "Alcoa"),
+        new SearchResultDto(3L, "Amazon")));
+    index = new SymbolIndex(shareRepository, companyRepository);
+  }
+
+  @Test
+  void emptyBeforeRebuild() {
+    assertEquals(Optional.empty(), index.findShares("AAPL"));
+    assertEquals(Optional.empty(), index.completeShares("A", 10));
+    assertEquals(Optional.empty(), index.completeCompanies("A", 10));
+  }
+
+  @Test
+  void findSharesIgnoringCase() {
+    index.rebuild();
+
+    assertEquals(Optional.of(List.of(1L)), index.findShares("aapl"));
+    assertEquals(Optional.of(List.of(2L)), index.findShares("AA"));
+    assertEquals(Optional.of(List.of()), index.findShares("AAP"));
+  }
+
+  @Test
+  void completeRanksExactMatchFirst() {
+    index.rebuild();
+
+    assertEquals(Optional.of(List.of(new SearchResultDto(2L, "AA"),
+        new SearchResultDto(1L, "AAPL"), new SearchResultDto(3L, "AMZN"))),
+        index.completeShares("a", 10));
+    assertEquals(Optional.of(List.of(new SearchResultDto(2L, "AA"))),
+        index.completeShares("A", 1));
+    assertEquals(Optional.of(List.of(new SearchResultDto(2L, "Alcoa"))),
+        index.completeCompanies(" AL", 10));
+    assertEquals(Optional.of(List.of()), index.completeCompanies("b", 10));
+  }
+
+  @Test
+  void changesUpdateIndex() {
+    index.rebuild();
+
+    index.onShareChanged(new ShareChangedEvent(5L, 1L, "AAPX", ChangeType.CREATED));
+    index.onShareChanged(new ShareChangedEvent(1L, 1L, "APPL", ChangeType.UPDATED));
+    index.onShareChanged(new ShareChangedEvent(4L, 4L, "MSFT", ChangeType.DELETED));
+    index.onCompanyChanged(new CompanyChangedEvent(2L, "Alcoa", List.of(2L),
+        ChangeType.DELETED));
+    index.onCompanyChanged(new CompanyChangedEvent(3L, "Amazon.com", List.of(),
+        ChangeType.UPDATED));
+
+    assertEquals(Optional.of(List.of(new SearchResultDto(5L, "AAPX"))),
+        index.completeShares("AA", 10));
+    assertEquals(Optional.of(List.of(1L)), index.findShares("APPL"));
+    assertEquals(Optional.of(List.of()), index.findShares("MSFT"));
+    assertEquals(Optional.of(List.of(new SearchResultDto(3L, "Amazon.com"),
+        new SearchResultDto(1L, "Apple"))), index.completeCompanies("A", 10));
+  }
+}
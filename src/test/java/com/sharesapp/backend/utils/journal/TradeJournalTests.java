@@ -0,0 +1,79 @@
+package com.sharesapp.backend.utils.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sharesapp.backend.dto.user.TradeDto;
+import com.sharesapp.backend.model.TradeSide;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TradeJournalTests {
+  @TempDir
+  private Path directory;
+  private TradeJournal journal;
+
+  @BeforeEach
+  public void setUp() {
+    journal = new TradeJournal(directory);
+  }
+
+  @Test
+  void rotateClosesSegmentWithAppendedTrades() throws IOException {
+    journal.append(new TradeDto(1L, 2L, TradeSide.BUY));
+    journal.append(new TradeDto(1L, 2L, TradeSide.SELL));
+
+    assertEquals(List.of(), journal.segments());
+    Path segment = journal.rotate().orElseThrow();
+
+    assertEquals(List.of(segment), journal.segments());
+    assertEquals(List.of(new TradeDto(1L, 2L, TradeSide.BUY), new TradeDto(1L, 2L, TradeSide.SELL)),
+        read(segment));
+    assertTrue(journal.rotate().isEmpty());
+  }
+
+  @Test
+  void segmentsAreOrderedAcrossRestarts() throws IOException {
+    for (long i = 1; i <= 10; i++) {
+      journal.append(new TradeDto(i, i, TradeSide.BUY));
+      journal.close();
+      journal = new TradeJournal(directory);
+    }
+
+    List<Long> users = new ArrayList<>();
+    for (Path segment : journal.segments()) {
+      journal.read(segment, trade -> users.add(trade.getUserId()));
+    }
+    assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), users);
+  }
+
+  @Test
+  void readSkipsPartialRecord() throws IOException {
+    journal.append(new TradeDto(1L, 2L, TradeSide.BUY));
+    Path segment = journal.rotate().orElseThrow();
+    Files.write(segment, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+
+    assertEquals(List.of(new TradeDto(1L, 2L, TradeSide.BUY)), read(segment));
+  }
+
+  @Test
+  void deleteRemovesSegment() throws IOException {
+    journal.append(new TradeDto(1L, 2L, TradeSide.BUY));
+    journal.delete(journal.rotate().orElseThrow());
+
+    assertEquals(List.of(), journal.segments());
+  }
+
+  private List<TradeDto> read(Path segment) throws IOException {
+    List<TradeDto> trades = new ArrayList<>();
+    journal.read(segment, trades::add);
+    return trades;
+  }
+}
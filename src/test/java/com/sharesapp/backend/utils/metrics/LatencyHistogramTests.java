@@ -0,0 +1,73 @@
+package com.sharesapp.backend.utils.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTests {
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  @Test
+  void emptyHistogram() {
+    assertEquals(0, histogram.count());
+    assertEquals(0, histogram.percentile(99.0));
+    assertEquals(0.0, histogram.mean());
+  }
+
+  @Test
+  void bucketsCoverEveryValueOnce() {
+    for (long value = 0; value < 100_000; value++) {
+      int index = LatencyHistogram.index(value);
+      assertTrue(LatencyHistogram.highestValue(index) >= value);
+      assertTrue(index == 0 || LatencyHistogram.highestValue(index - 1) < value);
+    }
+  }
+
+  @Test
+  void percentilesWithinBucketPrecision() {
+    for (long value = 1; value <= 10_000; value++) {
+      histogram.record(value);
+    }
+
+    assertEquals(10_000, histogram.count());
+    assertEquals(5000.5, histogram.mean());
+    assertEquals(10_000, histogram.max());
+    assertWithin(5_000, histogram.percentile(50.0));
+    assertWithin(9_900, histogram.percentile(99.0));
+    assertWithin(9_990, histogram.percentile(99.9));
+    assertEquals(10_000, histogram.percentile(100.0));
+  }
+
+  @Test
+  void clampsOutOfRangeValues() {
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+
+    assertEquals(0, histogram.percentile(50.0));
+    assertEquals(LatencyHistogram.MAX_VALUE, histogram.percentile(100.0));
+  }
+
+  @Test
+  void concurrentRecording() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    IntStream.range(0, 4).forEach(i -> executor.execute(() -> {
+      for (int value = 0; value < 10_000; value++) {
+        histogram.record(value);
+      }
+    }));
+    executor.shutdown();
+
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    assertEquals(40_000, histogram.count());
+  }
+
+  private static void assertWithin(long expected, long actual) {
+    assertTrue(actual >= expected && actual <= expected * 1.07,
+        () -> "Expected about " + expected + " but was " + actual);
+  }
+}
@@ -0,0 +1,79 @@
+package com.sharesapp.backend.utils.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ConcurrencyLimitFilterTests {
+  private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 10);
+
+  @Test
+  void releasesPermitAfterRequest() throws Exception {
+    AtomicBoolean handled = new AtomicBoolean();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilter(new MockHttpServletRequest(), response, (req, res) -> handled.set(true));
+
+    assertTrue(handled.get());
+    assertEquals(200, response.getStatus());
+    assertEquals(1, filter.availablePermits());
+  }
+
+  @Test
+  void keepsPermitUntilAsyncRequestCompletes() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setAsyncSupported(true);
+
+    filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+    assertEquals(0, filter.availablePermits());
+    MockHttpServletResponse rejected = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest(), rejected, (req, res) -> { });
+    assertEquals(503, rejected.getStatus());
+
+    request.getAsyncContext().complete();
+
+    assertEquals(1, filter.availablePermits());
+  }
+
+  @Test
+  void rejectsRequestsOverLimit() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch finish = new CountDownLatch(1);
+    Thread slow = new Thread(() -> {
+      try {
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+            (req, res) -> {
+              started.countDown();
+              try {
+                finish.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    slow.start();
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    AtomicBoolean handled = new AtomicBoolean();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest(), response, (req, res) -> handled.set(true));
+    finish.countDown();
+    slow.join();
+
+    assertFalse(handled.get());
+    assertEquals(503, response.getStatus());
+    assertEquals("1", response.getHeader("Retry-After"));
+    assertEquals(1, filter.availablePermits());
+  }
+}